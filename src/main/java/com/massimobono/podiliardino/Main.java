@@ -24,7 +24,10 @@ import org.jdom2.output.XMLOutputter;
 import com.massimobono.podiliardino.extensibles.dao.DAO;
 import com.massimobono.podiliardino.extensibles.dao.DAOException;
 import com.massimobono.podiliardino.extensibles.dao.SQLiteDAOImpl;
+import com.massimobono.podiliardino.extensibles.dao.SQLiteDAOImpl.CheckpointMode;
+import com.massimobono.podiliardino.extensibles.matches.PairingEngine;
 import com.massimobono.podiliardino.util.ExceptionAlert;
+import com.massimobono.podiliardino.util.ExecutionPolicy;
 import com.massimobono.podiliardino.util.I18N;
 import com.massimobono.podiliardino.util.INIHandler;
 import com.massimobono.podiliardino.util.Utils;
@@ -65,12 +68,41 @@ public class Main extends Application {
 	private static final String INI_FILENAME = "settings.ini";
 	private static final String INI_SECTION = "podiliardino";
 	private static final String INI_LANG = "lang";
+	/**
+	 * <tt>true</tt> if the changes of the model should be written on the database by a dedicated thread. Changes still queued when
+	 * the application is killed are lost, hence it is disabled by default
+	 */
+	private static final String INI_WRITE_BEHIND = "writebehind";
+	/**
+	 * number of read-only connections to the database. 0, the default, leaves the journal mode of the database untouched
+	 */
+	private static final String INI_WAL_READERS = "walreaders";
+	/**
+	 * checkpoint mode of the database WAL file. Either <tt>automatic</tt> (the default) or <tt>onidle</tt>
+	 */
+	private static final String INI_CHECKPOINT = "checkpoint";
+	/**
+	 * maximum number of tournaments whose days and matches are kept in memory. 0, the default, loads every tournament at startup
+	 */
+	private static final String INI_LOADED_TOURNAMENTS = "loadedtournaments";
+	/**
+	 * minimum number of elements a collection of the model needs to be processed in parallel (see {@link ExecutionPolicy})
+	 */
+	private static final String INI_PARALLEL_THRESHOLD = "parallelthreshold";
+	/**
+	 * the engine used to pair the teams of a day. Either <tt>distinctmatches</tt>, <tt>maximumweightmatching</tt> or <tt>scoregroups</tt>
+	 */
+	private static final String INI_PAIRING = "pairing";
+	private static final boolean DEFAULT_WRITE_BEHIND = false;
+	private static final int DEFAULT_WAL_READERS = 0;
+	private static final int DEFAULT_LOADED_TOURNAMENTS = 0;
 	
 	private Stage primaryStage;
 	private BorderPane rootScene;
 	
 	private DAO dao;
 	private INIHandler settings;
+	private PairingEngine pairingEngine;
 	
 	public static void main(String[] args) throws IOException {
 		launch(args);
@@ -79,8 +111,21 @@ public class Main extends Application {
 	
 	public Main() throws DAOException, IOException {
 		this.settings = new INIHandler(INI_FILENAME, true);
+		this.pairingEngine = this.getSetting(INI_PAIRING, PairingEngine::fromSetting, PairingEngine.DISTINCT_MATCHES);
+		ExecutionPolicy.setParallelThreshold(this.getSetting(INI_PARALLEL_THRESHOLD, Main::parseCount, ExecutionPolicy.DEFAULT_PARALLEL_THRESHOLD));
 		
-		this.dao = new SQLiteDAOImpl(new File("data.db"), true);
+		//the UI thread may avoid waiting for the disk every time the model changes, and reads shouldn't wait for the writes
+		boolean writeBehind = this.getSetting(INI_WRITE_BEHIND, Main::parseFlag, DEFAULT_WRITE_BEHIND);
+		int walReaders = this.getSetting(INI_WAL_READERS, Main::parseCount, DEFAULT_WAL_READERS);
+		CheckpointMode checkpointMode = this.getSetting(INI_CHECKPOINT, CheckpointMode::fromSetting, CheckpointMode.AUTOMATIC);
+		SQLiteDAOImpl sqliteDAO = new SQLiteDAOImpl(new File("data.db"), true, writeBehind, walReaders, checkpointMode);
+		//if a cap is set, only the tournaments the user looks at need their days and matches in memory
+		sqliteDAO.setMaximumLoadedTournaments(this.getSetting(INI_LOADED_TOURNAMENTS, Main::parseCount, DEFAULT_LOADED_TOURNAMENTS));
+		this.dao = sqliteDAO;
+		//fetch data from the DAO before anything else queries it. Otherwise every entity would be loaded one after the other
+		LOG.info("Fetching data from DAO...");
+		this.dao.loadAll();
+		LOG.info("DONE");
 		//ensure to have a dummy team with 2 dummy players
 		Utils.addDummyTeam(this.dao);
 		
@@ -89,6 +134,59 @@ public class Main extends Application {
 		I18N.set(lang.orElse("en"));
 	}
 
+	/**
+	 * Reads a setting of the application from the ini file
+	 * 
+	 * A malformed value doesn't prevent the application from starting: it is logged and replaced by <tt>defaultValue</tt>
+	 * 
+	 * @param key the key of the setting inside {@link #INI_SECTION}
+	 * @param parser converts the value inside the ini file. It throws {@link IllegalArgumentException} if the value is not valid
+	 * @param defaultValue the value to use if the ini file doesn't contain the setting or if its value is not valid
+	 * @return the value of the setting
+	 */
+	private <T> T getSetting(String key, Function<String, T> parser, T defaultValue) {
+		Optional<String> value = this.settings.getString(INI_SECTION, key);
+		if (!value.isPresent()) {
+			return defaultValue;
+		}
+		try {
+			return parser.apply(value.get());
+		} catch (IllegalArgumentException e) {
+			LOG.warn("invalid value \"{}\" of setting {} ({}): using {}", value.get(), key, e.getMessage(), defaultValue);
+			return defaultValue;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param value the value of a setting representing a number of elements
+	 * @return the non negative number represented by <tt>value</tt>
+	 * @throws IllegalArgumentException if <tt>value</tt> is not a non negative integer
+	 */
+	private static int parseCount(String value) {
+		int count = Integer.parseInt(value);
+		if (count < 0) {
+			throw new IllegalArgumentException(String.format("%d can't be negative", count));
+		}
+		return count;
+	}
+	
+	/**
+	 * 
+	 * @param value the value of a boolean setting
+	 * @return the flag represented by <tt>value</tt>
+	 * @throws IllegalArgumentException if <tt>value</tt> is neither <tt>true</tt> nor <tt>false</tt>
+	 */
+	private static boolean parseFlag(String value) {
+		if (value.equalsIgnoreCase("true")) {
+			return true;
+		}
+		if (value.equalsIgnoreCase("false")) {
+			return false;
+		}
+		throw new IllegalArgumentException(String.format("%s is neither true nor false", value));
+	}
+
 	@Override
 	public void start(Stage primaryStage) {
 		this.primaryStage = primaryStage;
@@ -133,23 +231,14 @@ public class Main extends Application {
 			ExceptionAlert.showAndWait(e1);
 		}
 		
-		//fetch data from the DAO. Otherwie the DAO won't fetch anything at the beginning
-		try {
-			LOG.info("Fetching data from DAO...");
-			this.dao.getAllPlayers();
-			this.dao.getAllTeams();
-			this.dao.getAllTournaments();
-			LOG.info("DONE");
-		} catch (DAOException e) {
-			e.printStackTrace();
-			ExceptionAlert.showAndWait(e);
-		}
-		
 	}
 	
 	@Override
 	public void stop() throws Exception {
+		//every change still waiting needs to reach the database before closing it
+		this.dao.flush();
 		this.dao.tearDown();
+		LOG.info("streams over the model: {} sequential, {} parallel", ExecutionPolicy.getSequentialStreams(), ExecutionPolicy.getParallelStreams());
 		super.stop();
 	}
 	
@@ -252,4 +341,12 @@ public class Main extends Application {
 		return this.primaryStage;
 	}
 	
+	/**
+	 * 
+	 * @return the engine used to pair the teams of a day, as configured in the settings
+	 */
+	public PairingEngine getPairingEngine() {
+		return this.pairingEngine;
+	}
+	
 }
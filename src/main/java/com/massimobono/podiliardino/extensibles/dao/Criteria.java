@@ -0,0 +1,230 @@
+package com.massimobono.podiliardino.extensibles.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import com.massimobono.podiliardino.model.Day;
+import com.massimobono.podiliardino.model.Indexable;
+import com.massimobono.podiliardino.model.Player;
+import com.massimobono.podiliardino.model.Team;
+import com.massimobono.podiliardino.model.Tournament;
+import com.massimobono.podiliardino.util.Utils;
+
+/**
+ * Represents a condition on the entities a {@link DAO} contains
+ *
+ * A criteria is a filter like the {@link Function} accepted by the <tt>get*That</tt> methods of {@link DAO}, but it knows how it is
+ * expressed on the columns of the table of the entity as well. In this way a DAO can fetch only the entities satisfying it (possibly by using an index)
+ * instead of fetching every entity and filtering them afterwards. DAOs unable to do so can still use it as a plain filter.
+ *
+ * Criteria are created with the static factories of the class and can be combined with {@link #and(Criteria)}. For example:
+ * <pre><code>
+ * dao.getAllTeamsThat(Criteria.teamInTournament(t).and(Criteria.teamNameStartsWith("A")));
+ * </code></pre>
+ *
+ * @author massi
+ *
+ * @param <T> the entity the criteria is about
+ */
+public class Criteria<T extends Indexable> implements Function<T, Boolean> {
+
+	/**
+	 * the conditions on the columns of the table of the entity, in SQL. The criteria is satisfied if all of them are
+	 */
+	private final List<String> clauses;
+	/**
+	 * the values of the placeholders inside {@link #clauses}, in order
+	 */
+	private final List<Object> parameters;
+	/**
+	 * the same condition of {@link #clauses}, checked on the entity in memory
+	 */
+	private final Function<T, Boolean> predicate;
+	/**
+	 * true if {@link #clauses} read the tables of the relationships (or the columns referencing another entity)
+	 */
+	private final boolean relationships;
+
+	private Criteria(List<String> clauses, List<Object> parameters, Function<T, Boolean> predicate, boolean relationships) {
+		this.clauses = clauses;
+		this.parameters = parameters;
+		this.predicate = predicate;
+		this.relationships = relationships;
+	}
+
+	private Criteria(String clause, Function<T, Boolean> predicate, Object... parameters) {
+		this(Arrays.asList(clause), Arrays.asList(parameters), predicate, false);
+	}
+
+	/**
+	 * Like {@link #Criteria(String, Function, Object...)}, but for clauses on the relationships of the entity
+	 */
+	private static <T extends Indexable> Criteria<T> onRelationship(String clause, Function<T, Boolean> predicate, Object... parameters) {
+		return new Criteria<>(Arrays.asList(clause), Arrays.asList(parameters), predicate, true);
+	}
+
+	/**
+	 *
+	 * @param other another criteria on the same entity
+	 * @return a criteria satisfied only by the entities satisfying both this criteria and <tt>other</tt>
+	 */
+	public Criteria<T> and(Criteria<T> other) {
+		List<String> clauses = new ArrayList<>(this.clauses);
+		clauses.addAll(other.clauses);
+		List<Object> parameters = new ArrayList<>(this.parameters);
+		parameters.addAll(other.parameters);
+		return new Criteria<>(clauses, parameters, t -> this.predicate.apply(t) && other.predicate.apply(t), this.relationships || other.relationships);
+	}
+
+	@Override
+	public Boolean apply(T t) {
+		return this.predicate.apply(t);
+	}
+
+	/**
+	 *
+	 * @return the condition in SQL, to put after the <tt>WHERE</tt>. Columns are referenced without the name of the table
+	 */
+	public String getWhereClause() {
+		return this.clauses.isEmpty() ? "1" : String.join(" AND ", this.clauses);
+	}
+
+	/**
+	 *
+	 * @return the values of the placeholders inside {@link #getWhereClause()}, in order
+	 */
+	public List<Object> getParameters() {
+		return Collections.unmodifiableList(this.parameters);
+	}
+
+	/**
+	 * The relationships of the model may reach the database some time after they have been changed (for example in write-behind mode).
+	 * A DAO evaluating the criteria on the database needs to write them before doing so
+	 *
+	 * @return true if the criteria depends on the relationships of the entity, false if it depends only on its own columns
+	 */
+	public boolean readsRelationships() {
+		return this.relationships;
+	}
+
+	// GENERIC
+
+	public static <T extends Indexable> Criteria<T> idIs(long id) {
+		return new Criteria<>("id = ?", t -> t.getId() == id, id);
+	}
+
+	// PLAYERS
+
+	public static Criteria<Player> playerNameIs(String name) {
+		return new Criteria<>("name = ?", p -> p.nameProperty().get().equals(name), name);
+	}
+
+	public static Criteria<Player> playerNameStartsWith(String prefix) {
+		return nameStartsWith(prefix, p -> p.nameProperty().get());
+	}
+
+	public static Criteria<Player> playerInTeam(Team team) {
+		final long teamId = team.getId();
+		return onRelationship(
+				"id IN (SELECT player_id FROM player_compose_team WHERE team_id = ?)",
+				p -> p.teamsProperty().stream().anyMatch(t -> t.getId() == teamId),
+				teamId);
+	}
+
+	// TEAMS
+
+	public static Criteria<Team> teamNameIs(String name) {
+		return new Criteria<>("name = ?", t -> t.nameProperty().get().equals(name), name);
+	}
+
+	public static Criteria<Team> teamNameStartsWith(String prefix) {
+		return nameStartsWith(prefix, t -> t.nameProperty().get());
+	}
+
+	public static Criteria<Team> teamWithPlayer(Player player) {
+		final long playerId = player.getId();
+		return onRelationship(
+				"id IN (SELECT team_id FROM player_compose_team WHERE player_id = ?)",
+				t -> t.playersProperty().stream().anyMatch(p -> p.getId() == playerId),
+				playerId);
+	}
+
+	public static Criteria<Team> teamInTournament(Tournament tournament) {
+		final long tournamentId = tournament.getId();
+		return onRelationship(
+				"id IN (SELECT team_id FROM partecipation WHERE tournament_id = ?)",
+				t -> t.partecipationsProperty().stream().anyMatch(p -> p.getTournament().get().getId() == tournamentId),
+				tournamentId);
+	}
+
+	public static Criteria<Team> teamCreatedBetween(LocalDate from, LocalDate to) {
+		return dateBetween("date", from, to, t -> t.dateProperty().get());
+	}
+
+	// TOURNAMENTS
+
+	public static Criteria<Tournament> tournamentNameStartsWith(String prefix) {
+		return nameStartsWith(prefix, t -> t.nameProperty().get());
+	}
+
+	public static Criteria<Tournament> tournamentStartingBetween(LocalDate from, LocalDate to) {
+		return dateBetween("start_date", from, to, t -> t.startDateProperty().get());
+	}
+
+	// DAYS
+
+	public static Criteria<Day> dayInTournament(Tournament tournament) {
+		final long tournamentId = tournament.getId();
+		return onRelationship("tournament_id = ?", d -> d.getTournament() != null && d.getTournament().getId() == tournamentId, tournamentId);
+	}
+
+	public static Criteria<Day> dayOn(LocalDate date) {
+		return new Criteria<>("date = ?", d -> d.dateProperty().get().equals(date), Utils.getISODateFrom(date));
+	}
+
+	public static Criteria<Day> dayBetween(LocalDate from, LocalDate to) {
+		return dateBetween("date", from, to, d -> d.dateProperty().get());
+	}
+
+	/**
+	 * The prefix is looked up as a range of the column <tt>name</tt>, so an index on the column can be used
+	 *
+	 * @param prefix the prefix the name has to start with (case sensitive)
+	 * @param name the name of an entity
+	 * @return a criteria satisfied by the entities whose name starts with <tt>prefix</tt>
+	 */
+	private static <T extends Indexable> Criteria<T> nameStartsWith(String prefix, Function<T, String> name) {
+		Function<T, Boolean> predicate = t -> name.apply(t).startsWith(prefix);
+		if (prefix.isEmpty()) {
+			return new Criteria<>(new ArrayList<>(), new ArrayList<>(), predicate, false);
+		}
+		char last = prefix.charAt(prefix.length() - 1);
+		if (last == Character.MAX_VALUE) {
+			//there is no upper bound: the range contains more entities than needed, but the predicate discards them
+			return new Criteria<>("name >= ?", predicate, prefix);
+		}
+		String upperBound = prefix.substring(0, prefix.length() - 1) + (char)(last + 1);
+		return new Criteria<>("name >= ? AND name < ?", predicate, prefix, upperBound);
+	}
+
+	/**
+	 * Dates are stored in ISO-8601 format (see {@link Utils#getISODateFrom(LocalDate)}), hence they can be compared as strings
+	 *
+	 * @param column the column containing the date
+	 * @param from the first date of the range (inclusive)
+	 * @param to the last date of the range (inclusive)
+	 * @param date the date of an entity
+	 * @return a criteria satisfied by the entities whose date is inside the range
+	 */
+	private static <T extends Indexable> Criteria<T> dateBetween(String column, LocalDate from, LocalDate to, Function<T, LocalDate> date) {
+		return new Criteria<>(
+				String.format("%s BETWEEN ? AND ?", column),
+				t -> !date.apply(t).isBefore(from) && !date.apply(t).isAfter(to),
+				Utils.getISODateFrom(from), Utils.getISODateFrom(to));
+	}
+
+}
@@ -1,11 +1,14 @@
 package com.massimobono.podiliardino.extensibles.dao;
 
 import java.io.Closeable;
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.massimobono.podiliardino.model.Day;
+import com.massimobono.podiliardino.model.Match;
 import com.massimobono.podiliardino.model.Partecipation;
 import com.massimobono.podiliardino.model.Player;
 import com.massimobono.podiliardino.model.Team;
@@ -36,6 +39,7 @@ import javafx.collections.ObservableList;
  * 	<li>In order to persist an entity instance from the model , you need to call the <tt>add</tt></li>
  * 	<li>If you have just started up the application and you want to populate your model in memory, you need to call the <tt>getAll</tt> APIs: for example if
  * 		have jsut started the application and you want to fetch all the players, you need to call {@link DAO#getAllPlayers()}</li>
+ * 	<li>If you want to populate the whole model at once (for example at startup), you can call {@link DAO#loadAll()}</li>
  * 	<li>In order to synchronize the UI of Java FX the {@link DAO} offers to you also APIs returning {@link ObservableList}: such functions are <tt>getXXXList</tt>;
  * 		the said functions are bounded to return the same list in order that the whole application has a place where all the needed data is stored. Such list
  * 		deals only with entities, not with relationships</li>
@@ -61,6 +65,114 @@ public interface DAO extends Closeable{
 	public void setup() throws DAOException;
 	
 	public void tearDown() throws DAOException;
+	
+	/**
+	 * Populates the model in memory with every entity and relationship stored inside the DAO
+	 * 
+	 * Use it at startup: the implementation may load the whole model faster than calling the <tt>getAll</tt> APIs one after the other.
+	 * Entities already in memory are not created again
+	 * 
+	 * @throws DAOException if something bad happens
+	 */
+	public default void loadAll() throws DAOException {
+		this.getAllPlayers();
+		this.getAllTeams();
+		this.getAllTournaments();
+	}
+	
+	/**
+	 * Waits until every change made on the model has been written inside the DAO
+	 * 
+	 * Implementations writing the changes immediately don't need to do anything. Call it whenever you need the persisted data to be
+	 * up to date (for example before shutting down or before exporting something)
+	 * 
+	 * @throws DAOException if some change couldn't be written
+	 */
+	public default void flush() throws DAOException {
+	}
+	
+	// TRANSACTIONS
+	
+	/**
+	 * Starts a unit of work
+	 * 
+	 * Until {@link #commit()} is called, the DAO is allowed to collect the changes of the model relationships
+	 * instead of writing them immediately: they will be written all together when the unit of work is committed.
+	 * Units of work can be nested: only the outermost {@link #commit()} actually writes the changes
+	 * 
+	 * @throws DAOException if something bad happens
+	 */
+	public void begin() throws DAOException;
+	
+	/**
+	 * Writes every change collected since the outermost {@link #begin()} in a single transaction
+	 * 
+	 * @throws DAOException if something bad happens. In this case the whole unit of work is rolled back
+	 */
+	public void commit() throws DAOException;
+	
+	/**
+	 * Discards every change collected since the outermost {@link #begin()}, even if called inside a nested unit of work
+	 * 
+	 * <b>Only the database is restored: the model in memory is left as it is</b>
+	 * 
+	 * @throws DAOException if something bad happens
+	 */
+	public void rollback() throws DAOException;
+	
+	/**
+	 * Performs some changes inside a single unit of work
+	 * 
+	 * Like {@link #rollback()}, a failure restores only the database: <tt>work</tt> should compute everything that may fail first and
+	 * change the model only once it can no longer fail. If the model is changed before the end of the work, use {@link #inTransaction(Supplier, Runnable)}
+	 * 
+	 * @param work the changes to perform. Returns the first exception encountered (null if everything went fine): in that case the unit of work is rolled back
+	 * @throws DAOException if <tt>work</tt> fails or if the changes can't be committed
+	 */
+	public default void inTransaction(Supplier<Exception> work) throws DAOException {
+		this.inTransaction(work, () -> {});
+	}
+	
+	/**
+	 * Performs some changes inside a single unit of work, restoring the model if they can't be written
+	 * 
+	 * <pre>{@code
+	 * List<Match> previous = new ArrayList<>(day.matchesProperty());
+	 * dao.inTransaction(() -> {
+	 * 	day.matchesProperty().setAll(matches);
+	 * 	return null;
+	 * }, () -> day.matchesProperty().setAll(previous));
+	 * }</pre>
+	 * 
+	 * @param work the changes to perform. Returns the first exception encountered (null if everything went fine): in that case the unit of work is rolled back
+	 * @param undo restores the model as it was before <tt>work</tt>. It is called after the database has been rolled back, either because <tt>work</tt>
+	 * 	has failed or because the changes couldn't be committed
+	 * @throws DAOException if <tt>work</tt> fails or if the changes can't be committed
+	 */
+	public default void inTransaction(Supplier<Exception> work, Runnable undo) throws DAOException {
+		Exception e;
+		this.begin();
+		try {
+			e = work.get();
+		} catch (RuntimeException ex) {
+			e = ex;
+		}
+		if (e != null) {
+			try {
+				this.rollback();
+			} finally {
+				undo.run();
+			}
+			throw e instanceof DAOException ? (DAOException) e : new DAOException(e);
+		}
+		try {
+			this.commit();
+		} catch (DAOException ex) {
+			//commit has already rolled back the database
+			undo.run();
+			throw ex;
+		}
+	}
 
 	/**
 	 * Adds a new {@link Player} inside the DAO
@@ -117,6 +229,21 @@ public interface DAO extends Closeable{
 		return this.getAllPlayersThat(filter).stream().findFirst();
 	}
 	
+	/**
+	 * like {@link #getAllPlayersThat(Function)}, but the DAO can use <tt>criteria</tt> to fetch only the players satisfying it
+	 * 
+	 * @param criteria the condition the players have to satisfy
+	 * @return all the players satisfying <tt>criteria</tt>
+	 * @throws DAOException if something bad happens
+	 */
+	public default Collection<Player> getAllPlayersThat(Criteria<Player> criteria) throws DAOException {
+		return this.getAllPlayersThat((Function<Player, Boolean>) criteria);
+	}
+	
+	public default Optional<Player> getPlayerThat(Criteria<Player> criteria) throws DAOException {
+		return this.getAllPlayersThat(criteria).stream().findFirst();
+	}
+	
 	
 	/**
 	 * Updates the DAO with the changes you've made on a {@link Team} instance you've changed 
@@ -173,6 +300,32 @@ public interface DAO extends Closeable{
 		return this.getAllTeamsThat(filter).stream().findFirst();
 	}
 	
+	/**
+	 * like {@link #getAllTeamsThat(Function)}, but the DAO can use <tt>criteria</tt> to fetch only the teams satisfying it
+	 * 
+	 * @param criteria the condition the teams have to satisfy
+	 * @return all the teams satisfying <tt>criteria</tt>
+	 * @throws DAOException if something bad happens
+	 */
+	public default Collection<Team> getAllTeamsThat(Criteria<Team> criteria) throws DAOException {
+		return this.getAllTeamsThat((Function<Team, Boolean>) criteria);
+	}
+	
+	public default Optional<Team> getTeamThat(Criteria<Team> criteria) throws DAOException {
+		return this.getAllTeamsThat(criteria).stream().findFirst();
+	}
+	
+	/**
+	 * 
+	 * @param from the first date of the range (inclusive)
+	 * @param to the last date of the range (inclusive)
+	 * @return all the teams created between <tt>from</tt> and <tt>to</tt>
+	 * @throws DAOException if something bad happens
+	 */
+	public default Collection<Team> getTeamsCreatedBetween(LocalDate from, LocalDate to) throws DAOException {
+		return this.getAllTeamsThat(Criteria.teamCreatedBetween(from, to));
+	}
+	
 	// TOURNAMENTS
 	
 	public Tournament add(Tournament tournament) throws DAOException;
@@ -209,6 +362,66 @@ public interface DAO extends Closeable{
 		return this.getAllTournamentsThat(filter).stream().findFirst();
 	}
 	
+	/**
+	 * like {@link #getAllTournamentsThat(Function)}, but the DAO can use <tt>criteria</tt> to fetch only the tournaments satisfying it
+	 * 
+	 * @param criteria the condition the tournaments have to satisfy
+	 * @return all the tournaments satisfying <tt>criteria</tt>
+	 * @throws DAOException if something bad happens
+	 */
+	public default Collection<Tournament> getAllTournamentsThat(Criteria<Tournament> criteria) throws DAOException {
+		return this.getAllTournamentsThat((Function<Tournament, Boolean>) criteria);
+	}
+	
+	public default Optional<Tournament> getTournamentThat(Criteria<Tournament> criteria) throws DAOException {
+		return this.getAllTournamentsThat(criteria).stream().findFirst();
+	}
+	
+	/**
+	 * 
+	 * @param from the first date of the range (inclusive)
+	 * @param to the last date of the range (inclusive)
+	 * @return all the tournaments starting between <tt>from</tt> and <tt>to</tt>
+	 * @throws DAOException if something bad happens
+	 */
+	public default Collection<Tournament> getTournamentsBetween(LocalDate from, LocalDate to) throws DAOException {
+		return this.getAllTournamentsThat(Criteria.tournamentStartingBetween(from, to));
+	}
+
+	/**
+	 * Ensures the days of the tournament (and their matches) are in memory
+	 *
+	 * An implementation may load the tournaments as shells, without their days and matches, in order to keep the memory
+	 * used by old tournaments low. Call this function before accessing {@link Tournament#daysProperty()} of a tournament
+	 * (for example when the user selects it). Implementations loading every tournament eagerly don't need to do anything
+	 *
+	 * @param tournament the tournament involved
+	 * @throws DAOException if something bad happens
+	 */
+	public default void load(Tournament tournament) throws DAOException {
+	}
+
+	/**
+	 * Removes from memory the days of the tournament and their matches. Nothing is removed from the DAO itself:
+	 * the days will be fetched again by the next {@link #load(Tournament)}
+	 *
+	 * Implementations loading every tournament eagerly don't need to do anything
+	 *
+	 * @param tournament the tournament involved
+	 * @throws DAOException if something bad happens
+	 */
+	public default void evict(Tournament tournament) throws DAOException {
+	}
+
+	/**
+	 *
+	 * @param tournament the tournament involved
+	 * @return true if the days of the tournament and their matches are in memory, false otherwise
+	 */
+	public default boolean isLoaded(Tournament tournament) {
+		return true;
+	}
+
 	// DAYS
 	
 	public Day add(Day day) throws DAOException;
@@ -232,4 +445,43 @@ public interface DAO extends Closeable{
 		return this.getAllDaysThat(filter).stream().findFirst();
 	}
 	
+	/**
+	 * like {@link #getAllDaysThat(Function)}, but the DAO can use <tt>criteria</tt> to fetch only the days satisfying it
+	 * 
+	 * @param criteria the condition the days have to satisfy
+	 * @return all the days satisfying <tt>criteria</tt>
+	 * @throws DAOException if something bad happens
+	 */
+	public default Collection<Day> getAllDaysThat(Criteria<Day> criteria) throws DAOException {
+		return this.getAllDaysThat((Function<Day, Boolean>) criteria);
+	}
+	
+	public default Optional<Day> getDayThat(Criteria<Day> criteria) throws DAOException {
+		return this.getAllDaysThat(criteria).stream().findFirst();
+	}
+	
+	/**
+	 * 
+	 * @param date the date involved
+	 * @return all the days played on <tt>date</tt>
+	 * @throws DAOException if something bad happens
+	 */
+	public default Collection<Day> getDaysOn(LocalDate date) throws DAOException {
+		return this.getAllDaysThat(Criteria.dayOn(date));
+	}
+	
+	// MATCHES
+	
+	/**
+	 * Updates the DAO with the changes you've made on the result of a {@link Match}
+	 * 
+	 * Only the properties changed since the last update are written (see {@link Match#getDirtyFields()}): after the call
+	 * the match has no dirty property anymore. Use it instead of removing and adding again the match in the model
+	 * 
+	 * @param match the match to synchronize. It must be already in the DAO
+	 * @return the same {@link Match} instance you've provided
+	 * @throws DAOException if something bad happens
+	 */
+	public Match update(Match match) throws DAOException;
+	
 }
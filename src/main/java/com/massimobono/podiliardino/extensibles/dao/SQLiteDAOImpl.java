@@ -11,12 +11,19 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -34,6 +41,8 @@ import com.massimobono.podiliardino.model.Partecipation;
 import com.massimobono.podiliardino.model.Player;
 import com.massimobono.podiliardino.model.Team;
 import com.massimobono.podiliardino.model.Tournament;
+import com.massimobono.podiliardino.util.ExecutionPolicy;
+import com.massimobono.podiliardino.util.ObservableLists;
 import com.massimobono.podiliardino.util.TableFriendlyObservableMap;
 import com.massimobono.podiliardino.util.TerConsumer;
 import com.massimobono.podiliardino.util.TerFunction;
@@ -54,33 +63,90 @@ public class SQLiteDAOImpl implements DAO {
 	private static final Logger LOG = LogManager.getLogger(SQLiteDAOImpl.class.getName());
 
 	private static final int QUERY_TIMEOUT = 30;
+	/**
+	 * milliseconds the write-behind thread waits after being woken up, in order to collect (and coalesce) more writes
+	 */
+	private static final int WRITE_BEHIND_DELAY = 50;
+	/**
+	 * prefix of the name of the statements updating only some columns of a match
+	 */
+	static final String PARTIAL_MATCH_UPDATE = "updateMatchColumns";
+	/**
+	 * milliseconds the writer connection has to be unused before the DAO considers itself idle (see {@link CheckpointMode#ON_IDLE})
+	 */
+	private static final int IDLE_CHECKPOINT_DELAY = 1000;
+
+	/**
+	 * How the WAL file of a database in WAL mode is moved back into the database file
+	 * 
+	 * @author massi
+	 *
+	 */
+	public enum CheckpointMode {
+		/**
+		 * SQLite performs the checkpoint by itself, every time the WAL file grows too much. The writer connection performing the
+		 * checkpoint waits for it
+		 */
+		AUTOMATIC,
+		/**
+		 * The DAO performs the checkpoint only when it has nothing to write for a while, so result entry never waits for it
+		 */
+		ON_IDLE;
+
+		/**
+		 * 
+		 * @param value the name of the mode, case insensitive and without underscores (eg. <tt>onidle</tt>)
+		 * @return the mode with the given name
+		 * @throws IllegalArgumentException if no mode has the given name
+		 */
+		public static CheckpointMode fromSetting(String value) {
+			for (CheckpointMode mode : values()) {
+				if (mode.name().replace("_", "").equalsIgnoreCase(value)) {
+					return mode;
+				}
+			}
+			throw new IllegalArgumentException(String.format("unknown checkpoint mode %s", value));
+		}
+	}
+
+	/**
+	 * the queries fetching the rows of the main entities and of the matches. They can be followed by a <tt>WHERE</tt> clause
+	 */
+	private static final String SELECT_PLAYERS = "SELECT id, name, surname, birthday, phone FROM player";
+	private static final String SELECT_TEAMS = "SELECT id, name, date FROM team";
+	private static final String SELECT_TOURNAMENTS = "SELECT id,name,start_date,end_date FROM tournament";
+	private static final String SELECT_DAYS = "SELECT id,number,date,seed,tournament_id FROM day";
+	private static final String SELECT_MATCHES = "SELECT team1_id, team2_id, day_id, points_earned_from_winning, points_earned_from_losing, team1_goals, team2_goals, status FROM match";
 
 	private File databaseFileName;
 
 	private class PreparedStatements implements Closeable {
 		private Map<String, PreparedStatement> preparedStatements;
+		private Connection connection;
 
 		public PreparedStatements(Connection connection) throws SQLException {
 			this.preparedStatements = new HashMap<>();
+			this.connection = connection;
 
 			this.preparedStatements.put("insertPlayer",connection.prepareStatement("INSERT INTO player(name, surname, birthday, phone) VALUES(?,?,?,?)"));
-			this.preparedStatements.put("getAllPlayers",connection.prepareStatement("SELECT id, name, surname, birthday, phone FROM player"));
+			this.preparedStatements.put("getAllPlayers",connection.prepareStatement(SELECT_PLAYERS));
 			this.preparedStatements.put("updatePlayer",connection.prepareStatement("UPDATE OR ROLLBACK player SET name=?, surname=?, birthday=?,phone=? WHERE id=?"));
 			this.preparedStatements.put("deletePlayer",connection.prepareStatement("DELETE FROM player WHERE id=?"));
 
 			this.preparedStatements.put("insertTeam",connection.prepareStatement("INSERT INTO team(name, date) VALUES(?,?)"));
-			this.preparedStatements.put("getAllTeams",connection.prepareStatement("SELECT id, name, date FROM team"));
+			this.preparedStatements.put("getAllTeams",connection.prepareStatement(SELECT_TEAMS));
 			this.preparedStatements.put("updateTeam",connection.prepareStatement("UPDATE OR ROLLBACK team SET name=?, date=? WHERE id=?"));
 			this.preparedStatements.put("deleteTeam",connection.prepareStatement("DELETE FROM team WHERE id=?"));
 
 			this.preparedStatements.put("getPlayersInTeam",connection.prepareStatement("SELECT pct.player_id FROM player_compose_team as pct WHERE pct.team_id=?"));
 			this.preparedStatements.put("getTeamWithPlayer",connection.prepareStatement("SELECT pct.team_id FROM player_compose_team as pct WHERE pct.player_id=?"));
+			this.preparedStatements.put("getAllComposes",connection.prepareStatement("SELECT pct.player_id, pct.team_id FROM player_compose_team as pct"));
 
 			this.preparedStatements.put("addPlayerComposeTeam",connection.prepareStatement("INSERT OR IGNORE INTO player_compose_team(player_id, team_id) VALUES(?,?)"));
 			this.preparedStatements.put("removePlayerComposeTeam",connection.prepareStatement("DELETE FROM player_compose_team WHERE player_id=? AND team_id=?"));
 
 			this.preparedStatements.put("insertTournament",connection.prepareStatement("INSERT INTO tournament(name,start_date,end_date) VALUES(?,?,?);"));
-			this.preparedStatements.put("getAllTournaments",connection.prepareStatement("SELECT id,name,start_date,end_date FROM tournament"));
+			this.preparedStatements.put("getAllTournaments",connection.prepareStatement(SELECT_TOURNAMENTS));
 			this.preparedStatements.put("updateTournament",connection.prepareStatement("UPDATE OR ROLLBACK tournament SET name=?, start_date=?, end_date=? WHERE id=?"));
 			this.preparedStatements.put("deleteTournament",connection.prepareStatement("DELETE FROM tournament WHERE id=?"));
 
@@ -91,8 +157,8 @@ public class SQLiteDAOImpl implements DAO {
 			this.preparedStatements.put("getPartecipationsOfTeam",connection.prepareStatement("SELECT p.team_id, p.tournament_id FROM partecipation AS p WHERE p.team_id=?"));
 			this.preparedStatements.put("getPartecipationsInTournament",connection.prepareStatement("SELECT p.team_id, p.tournament_id FROM partecipation AS p WHERE p.tournament_id=?"));
 
-			this.preparedStatements.put("insertDay", connection.prepareStatement("INSERT INTO day(number,date,tournament_id) VALUES(?,?,NULL);"));
-			this.preparedStatements.put("getAllDays", connection.prepareStatement("SELECT id,number,date,tournament_id FROM day"));
+			this.preparedStatements.put("insertDay", connection.prepareStatement("INSERT INTO day(number,date,seed,tournament_id) VALUES(?,?,?,NULL);"));
+			this.preparedStatements.put("getAllDays", connection.prepareStatement(SELECT_DAYS));
 			this.preparedStatements.put("updateDay", connection.prepareStatement("UPDATE OR ROLLBACK day SET number=?,date=? WHERE id=?"));
 			this.preparedStatements.put("deleteDay", connection.prepareStatement("DELETE FROM day WHERE id=?"));
 
@@ -101,15 +167,32 @@ public class SQLiteDAOImpl implements DAO {
 
 			this.preparedStatements.put("getTournamentFromDay", connection.prepareStatement("SELECT tournament_id FROM day WHERE id=?"));
 			this.preparedStatements.put("getDaysInTournament", connection.prepareStatement("SELECT d.id FROM day AS d WHERE tournament_id=?"));
+			this.preparedStatements.put("getDaysOfTournament", connection.prepareStatement(SELECT_DAYS + " WHERE tournament_id=?"));
+			this.preparedStatements.put("getDaysWithoutTournament", connection.prepareStatement(SELECT_DAYS + " WHERE tournament_id IS NULL"));
 
 			// MATCHES
 
 			this.preparedStatements.put("insertMatch", connection.prepareStatement("INSERT OR IGNORE INTO match(team1_id, team2_id, day_id, points_earned_from_winning, points_earned_from_losing, team1_goals, team2_goals, status) VALUES (?,?,?,?,?,?,?,?)"));
 			this.preparedStatements.put("deleteMatch", connection.prepareStatement("DELETE FROM match WHERE team1_id=? AND team2_id=? AND day_id=?"));
-			this.preparedStatements.put("setMatchStatus", connection.prepareStatement("UPDATE OR ROLLBACK match set team1_goals=?, team2_goals=?, status=? WHERE team1_id=? AND team2_id=? and day_id=?"));
-
-			this.preparedStatements.put("getMatchesFromTeam", connection.prepareStatement("SELECT team1_id, team2_id, day_id, points_earned_from_winning, points_earned_from_losing, team1_goals, team2_goals, status FROM match WHERE team1_id=? OR team2_id=?"));
-			this.preparedStatements.put("getMatchesFromDay", connection.prepareStatement("SELECT team1_id, team2_id, day_id, points_earned_from_winning, points_earned_from_losing, team1_goals, team2_goals, status FROM match WHERE day_id=?"));
+			this.preparedStatements.put("updateMatch", connection.prepareStatement("UPDATE match SET points_earned_from_winning=?, points_earned_from_losing=?, team1_goals=?, team2_goals=?, status=? WHERE team1_id=? AND team2_id=? AND day_id=?"));
+
+			this.preparedStatements.put("getMatchesFromTeam", connection.prepareStatement(SELECT_MATCHES + " WHERE team1_id=? OR team2_id=?"));
+			this.preparedStatements.put("getMatchesFromDay", connection.prepareStatement(SELECT_MATCHES + " WHERE day_id=?"));
+			this.preparedStatements.put("getAllMatches", connection.prepareStatement(SELECT_MATCHES));
+			this.preparedStatements.put("getMatchesInTournament", connection.prepareStatement(SELECT_MATCHES + " WHERE day_id IN (SELECT id FROM day WHERE tournament_id=?)"));
+			this.preparedStatements.put("getMatchesOfDaysWithoutTournament", connection.prepareStatement(SELECT_MATCHES + " WHERE day_id IN (SELECT id FROM day WHERE tournament_id IS NULL)"));
+
+			// CASCADES
+
+			//when an entity is removed, its relationships are removed with a single statement each
+			this.preparedStatements.put("deleteComposesOfPlayer", connection.prepareStatement("DELETE FROM player_compose_team WHERE player_id=?"));
+			this.preparedStatements.put("deleteComposesOfTeam", connection.prepareStatement("DELETE FROM player_compose_team WHERE team_id=?"));
+			this.preparedStatements.put("deletePartecipationsOfTeam", connection.prepareStatement("DELETE FROM partecipation WHERE team_id=?"));
+			this.preparedStatements.put("deletePartecipationsInTournament", connection.prepareStatement("DELETE FROM partecipation WHERE tournament_id=?"));
+			this.preparedStatements.put("deleteDaysOfTournament", connection.prepareStatement("DELETE FROM day WHERE tournament_id=?"));
+			this.preparedStatements.put("deleteMatchesOfTeam", connection.prepareStatement("DELETE FROM match WHERE team1_id=? OR team2_id=?"));
+			this.preparedStatements.put("deleteMatchesOfDay", connection.prepareStatement("DELETE FROM match WHERE day_id=?"));
+			this.preparedStatements.put("deleteMatchesInTournament", connection.prepareStatement("DELETE FROM match WHERE day_id IN (SELECT id FROM day WHERE tournament_id=?)"));
 
 			//GENERAL
 
@@ -124,6 +207,18 @@ public class SQLiteDAOImpl implements DAO {
 			return this.get("getMatchesFromTeam");
 		}
 
+		public PreparedStatement getGetAllMatches() {
+			return this.get("getAllMatches");
+		}
+
+		public PreparedStatement getGetMatchesInTournament() {
+			return this.get("getMatchesInTournament");
+		}
+
+		public PreparedStatement getGetMatchesOfDaysWithoutTournament() {
+			return this.get("getMatchesOfDaysWithoutTournament");
+		}
+
 		public PreparedStatement getDeleteMatch() {
 			return this.get("deleteMatch");
 		}
@@ -132,10 +227,6 @@ public class SQLiteDAOImpl implements DAO {
 			return this.get("insertMatch");
 		}
 
-		public PreparedStatement getSetMatchStatus() {
-			return this.get("setMatchStatus");
-		}
-
 		public PreparedStatement getDeleteDivision() {
 			return this.get("deleteDivision");
 		}
@@ -148,6 +239,14 @@ public class SQLiteDAOImpl implements DAO {
 			return this.get("getDaysInTournament");
 		}
 
+		public PreparedStatement getGetDaysOfTournament() {
+			return this.get("getDaysOfTournament");
+		}
+
+		public PreparedStatement getGetDaysWithoutTournament() {
+			return this.get("getDaysWithoutTournament");
+		}
+
 		public PreparedStatement getGetTournamentFromDay() {
 			return this.get("getTournamentFromDay");
 		}
@@ -224,6 +323,10 @@ public class SQLiteDAOImpl implements DAO {
 			return this.preparedStatements.get("getTeamWithPlayer");
 		}
 
+		public PreparedStatement getGetAllComposes() {
+			return this.get("getAllComposes");
+		}
+
 		public PreparedStatement getAddPlayerComposeTeam() {
 			return this.preparedStatements.get("addPlayerComposeTeam");
 		}
@@ -260,10 +363,82 @@ public class SQLiteDAOImpl implements DAO {
 			return this.preparedStatements.get("lastInsertedRow");
 		}
 
+		public PreparedStatement getDeleteComposesOfPlayer() {
+			return this.get("deleteComposesOfPlayer");
+		}
+
+		public PreparedStatement getDeleteComposesOfTeam() {
+			return this.get("deleteComposesOfTeam");
+		}
+
+		public PreparedStatement getDeletePartecipationsOfTeam() {
+			return this.get("deletePartecipationsOfTeam");
+		}
+
+		public PreparedStatement getDeletePartecipationsInTournament() {
+			return this.get("deletePartecipationsInTournament");
+		}
+
+		public PreparedStatement getDeleteDaysOfTournament() {
+			return this.get("deleteDaysOfTournament");
+		}
+
+		public PreparedStatement getDeleteMatchesOfTeam() {
+			return this.get("deleteMatchesOfTeam");
+		}
+
+		public PreparedStatement getDeleteMatchesOfDay() {
+			return this.get("deleteMatchesOfDay");
+		}
+
+		public PreparedStatement getDeleteMatchesInTournament() {
+			return this.get("deleteMatchesInTournament");
+		}
+
 		private PreparedStatement get(String key) {
 			return this.preparedStatements.get(key);
 		}
 
+		public Connection getConnection() {
+			return this.connection;
+		}
+
+		/**
+		 * Fetches the statement selecting the rows satisfying a {@link Criteria}. The statement is prepared the first time the criteria is used
+		 * 
+		 * @param select the query selecting all the rows of the table
+		 * @param criteria the criteria the rows have to satisfy
+		 * @return the statement. Its parameters are not set
+		 * @throws IllegalArgumentException if the statement can't be prepared
+		 */
+		public PreparedStatement getCriteriaQuery(String select, Criteria<?> criteria) {
+			String sql = String.format("%s WHERE %s", select, criteria.getWhereClause());
+			try {
+				return this.getOrPrepare(sql, sql);
+			} catch (SQLException e) {
+				throw new IllegalArgumentException(String.format("can't prepare the query %s", sql), e);
+			}
+		}
+
+		/**
+		 * Like {@link #get(String)}, but if the statement is not available yet it is prepared (and kept for the next times)
+		 * 
+		 * Use it for statements whose SQL is known only at runtime
+		 * 
+		 * @param key the name of the statement
+		 * @param sql the SQL of the statement
+		 * @return the prepared statement
+		 * @throws SQLException if something bad happens
+		 */
+		private PreparedStatement getOrPrepare(String key, String sql) throws SQLException {
+			PreparedStatement retVal = this.preparedStatements.get(key);
+			if (retVal == null) {
+				retVal = this.connection.prepareStatement(sql);
+				this.preparedStatements.put(key, retVal);
+			}
+			return retVal;
+		}
+
 		@Override
 		public void close() throws IOException {
 			try {
@@ -278,13 +453,125 @@ public class SQLiteDAOImpl implements DAO {
 
 	/**
 	 * True if the connection is used by another level of the java Stack, False otherwise.
-	 * The field is useful to ensure no stack uses twice {@link #connection} in 2 different places.
+	 * The field is useful to ensure no stack uses twice {@link #singleConnection} in 2 different places. Guarded by {@link #connectionLock}
 	 * 
 	 */
 	private boolean connectionUsed;
+	/**
+	 * Guards {@link #singleConnection}: the connection is shared between the thread using the DAO and the write-behind thread.
+	 * The thread using the DAO keeps the lock for the whole duration of a unit of work
+	 */
+	private final ReentrantLock connectionLock;
+	/**
+	 * the connection used to write on the database. If the database is in WAL mode (see {@link #readConnections}) it is the only one allowed to write
+	 */
 	private Connection singleConnection;
 	private PreparedStatements preparedStatements;
 
+	/**
+	 * the maximum number of read-only connections. If it is 0, the database uses the rollback journal and {@link #singleConnection} is used to read as well.
+	 * Otherwise the database is in WAL mode: readers don't block the writer and the writer doesn't block readers
+	 */
+	private final int readConnections;
+	private final CheckpointMode checkpointMode;
+	/**
+	 * all the read-only connections opened up until now (together with their statements). Use it as monitor when opening a new one
+	 */
+	private final List<PreparedStatements> readers;
+	/**
+	 * the read-only connections no one is using
+	 */
+	private final BlockingQueue<PreparedStatements> idleReaders;
+	/**
+	 * the read-only connection the current thread is using, if any. Reads nested in another read use the same connection
+	 */
+	private final ThreadLocal<PreparedStatements> borrowedReader;
+	/**
+	 * the last time (in milliseconds) {@link #singleConnection} has been used
+	 */
+	private volatile long lastWriterUse;
+	/**
+	 * true if {@link #singleConnection} has been used since the last checkpoint
+	 */
+	private volatile boolean checkpointNeeded;
+
+	/**
+	 * A write on the database that can be postponed
+	 * 
+	 * @author massi
+	 *
+	 */
+	static class PendingWrite {
+		/**
+		 * the name of the prepared statement to execute
+		 */
+		final String statement;
+		/**
+		 * the SQL of the statement, if it is not one of the statements prepared when the connection is created. null otherwise
+		 */
+		final String sql;
+		/**
+		 * identifies the row the write changes. Writes with the same key change the same row
+		 */
+		final List<Object> key;
+		final Object[] parameters;
+
+		public PendingWrite(String statement, String sql, List<Object> key, Object... parameters) {
+			this.statement = statement;
+			this.sql = sql;
+			this.key = key;
+			this.parameters = parameters;
+		}
+
+		public PendingWrite(String statement, List<Object> key, Object... parameters) {
+			this(statement, null, key, parameters);
+		}
+
+		/**
+		 * 
+		 * @return true if the write doesn't establish whether the row is in the database or not, but only changes some of its columns
+		 */
+		public boolean isPartialUpdate() {
+			return this.statement.startsWith(PARTIAL_MATCH_UPDATE);
+		}
+	}
+
+	/**
+	 * the number of units of work currently open. 0 if no unit of work is open
+	 */
+	private int transactionDepth;
+	/**
+	 * the number of changes of the model lists currently turned into writes (see {@link #getDefaultListListener(Object, BiFunction, BiFunction)}).
+	 * While positive, the writes are collected in {@link #pendingWrites} as if a unit of work were open
+	 */
+	private int changeDepth;
+	/**
+	 * the writes collected inside the current unit of work, in the order they have been requested
+	 */
+	private List<PendingWrite> pendingWrites;
+	/**
+	 * the writes waiting for the write-behind thread, in the order they have been requested. Use it as monitor as well
+	 */
+	private final List<PendingWrite> writeBehindQueue;
+	/**
+	 * true if the writes outside a unit of work are queued in {@link #writeBehindQueue}
+	 */
+	private boolean writeBehind;
+	/**
+	 * the thread writing {@link #writeBehindQueue} on the database and performing the checkpoints when the DAO is idle.
+	 * null if the DAO writes synchronously and no checkpoint is needed
+	 */
+	private Thread writeBehindThread;
+	/**
+	 * true if {@link #writeBehindThread} needs to stop. Guarded by {@link #writeBehindQueue}
+	 */
+	private boolean writeBehindStopped;
+	/**
+	 * the last error encountered while writing on behalf of someone who can't receive it (namely {@link #writeBehindThread} or a
+	 * listener of the model), not yet reported to the thread using the DAO. It is thrown by the next write, {@link #flush()} or {@link #commit()}
+	 */
+	private volatile DAOException writeFailure;
+
 	/**
 	 * A map containing all the players computed by the DAO.
 	 * 
@@ -292,7 +579,7 @@ public class SQLiteDAOImpl implements DAO {
 	 * removes a player, this map destroy a reference. Everytime we get players from the DAO,
 	 * the map stores a new reference if it doesn't have already. Otherwise the DAO does not create a new {@link Player} instance.
 	 */
-	private TableFriendlyObservableMap<Long, Player> players;
+	private TableFriendlyObservableMap<Player> players;
 	/**
 	 * A map containing all the teams computed by the DAO.
 	 * 
@@ -300,7 +587,7 @@ public class SQLiteDAOImpl implements DAO {
 	 * removes a team, this map destroy a reference. Everytime we get teams from the DAO,
 	 * the map stores a new reference if it doesn't have already. Otherwise the DAO does not create a new {@link Team} instance.
 	 */
-	private TableFriendlyObservableMap<Long, Team> teams;
+	private TableFriendlyObservableMap<Team> teams;
 	/**
 	 * A map containing all the tournaments computed by the DAO.
 	 * 
@@ -308,7 +595,7 @@ public class SQLiteDAOImpl implements DAO {
 	 * removes a tournament, this map destroy a reference. Everytime we get tournaments from the DAO,
 	 * the map stores a new reference if it doesn't have already. Otherwise the DAO does not create a new {@link Tournament} instance.
 	 */
-	private TableFriendlyObservableMap<Long, Tournament> tournaments;
+	private TableFriendlyObservableMap<Tournament> tournaments;
 
 	/**
 	 * A map containing all the {@link Day} computed by the DAO.
@@ -317,7 +604,23 @@ public class SQLiteDAOImpl implements DAO {
 	 * removes a  {@link Day}, this map destroy a reference. Everytime we get  {@link Day} from the DAO,
 	 * the map stores a new reference if it doesn't have already. Otherwise the DAO does not create a new  {@link Day} instance.
 	 */
-	private TableFriendlyObservableMap<Long, Day> days;
+	private TableFriendlyObservableMap<Day> days;
+
+	/**
+	 * the maximum number of tournaments whose days and matches are kept in memory. If 0 every tournament is loaded eagerly
+	 * (see {@link #setMaximumLoadedTournaments(int)})
+	 */
+	private int maximumLoadedTournaments;
+	/**
+	 * the tournaments whose days and matches are in memory, from the least recently used to the most recently used one.
+	 * Used only if {@link #maximumLoadedTournaments} is positive
+	 */
+	private final LinkedHashMap<Long, Tournament> loadedTournaments;
+	/**
+	 * true if the changes of the model must not reach the database. It is set while the DAO changes the model to mirror what the database
+	 * already contains (see {@link #withoutWrites(Runnable)})
+	 */
+	private boolean writesSuppressed;
 
 	/**
 	 * 
@@ -326,7 +629,41 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something bad happens
 	 */
 	public SQLiteDAOImpl(File databaseFileName, boolean performSetup) throws DAOException {
+		this(databaseFileName, performSetup, false);
+	}
+
+	/**
+	 * 
+	 * @param databaseFileName the file sqlite will use to store data.
+	 * @param performSetup true if you want to perform a setup immediately
+	 * @param writeBehind true if the changes of the model relationships should be written on the database by a dedicated thread. In this way
+	 * 	the thread changing the model (usually the JavaFX one) doesn't wait for the disk. Use {@link #flush()} to wait until every change has been written
+	 * @throws DAOException if something bad happens
+	 */
+	public SQLiteDAOImpl(File databaseFileName, boolean performSetup, boolean writeBehind) throws DAOException {
+		this(databaseFileName, performSetup, writeBehind, 0, CheckpointMode.AUTOMATIC);
+	}
+
+	/**
+	 * 
+	 * @param databaseFileName the file sqlite will use to store data.
+	 * @param performSetup true if you want to perform a setup immediately
+	 * @param writeBehind true if the changes of the model relationships should be written on the database by a dedicated thread (see {@link #SQLiteDAOImpl(File, boolean, boolean)})
+	 * @param readConnections the maximum number of read-only connections. If positive the database is put in WAL mode: the reads performed outside a unit of work
+	 * 	use the read-only connections, hence they can run (for example in a background thread) while the writer connection is writing. If 0 the database
+	 * 	uses a single connection
+	 * @param checkpointMode how the WAL file is moved back into the database. Ignored if <tt>readConnections</tt> is 0
+	 * @throws DAOException if something bad happens
+	 */
+	public SQLiteDAOImpl(File databaseFileName, boolean performSetup, boolean writeBehind, int readConnections, CheckpointMode checkpointMode) throws DAOException {
 		this.databaseFileName = databaseFileName;
+		this.readConnections = readConnections;
+		this.checkpointMode = checkpointMode;
+		this.readers = new ArrayList<>();
+		this.idleReaders = new LinkedBlockingQueue<>();
+		this.borrowedReader = new ThreadLocal<>();
+		this.lastWriterUse = System.currentTimeMillis();
+		this.checkpointNeeded = false;
 		this.preparedStatements = null;
 
 		//main entities list
@@ -335,125 +672,684 @@ public class SQLiteDAOImpl implements DAO {
 		this.tournaments = new TableFriendlyObservableMap<>();
 		this.days = new TableFriendlyObservableMap<>();
 
+		//lazy loading of the tournaments
+		this.maximumLoadedTournaments = 0;
+		this.loadedTournaments = new LinkedHashMap<>(16, 0.75f, true);
+		this.writesSuppressed = false;
+
+		this.transactionDepth = 0;
+		this.changeDepth = 0;
+		this.pendingWrites = new ArrayList<>();
+		this.writeBehindQueue = new ArrayList<>();
+		this.writeBehindStopped = false;
+		this.writeFailure = null;
+		this.connectionLock = new ReentrantLock();
 		this.connectionUsed = false;
 		if (performSetup) {
 			this.setup();
 		}
+		this.writeBehind = writeBehind;
+		if (writeBehind || (this.isWAL() && checkpointMode == CheckpointMode.ON_IDLE)) {
+			this.writeBehindThread = new Thread(this::writeBehind, "write-behind");
+			this.writeBehindThread.setDaemon(true);
+			this.writeBehindThread.start();
+		}
+	}
+
+	@Override
+	public void clearAll() throws DAOException {
+		//otherwise the writes still waiting would restore some rows
+		this.flush();
+		this.connectAndThenDo(false, (c, s,ps) -> {
+			try {
+				s.executeUpdate("DELETE FROM player;");
+				this.players.clear();
+				s.executeUpdate("DELETE FROM team;");
+				this.teams.clear();
+				this.tournaments.clear();
+				s.executeUpdate("DELETE FROM tournament;");
+				this.days.clear();
+				s.executeUpdate("DELETE FROM day;");
+
+				s.executeUpdate("DELETE FROM partecipation;");
+				s.executeUpdate("DELETE FROM player_compose_team;");
+				s.executeUpdate("DELETE FROM match;");
+
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		}); 
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The schema of the database is brought to the latest version by applying the missing {@link SQLiteSchemaMigrations}
+	 */
+	@Override
+	public void setup() throws DAOException {
+		this.connectAndThenDo(false, (c, s,ps) -> {
+			try {
+				s.executeUpdate("PRAGMA foreign_keys = \"1\";");
+				int applied = new SQLiteSchemaMigrations().upgrade(c, s);
+				LOG.info("{} schema migrations applied", applied);
+				return null;
+			} catch (SQLException | DAOException e) {
+				return e;
+			}
+		});
+	}
+
+	@Override
+	public void tearDown() throws DAOException {
+		if (this.writeBehindThread != null) {
+			synchronized (this.writeBehindQueue) {
+				this.writeBehindStopped = true;
+				this.writeBehindQueue.notifyAll();
+			}
+			try {
+				this.writeBehindThread.join();
+			} catch (InterruptedException e) {
+				throw new DAOException(e);
+			}
+			this.writeBehindThread = null;
+			this.writeBehind = false;
+		}
+		//the writes the write-behind thread has left behind
+		this.flush();
+		try {
+			synchronized (this.readers) {
+				for (PreparedStatements reader : this.readers) {
+					reader.close();
+					reader.getConnection().close();
+				}
+				this.readers.clear();
+				this.idleReaders.clear();
+			}
+			//no one reads anymore: the WAL file can be emptied
+			this.checkpoint("TRUNCATE");
+			if (preparedStatements != null) {
+				this.preparedStatements.close();
+			}
+		} catch (IOException | SQLException e) {
+			throw new DAOException(e);
+		}
+	}
+
+	/**
+	 * 
+	 * @return true if the database is in WAL mode
+	 */
+	private boolean isWAL() {
+		return this.readConnections > 0;
+	}
+
+	/**
+	 * Opens a new connection to the database
+	 * 
+	 * @param readOnly true if the connection won't write anything. Meaningful only in WAL mode
+	 * @return the connection
+	 * @throws SQLException if something bad happens
+	 */
+	private Connection openConnection(boolean readOnly) throws SQLException {
+		Connection retVal = DriverManager.getConnection(String.format("jdbc:sqlite:%s", databaseFileName.getAbsolutePath()));
+		if (!this.isWAL()) {
+			return retVal;
+		}
+		try (Statement s = retVal.createStatement()) {
+			//the connections wait for each other instead of failing immediately
+			s.execute(String.format("PRAGMA busy_timeout = %d;", QUERY_TIMEOUT * 1000));
+			if (readOnly) {
+				s.execute("PRAGMA query_only = 1;");
+			} else {
+				s.execute("PRAGMA journal_mode = WAL;");
+				if (this.checkpointMode == CheckpointMode.ON_IDLE) {
+					s.execute("PRAGMA wal_autocheckpoint = 0;");
+				}
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Moves the content of the WAL file back into the database, without waiting for the readers
+	 * 
+	 * Does nothing if the database is not in WAL mode
+	 * 
+	 * @throws DAOException if something bad happens
+	 */
+	public void checkpoint() throws DAOException {
+		this.checkpoint("PASSIVE");
+	}
+
+	/**
+	 * 
+	 * @param mode the SQLite checkpoint mode (eg. <tt>PASSIVE</tt> or <tt>TRUNCATE</tt>)
+	 * @throws DAOException if something bad happens
+	 */
+	private void checkpoint(String mode) throws DAOException {
+		if (!this.isWAL()) {
+			return;
+		}
+		this.connectAndThenDo(false, (c,s,ps) -> {
+			try {
+				s.execute(String.format("PRAGMA wal_checkpoint(%s);", mode));
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		});
+		LOG.debug("WAL checkpoint ({}) performed", mode);
+		this.checkpointNeeded = false;
+	}
+
+	/**
+	 * Performs a checkpoint if the DAO is in {@link CheckpointMode#ON_IDLE} mode and the writer connection has not been used for a while
+	 * 
+	 * @throws DAOException if something bad happens
+	 */
+	private void checkpointIfIdle() throws DAOException {
+		if (!this.isWAL() || this.checkpointMode != CheckpointMode.ON_IDLE || !this.checkpointNeeded) {
+			return;
+		}
+		if ((System.currentTimeMillis() - this.lastWriterUse) < IDLE_CHECKPOINT_DELAY) {
+			return;
+		}
+		//if someone is using the writer connection (for example inside a unit of work) the DAO is not idle
+		if (!this.connectionLock.tryLock()) {
+			return;
+		}
+		try {
+			this.checkpoint();
+		} finally {
+			this.connectionLock.unlock();
+		}
+	}
+
+	/**
+	 * Allows you to execute queries on the system. This is the main function of the class
+	 * 
+	 * Remember that in "queries", you need to return the exception you have encountered (null if you stumbled in no exception)
+	 * 
+	 * @param tryPreparedStatement set this to false if you need to setup the database (you still have tables to create): otherwise the SQl engine will complain about
+	 * 	no tables involved in the prepared statements. Otheriwse set this to true
+	 * @param queries a lambda where you can execute all the statement you want. Remeber to return the exception you find, or "null" if you encounter no exception.The function signature is the following:
+	 * 	<ul>
+	 * 		<li>the first parameter is the connection the software is using to query the database</li>
+	 * 		<li>the second parameter is a {@link Statement} instance you can use to perform generics queries</li>
+	 * 		<li>the third parameter is a {@link PreparedStatements} instance containing all the {@link PreparedStatement} available for you to use to quickly query the system</li>
+	 * 		<li>the output is the first exception you encounter inside the lamda or <tt>null<//tt> if you encounter none of them</li>
+	 * 	</ul>  
+	 * @throws DAOException if something bad happen
+	 */
+	private void connectAndThenDo(boolean tryPreparedStatement, TerFunction<Connection, Statement, PreparedStatements, Exception> queries) throws DAOException {
+		this.connectionLock.lock();
+		try {
+			this.connectAndThenDoWithLock(tryPreparedStatement, queries);
+		} finally {
+			this.connectionLock.unlock();
+		}
+	}
+
+	/**
+	 * Like {@link #connectAndThenDo(boolean, TerFunction)}, assuming we already have {@link #connectionLock}
+	 */
+	private void connectAndThenDoWithLock(boolean tryPreparedStatement, TerFunction<Connection, Statement, PreparedStatements, Exception> queries) throws DAOException {
+		if (connectionUsed) {
+			throw new DAOException("you're trying to access connectAndThenDo Mehotd in 2 different parts of the stack! This can't happen because SQLite3 doesn't support multiple connections!");
+		}
+		try {
+			if (this.singleConnection == null) {
+				this.singleConnection = this.openConnection(false);
+			}
+			this.lastWriterUse = System.currentTimeMillis();
+			this.checkpointNeeded = true;
+			if (tryPreparedStatement && this.preparedStatements == null) {
+				this.preparedStatements = new PreparedStatements(this.singleConnection);
+			}
+			try (Statement statement = this.singleConnection.createStatement()) {
+				this.connectionUsed = true;
+				statement.setQueryTimeout(QUERY_TIMEOUT);
+				Exception e = queries.apply(this.singleConnection, statement, this.preparedStatements);
+				if (e != null) {
+					throw e;
+				}
+			} finally {
+				connectionUsed = false;
+			}
+		} catch (Exception e) {
+			throw new DAOException(e);
+		}
+	}
+
+	/**
+	 * Like {@link #connectAndThenDo(boolean, BiFunction)}, but we will try to setup prepared statement by default
+	 * 
+	 * @param queries
+	 * @throws DAOException
+	 */
+	private void connectAndThenDo(TerFunction<Connection, Statement, PreparedStatements, Exception> queries) throws DAOException {
+		this.connectAndThenDo(true, queries);
+	}
+
+	/**
+	 * Like {@link #connectAndThenDo(TerFunction)}, but for queries which only read the database
+	 * 
+	 * In WAL mode the queries are executed on a read-only connection, hence they don't wait for the writer connection (and the writer doesn't wait for them).
+	 * Inside a unit of work, the queries are executed on the writer connection anyway: otherwise they wouldn't see the changes not committed yet
+	 * 
+	 * @param queries the read-only queries to execute. See {@link #connectAndThenDo(boolean, TerFunction)}
+	 * @throws DAOException if something bad happens
+	 */
+	private void readAndThenDo(TerFunction<Connection, Statement, PreparedStatements, Exception> queries) throws DAOException {
+		if (!this.isWAL() || this.connectionLock.isHeldByCurrentThread()) {
+			this.connectAndThenDo(queries);
+			return;
+		}
+		PreparedStatements reader = this.borrowedReader.get();
+		boolean borrowed = reader == null;
+		try {
+			if (borrowed) {
+				reader = this.borrowReader();
+				this.borrowedReader.set(reader);
+			}
+			try (Statement statement = reader.getConnection().createStatement()) {
+				statement.setQueryTimeout(QUERY_TIMEOUT);
+				Exception e = queries.apply(reader.getConnection(), statement, reader);
+				if (e != null) {
+					throw e;
+				}
+			}
+		} catch (Exception e) {
+			throw new DAOException(e);
+		} finally {
+			if (borrowed && reader != null) {
+				this.borrowedReader.remove();
+				this.idleReaders.add(reader);
+			}
+		}
+	}
+
+	/**
+	 * Takes a read-only connection no one is using. If there is none, a new one is opened or, if there are already {@link #readConnections} connections,
+	 * the function waits until one is released
+	 * 
+	 * @return the read-only connection (together with its statements)
+	 * @throws Exception if something bad happens
+	 */
+	private PreparedStatements borrowReader() throws Exception {
+		PreparedStatements retVal = this.idleReaders.poll();
+		if (retVal != null) {
+			return retVal;
+		}
+		synchronized (this.readers) {
+			if (this.readers.size() < this.readConnections) {
+				//the writer connection puts the database in WAL mode, hence it has to be opened first
+				this.connectAndThenDo((c,s,ps) -> null);
+				retVal = new PreparedStatements(this.openConnection(true));
+				this.readers.add(retVal);
+				return retVal;
+			}
+		}
+		return this.idleReaders.take();
+	}
+
+	@Override
+	public void begin() throws DAOException {
+		if (this.transactionDepth == 0) {
+			//the writes requested before the unit of work are not part of it
+			this.flush();
+			//no one else can use the connection until the unit of work is over
+			this.connectionLock.lock();
+			try {
+				this.connectAndThenDo((c,s,ps) -> {
+					try {
+						c.setAutoCommit(false);
+						return null;
+					} catch (SQLException e) {
+						return e;
+					}
+				});
+			} catch (DAOException e) {
+				this.connectionLock.unlock();
+				throw e;
+			}
+		}
+		this.transactionDepth++;
+	}
+
+	@Override
+	public void commit() throws DAOException {
+		if (this.transactionDepth == 0) {
+			throw new DAOException("commit called without any unit of work open");
+		}
+		this.transactionDepth--;
+		if (this.transactionDepth > 0) {
+			return;
+		}
+		try {
+			this.flushPendingWrites();
+			this.connectAndThenDo((c,s,ps) -> {
+				try {
+					c.commit();
+					c.setAutoCommit(true);
+					return null;
+				} catch (SQLException e) {
+					return e;
+				}
+			});
+		} catch (DAOException e) {
+			this.pendingWrites.clear();
+			this.rollbackConnection();
+			throw e;
+		} finally {
+			this.connectionLock.unlock();
+		}
+	}
+
+	@Override
+	public void rollback() throws DAOException {
+		if (this.transactionDepth == 0) {
+			throw new DAOException("rollback called without any unit of work open");
+		}
+		this.transactionDepth = 0;
+		this.pendingWrites.clear();
+		try {
+			this.rollbackConnection();
+		} finally {
+			this.connectionLock.unlock();
+		}
+	}
+
+	private void rollbackConnection() throws DAOException {
+		this.connectAndThenDo((c,s,ps) -> {
+			try {
+				c.rollback();
+				c.setAutoCommit(true);
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * If the DAO has been created in write-behind mode, the function writes immediately every change still waiting for the write-behind thread.
+	 * If the write-behind thread (or a change of the model) has failed to write something since the last call, the error is reported here.
+	 */
+	@Override
+	public void flush() throws DAOException {
+		this.drainWriteBehindQueue();
+		this.throwWriteFailure();
+	}
+
+	/**
+	 * Stores an error encountered while writing on behalf of someone who can't receive it, so that the thread using the DAO
+	 * receives it with the next write, {@link #flush()} or {@link #commit()}
+	 * 
+	 * @param e the error encountered
+	 */
+	private void storeWriteFailure(DAOException e) {
+		this.writeFailure = e;
+	}
+
+	/**
+	 * 
+	 * @throws DAOException the error stored by {@link #storeWriteFailure(DAOException)}, if any. Once thrown, the error is forgotten
+	 */
+	private void throwWriteFailure() throws DAOException {
+		DAOException failure = this.writeFailure;
+		if (failure != null) {
+			this.writeFailure = null;
+			throw failure;
+		}
+	}
+
+	/**
+	 * Executes a prepared statement which writes on the database
+	 * 
+	 * The statement is not always executed immediately:
+	 * <ul>
+	 * 	<li>if a unit of work is open, it is collected and executed, together with all the others, when the pending writes are flushed (see {@link #flushPendingWrites()});</li>
+	 * 	<li>if it has been requested by a change of a list of the model, it is collected and executed together with the other writes of the change (see {@link #flushChangeWrites()});</li>
+	 * 	<li>if the DAO is in write-behind mode, it is queued and the write-behind thread will execute it;</li>
+	 * </ul>
+	 * 
+	 * @param statement the name of the prepared statement to execute
+	 * @param key identifies the row changed by the statement
+	 * @param parameters the parameters of the statement, in order
+	 * @throws DAOException if something bad happens
+	 */
+	private void write(String statement, List<Object> key, Object... parameters) throws DAOException {
+		this.write(new PendingWrite(statement, key, parameters));
+	}
+
+	/**
+	 * Like {@link #write(String, List, Object...)}
+	 * 
+	 * @param write the write to execute
+	 * @throws DAOException if something bad happens
+	 */
+	private void write(PendingWrite write) throws DAOException {
+		if (this.writesSuppressed) {
+			return;
+		}
+		//a previous write has failed: the caller has to know it before changing anything else
+		this.throwWriteFailure();
+		if (this.transactionDepth > 0 || this.changeDepth > 0) {
+			this.pendingWrites.add(write);
+		} else if (this.writeBehind) {
+			synchronized (this.writeBehindQueue) {
+				this.writeBehindQueue.add(write);
+				this.writeBehindQueue.notifyAll();
+			}
+		} else {
+			this.pendingWrites.add(write);
+			this.flushPendingWrites();
+		}
 	}
 
-	@Override
-	public void clearAll() throws DAOException {
-		this.connectAndThenDo(false, (c, s,ps) -> {
+	/**
+	 * Executes every write requested up until now
+	 * 
+	 * @throws DAOException if something bad happens
+	 */
+	private void flushPendingWrites() throws DAOException {
+		//the writes waiting for the write-behind thread have been requested before the pending ones
+		this.flush();
+		if (this.pendingWrites.isEmpty()) {
+			return;
+		}
+		List<PendingWrite> toFlush = coalesce(this.pendingWrites);
+		this.pendingWrites = new ArrayList<>();
+		this.connectAndThenDo((c,s,ps) -> {
 			try {
-				s.executeUpdate("DELETE FROM player;");
-				this.players.clear();
-				s.executeUpdate("DELETE FROM team;");
-				this.teams.clear();
-				this.tournaments.clear();
-				s.executeUpdate("DELETE FROM tournament;");
-				this.days.clear();
-				s.executeUpdate("DELETE FROM day;");
-
-				s.executeUpdate("DELETE FROM partecipation;");
-				s.executeUpdate("DELETE FROM player_compose_team;");
-				s.executeUpdate("DELETE FROM match;");
-
+				this.executeWrites(c, ps, toFlush);
 				return null;
 			} catch (SQLException e) {
 				return e;
 			}
-		}); 
+		});
 	}
 
-	@Override
-	public void setup() throws DAOException {
-		this.connectAndThenDo(false, (c, s,ps) -> {
+	/**
+	 * The body of {@link #writeBehindThread}
+	 * 
+	 * When there is nothing to write, the thread performs the checkpoints required by {@link CheckpointMode#ON_IDLE}
+	 */
+	private void writeBehind() {
+		boolean idle;
+		while (true) {
+			synchronized (this.writeBehindQueue) {
+				if (this.writeBehindQueue.isEmpty() && !this.writeBehindStopped) {
+					try {
+						this.writeBehindQueue.wait(IDLE_CHECKPOINT_DELAY);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (this.writeBehindStopped) {
+					//tearDown will write what's left
+					return;
+				}
+				idle = this.writeBehindQueue.isEmpty();
+			}
 			try {
-				s.executeUpdate("PRAGMA foreign_keys = \"1\";");
-				s.executeUpdate("CREATE TABLE IF NOT EXISTS player (id integer primary key autoincrement, name varchar(100), surname varchar(100), birthday varchar(20), phone varchar(20));");
-				s.executeUpdate("CREATE INDEX IF NOT EXISTS name ON player (name, surname);");
-
-				s.executeUpdate("CREATE TABLE IF NOT EXISTS team (id integer primary key autoincrement, name varchar(100), date varchar(20));");
-				s.executeUpdate("CREATE INDEX IF NOT EXISTS team_name ON team (name);");
-
-				s.executeUpdate("CREATE TABLE IF NOT EXISTS player_compose_team (player_id INTEGER REFERENCES player(id) ON UPDATE CASCADE, team_id INTEGER REFERENCES team(id) ON UPDATE CASCADE, UNIQUE(player_id, team_id));");
-
-				s.executeUpdate("CREATE TABLE IF NOT EXISTS tournament (id INTEGER PRIMARY KEY AUTOINCREMENT, name varchar(100), start_date varchar(20), end_date varchar(20));");
-
-				s.executeUpdate("CREATE TABLE IF NOT EXISTS day (id INTEGER PRIMARY KEY AUTOINCREMENT, number INTEGER, date varchar(20), tournament_id INTEGER REFERENCES tournament(id) ON UPDATE CASCADE);");
-
-				s.executeUpdate("CREATE TABLE IF NOT EXISTS match (team1_id INTEGER REFERENCES team(id) ON UPDATE CASCADE, team2_id INTEGER REFERENCES team(id) ON UPDATE CASCADE, day_id INTEGER REFERENCES day(id) ON UPDATE CASCADE, points_earned_from_winning INTEGER, points_earned_from_losing INTEGER, team1_goals INTEGER, team2_goals INTEGER, status INTEGER, UNIQUE(team1_id, team2_id, day_id));");
-
-				s.executeUpdate("CREATE TABLE IF NOT EXISTS partecipation (team_id INTEGER REFERENCES team(id) ON UPDATE CASCADE, tournament_id INTEGER REFERENCES tournament(id) ON UPDATE CASCADE, UNIQUE(team_id, tournament_id));");
-
-				return null;
-			} catch (SQLException e) {
-				return e;
+				if (idle) {
+					this.checkpointIfIdle();
+				} else {
+					Thread.sleep(WRITE_BEHIND_DELAY);
+					this.drainWriteBehindQueue();
+				}
+			} catch (InterruptedException e) {
+				return;
+			} catch (DAOException e) {
+				LOG.error("the write-behind thread couldn't write on the database", e);
+				this.storeWriteFailure(e);
 			}
-		});
+		}
 	}
 
-	@Override
-	public void tearDown() throws DAOException {
+	/**
+	 * Writes on the database every write inside {@link #writeBehindQueue}, in a single transaction
+	 * 
+	 * @throws DAOException if something bad happens
+	 */
+	private void drainWriteBehindQueue() throws DAOException {
+		//we take the writes while holding the lock, otherwise 2 threads might write them in the wrong order
+		this.connectionLock.lock();
 		try {
-			if (preparedStatements != null) {
-				this.preparedStatements.close();
+			List<PendingWrite> toWrite;
+			synchronized (this.writeBehindQueue) {
+				if (this.writeBehindQueue.isEmpty()) {
+					return;
+				}
+				toWrite = coalesce(this.writeBehindQueue);
+				this.writeBehindQueue.clear();
 			}
-		} catch (IOException e) {
-			throw new DAOException(e);
+			this.connectAndThenDo((c,s,ps) -> {
+				try {
+					this.executeWrites(c, ps, toWrite);
+					return null;
+				} catch (SQLException e) {
+					return e;
+				}
+			});
+		} finally {
+			this.connectionLock.unlock();
 		}
 	}
 
 	/**
-	 * Allows you to execute queries on the system. This is the main function of the class
+	 * Executes some writes on the database
 	 * 
-	 * Remember that in "queries", you need to return the exception you have encountered (null if you stumbled in no exception)
+	 * The writes are executed in the order they were requested. Consecutive writes using the same statement are sent to the database
+	 * in a single batch. If no unit of work is open, the writes are executed in a transaction of their own.
 	 * 
-	 * @param tryPreparedStatement set this to false if you need to setup the database (you still have tables to create): otherwise the SQl engine will complain about
-	 * 	no tables involved in the prepared statements. Otheriwse set this to true
-	 * @param queries a lambda where you can execute all the statement you want. Remeber to return the exception you find, or "null" if you encounter no exception.The function signature is the following:
-	 * 	<ul>
-	 * 		<li>the first parameter is the connection the software is using to query the database</li>
-	 * 		<li>the second parameter is a {@link Statement} instance you can use to perform generics queries</li>
-	 * 		<li>the third parameter is a {@link PreparedStatements} instance containing all the {@link PreparedStatement} available for you to use to quickly query the system</li>
-	 * 		<li>the output is the first exception you encounter inside the lamda or <tt>null<//tt> if you encounter none of them</li>
-	 * 	</ul>  
-	 * @throws DAOException if something bad happen
+	 * @param c the connection to use
+	 * @param ps the prepared statements available
+	 * @param writes the writes to execute
+	 * @throws SQLException if something bad happens. In this case none of the writes is performed
 	 */
-	private void connectAndThenDo(boolean tryPreparedStatement, TerFunction<Connection, Statement, PreparedStatements, Exception> queries) throws DAOException {
-		if (connectionUsed) {
-			throw new DAOException("you're trying to access connectAndThenDo Mehotd in 2 different parts of the stack! This can't happen because SQLite3 doesn't support multiple connections!");
+	private void executeWrites(Connection c, PreparedStatements ps, List<PendingWrite> writes) throws SQLException {
+		boolean ownTransaction = c.getAutoCommit();
+		if (ownTransaction) {
+			c.setAutoCommit(false);
 		}
 		try {
-			if (this.singleConnection == null) {
-				this.singleConnection = DriverManager.getConnection(String.format("jdbc:sqlite:%s", databaseFileName.getAbsolutePath()));
+			PreparedStatement batch = null;
+			String batchStatement = null;
+			for (PendingWrite write : writes) {
+				if (!write.statement.equals(batchStatement)) {
+					if (batch != null) {
+						batch.executeBatch();
+					}
+					batchStatement = write.statement;
+					batch = write.sql == null ? ps.get(batchStatement) : ps.getOrPrepare(batchStatement, write.sql);
+				}
+				for (int i=0; i<write.parameters.length; i++) {
+					batch.setObject(i + 1, write.parameters[i]);
+				}
+				batch.addBatch();
 			}
-			if (tryPreparedStatement && this.preparedStatements == null) {
-				this.preparedStatements = new PreparedStatements(this.singleConnection);
+			if (batch != null) {
+				batch.executeBatch();
 			}
-			try (Statement statement = this.singleConnection.createStatement()) {
-				this.connectionUsed = true;
-				statement.setQueryTimeout(QUERY_TIMEOUT);
-				Exception e = queries.apply(this.singleConnection, statement, this.preparedStatements);
-				if (e != null) {
-					throw e;
-				}
-			} finally {
-				connectionUsed = false;
+			if (ownTransaction) {
+				c.commit();
+			}
+			LOG.debug("executed {} writes", writes.size());
+		} catch (SQLException e) {
+			if (ownTransaction) {
+				c.rollback();
+			}
+			throw e;
+		} finally {
+			if (ownTransaction) {
+				c.setAutoCommit(true);
 			}
-		} catch (Exception e) {
-			throw new DAOException(e);
 		}
 	}
 
 	/**
-	 * Like {@link #connectAndThenDo(boolean, BiFunction)}, but we will try to setup prepared statement by default
+	 * Reduces a sequence of writes to the shortest one leading the database to the same state
 	 * 
-	 * @param queries
-	 * @throws DAOException
+	 * Only the last write of every row is kept, since it establishes whether the row is in the database or not. The only exception is a
+	 * match first removed and then added again (for example by clearing a day and filling it again): the 2 writes become a single update
+	 * of the match values. Updates of some columns of a match are kept only if they happen after the last write of the row: the previous ones
+	 * are already included in such write.
+	 * 
+	 * <b>The writes can't involve entities added or removed in the meantime</b>: that's why the writes are always flushed before adding or removing an entity
+	 * 
+	 * @param writes the writes to coalesce, in the order they were requested
+	 * @return the writes to execute, in the order they need to be executed
 	 */
-	private void connectAndThenDo(TerFunction<Connection, Statement, PreparedStatements, Exception> queries) throws DAOException {
-		this.connectAndThenDo(true, queries);
+	static List<PendingWrite> coalesce(List<PendingWrite> writes) {
+		Map<List<Object>, Integer> lastWrites = new HashMap<>();
+		Map<List<Object>, PendingWrite> firstWrites = new HashMap<>();
+		Set<List<Object>> removedMatches = new HashSet<>();
+		for (int i=0; i<writes.size(); i++) {
+			PendingWrite write = writes.get(i);
+			if (write.isPartialUpdate()) {
+				continue;
+			}
+			lastWrites.put(write.key, i);
+			firstWrites.putIfAbsent(write.key, write);
+			if (write.statement.equals("deleteMatch")) {
+				removedMatches.add(write.key);
+			}
+		}
+
+		List<PendingWrite> retVal = new ArrayList<>(lastWrites.size());
+		for (int i=0; i<writes.size(); i++) {
+			PendingWrite write = writes.get(i);
+			if (write.isPartialUpdate()) {
+				if (!lastWrites.containsKey(write.key) || lastWrites.get(write.key) < i) {
+					retVal.add(write);
+				}
+				continue;
+			}
+			if (lastWrites.get(write.key) != i) {
+				continue;
+			}
+			if (write.statement.equals("insertMatch") && removedMatches.contains(write.key)) {
+				Object[] p = write.parameters;
+				if (firstWrites.get(write.key).statement.equals("deleteMatch")) {
+					//the match was inside the database before these writes: we just need to update its values
+					retVal.add(new PendingWrite("updateMatch", write.key, p[3], p[4], p[5], p[6], p[7], p[0], p[1], p[2]));
+				} else {
+					//we don't know if the match was in the database: we need to remove the old values before adding the new ones
+					retVal.add(new PendingWrite("deleteMatch", write.key, p[0], p[1], p[2]));
+					retVal.add(write);
+				}
+			} else {
+				retVal.add(write);
+			}
+		}
+		return retVal;
 	}
 
 	/**
@@ -482,6 +1378,8 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something bad happens
 	 */
 	private <TOADD extends Indexable> TOADD abstractAdd(final TOADD toAdd, String tableInvolved, TerFunction<Connection, Statement, PreparedStatements, Exception> insertQuery, TerFunction<Connection, Statement, PreparedStatements, Exception> afterInsertQuery, Runnable afterSuccessfulDBInsertion) throws DAOException {
+		//the pending writes were requested before this one: they need to reach the database first
+		this.flushPendingWrites();
 		this.connectAndThenDo((c, s, ps) -> {
 			try {
 				Exception e = insertQuery.apply(c, s, ps);
@@ -524,6 +1422,7 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something goes wrong
 	 */
 	private <TOEDIT> TOEDIT abstractUpdate(final TOEDIT toEdit, TerFunction<Connection, Statement, PreparedStatements, Exception> updateQueries) throws DAOException {
+		this.flushPendingWrites();
 		this.connectAndThenDo((c,s,ps) -> {
 			try {
 				Exception e = updateQueries.apply(c, s, ps);
@@ -541,7 +1440,10 @@ public class SQLiteDAOImpl implements DAO {
 	/**
 	 * Function used to abstract the deletion of a row inside the database of a concept <tt>toRemove</tt>.
 	 * 
-	 * You can use this function whenever you need to remove something from the database
+	 * You can use this function whenever you need to remove something from the database.
+	 * The whole removal (relationships and removals of other entities performed by the actions included) is a single unit of work:
+	 * if something fails, the database is left untouched
+	 * 
 	 * @param toRemove the instance to remove from the database
 	 * @param deleteQueries the queries the program needs to perform in order to succesfully delete the concept. 
 	 * 	The function signature is the following:
@@ -556,26 +1458,39 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something bad happens. <tt>actionWhenDeleteSucceed</tt> won't be called at all in this scenario
 	 */
 	private <TOREMOVE> void abstractRemove(final TOREMOVE toRemove, TerFunction<Connection, Statement, PreparedStatements, Exception> deleteQueries, Supplier<Exception> actionBeforeDeleting, Supplier<Exception> actionWhenDeleteSucceed) throws DAOException {
-
-		Exception e1 = actionBeforeDeleting.get();
-		if (e1 != null) {
-			throw new DAOException(e1);
-		}
-		this.connectAndThenDo((c,s,ps) -> {
-			try {
-				Exception e = deleteQueries.apply(c, s, ps);
-				if (e != null) {
-					throw e;
+		this.begin();
+		try {
+			Exception e1 = actionBeforeDeleting.get();
+			if (e1 != null) {
+				throw new DAOException(e1);
+			}
+			//the relationships removed by actionBeforeDeleting need to be removed before the row itself
+			this.flushPendingWrites();
+			this.connectAndThenDo((c,s,ps) -> {
+				try {
+					Exception e = deleteQueries.apply(c, s, ps);
+					if (e != null) {
+						throw e;
+					}
+					return null;
+				} catch (Exception e) {
+					return e;
 				}
-				return null;
-			} catch (Exception e) {
-				return e;
+			});
+			e1 = actionWhenDeleteSucceed.get();
+			if (e1 != null) {
+				throw new DAOException(e1);
 			}
-		});
-		e1 = actionWhenDeleteSucceed.get();
-		if (e1 != null) {
-			throw new DAOException(e1);
+		} catch (DAOException e) {
+			if (this.transactionDepth == 1) {
+				this.rollback();
+			} else {
+				//the unit of work containing this one will be rolled back
+				this.transactionDepth--;
+			}
+			throw e;
 		}
+		this.commit();
 	}
 
 	/**
@@ -611,12 +1526,26 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something bad happens
 	 */
 	private <TOGET extends Indexable> Collection<TOGET> abstractGetObjectThat(Function<TOGET, Boolean> filter, TerFunction<Connection, Statement, PreparedStatements, PreparedStatement> selectQuery, Supplier<ObservableMap<Long, TOGET>> mapContainingAlreadyVisitedObjectSupplier, Supplier<TOGET> emptyConstructor, BiFunction<TOGET, ResultSet, Exception> setupToGetWithResultSet, BiFunction<TOGET, Long, Exception> setupJustCreatedObjectAction) throws DAOException {
+		return this.abstractGetObjectThat(filter, selectQuery, query -> null, mapContainingAlreadyVisitedObjectSupplier, emptyConstructor, setupToGetWithResultSet, setupJustCreatedObjectAction);
+	}
+
+	/**
+	 * Like {@link #abstractGetObjectThat(Function, TerFunction, Supplier, Supplier, BiFunction, BiFunction)}, but the select query has parameters
+	 * 
+	 * @param setupQuery sets the parameters of the query generated by <tt>selectQuery</tt>. Returns the exception encountered or <tt>null</tt>
+	 */
+	private <TOGET extends Indexable> Collection<TOGET> abstractGetObjectThat(Function<TOGET, Boolean> filter, TerFunction<Connection, Statement, PreparedStatements, PreparedStatement> selectQuery, Function<PreparedStatement, Exception> setupQuery, Supplier<ObservableMap<Long, TOGET>> mapContainingAlreadyVisitedObjectSupplier, Supplier<TOGET> emptyConstructor, BiFunction<TOGET, ResultSet, Exception> setupToGetWithResultSet, BiFunction<TOGET, Long, Exception> setupJustCreatedObjectAction) throws DAOException {
 		Collection<Pair<Long, TOGET>> objectToSetup = new ArrayList<>();
 		Collection<TOGET> objectAlreadySetup = new ArrayList<>();
 		Collection<TOGET> retVal = new ArrayList<>(); 
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
-				ResultSet rs = selectQuery.apply(c, s, ps).executeQuery();
+				PreparedStatement query = selectQuery.apply(c, s, ps);
+				Exception setupException = setupQuery.apply(query);
+				if (setupException != null) {
+					throw setupException;
+				}
+				ResultSet rs = query.executeQuery();
 				while (rs.next()) {
 					TOGET obj = null;
 					if (mapContainingAlreadyVisitedObjectSupplier.get().containsKey(rs.getLong("id"))) {
@@ -664,29 +1593,66 @@ public class SQLiteDAOImpl implements DAO {
 			@Override
 			public void onChanged(javafx.collections.ListChangeListener.Change<? extends CHANGED> e) {
 				Exception ex;
-				while (e.next()) {
-					try {
-						for (CHANGED obj : e.getAddedSubList()) {
-							ex = adder.apply(source, obj);
-							if (ex != null) {
-								throw ex;
+				//the writes of all the sub-changes are sent to the database together
+				changeDepth++;
+				try {
+					while (e.next()) {
+						try {
+							for (CHANGED obj : e.getAddedSubList()) {
+								ex = adder.apply(source, obj);
+								if (ex != null) {
+									throw ex;
+								}
 							}
-						}
-						for (CHANGED obj : e.getRemoved()) {
-							ex = remover.apply(source, obj);
-							if (ex != null) {
-								throw ex;
+							for (CHANGED obj : e.getRemoved()) {
+								ex = remover.apply(source, obj);
+								if (ex != null) {
+									throw ex;
+								}
 							}
+						} catch (Exception ex2) {
+							//the listener can't throw: the error is reported by the next write, flush or commit
+							LOG.error("the change of the model couldn't be turned into writes on the database", ex2);
+							storeWriteFailure(ex2 instanceof DAOException ? (DAOException) ex2 : new DAOException(ex2));
 						}
-					} catch (Exception ex2) {
-						ex2.printStackTrace();
-						//TODO complete
 					}
+				} finally {
+					changeDepth--;
+				}
+				try {
+					flushChangeWrites();
+				} catch (DAOException ex2) {
+					LOG.error("the change of the model couldn't be written on the database", ex2);
+					storeWriteFailure(ex2);
 				}
 			}
 		};
 	}
 
+	/**
+	 * Sends to the database the writes collected while turning a change of the model into writes
+	 * 
+	 * A change may involve several elements (for example when a list is cleared): all its writes are coalesced and
+	 * the ones using the same statement are executed in a single batch (see {@link #executeWrites(Connection, PreparedStatements, List)}).
+	 * Nothing is done if a unit of work is open: the writes will be flushed with the rest of the unit of work
+	 * 
+	 * @throws DAOException if something bad happens
+	 */
+	private void flushChangeWrites() throws DAOException {
+		if (this.changeDepth > 0 || this.transactionDepth > 0 || this.pendingWrites.isEmpty()) {
+			return;
+		}
+		if (this.writeBehind) {
+			synchronized (this.writeBehindQueue) {
+				this.writeBehindQueue.addAll(this.pendingWrites);
+				this.writeBehindQueue.notifyAll();
+			}
+			this.pendingWrites = new ArrayList<>();
+		} else {
+			this.flushPendingWrites();
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
 		try {
@@ -728,7 +1694,7 @@ public class SQLiteDAOImpl implements DAO {
 				"player",
 				(c,s,ps) -> {
 					try {
-						Optional<String> birthday = p.getBirthdayAsStandardString();
+						Optional<String> birthday = p.birthdayProperty().get().map(Utils::getISODateFrom);
 						ps.getInsertPlayer().setString(1, p.nameProperty().get());
 						ps.getInsertPlayer().setString(2, p.surnameProperty().get());
 						ps.getInsertPlayer().setString(3, birthday.isPresent() ? birthday.get() : Utils.EMPTY_DATE);
@@ -755,7 +1721,7 @@ public class SQLiteDAOImpl implements DAO {
 				player,
 				(c,s,ps) -> {
 					try {
-						Optional<String> birthday = player.getBirthdayAsStandardString();
+						Optional<String> birthday = player.birthdayProperty().get().map(Utils::getISODateFrom);
 						ps.getUpdatePlayer().setString(1, player.nameProperty().get());
 						ps.getUpdatePlayer().setString(2, player.surnameProperty().get());
 						ps.getUpdatePlayer().setString(3, birthday.isPresent() ? birthday.get() : Utils.EMPTY_DATE);
@@ -763,9 +1729,7 @@ public class SQLiteDAOImpl implements DAO {
 						ps.getUpdatePlayer().setLong(5, player.getId());
 						ps.getUpdatePlayer().addBatch();
 
-						c.setAutoCommit(false);
 						ps.getUpdatePlayer().executeBatch();
-						c.setAutoCommit(true);
 						return null;
 					} catch (SQLException e) {
 						return e;
@@ -779,9 +1743,10 @@ public class SQLiteDAOImpl implements DAO {
 				p,
 				(c,s,ps) -> {
 					try {
+						ps.getDeleteComposesOfPlayer().setLong(1, p.getId());
+						ps.getDeleteComposesOfPlayer().executeUpdate();
 						ps.getDeletePlayer().setLong(1, p.getId());
-						ps.getDeletePlayer().addBatch();
-						ps.getDeletePlayer().executeBatch();
+						ps.getDeletePlayer().executeUpdate();
 						return null;
 					} catch (SQLException e) {
 						return e;
@@ -790,9 +1755,7 @@ public class SQLiteDAOImpl implements DAO {
 				() -> {
 					try {
 						//we remove all the team annexed
-						while (!p.teamsProperty().isEmpty()){
-							Team t = p.teamsProperty().get(0);
-							p.remove(t);
+						for (Team t : new ArrayList<>(p.teamsProperty())) {
 							this.remove(t);
 						}
 						return null;
@@ -800,24 +1763,49 @@ public class SQLiteDAOImpl implements DAO {
 						return e;
 					}
 				},
-				() -> {this.players.remove(p.getId()); return null;}
-				);
+				() -> {
+					this.withoutWrites(() -> {
+						for (Team t : p.teamsProperty()) {
+							t.playersProperty().remove(p);
+						}
+						p.teamsProperty().clear();
+					});
+					this.players.remove(p.getId());
+					return null;
+				});
 	}
 
 	@Override
 	public Collection<Player> getAllPlayersThat(Function<Player, Boolean> filter) throws DAOException {
+		return this.getPlayersThat(filter, (c,s,ps) -> ps.getGetAllPlayers(), query -> null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The criteria is translated into the <tt>WHERE</tt> clause of the query
+	 */
+	@Override
+	public Collection<Player> getAllPlayersThat(Criteria<Player> criteria) throws DAOException {
+		this.flushBeforeReading(criteria);
+		return this.getPlayersThat(criteria, (c,s,ps) -> ps.getCriteriaQuery(SELECT_PLAYERS, criteria), this.getCriteriaSetup(criteria));
+	}
+
+	/**
+	 * Fetches the players returned by a query on the table <tt>player</tt>
+	 * 
+	 * @see #abstractGetObjectThat(Function, TerFunction, Function, Supplier, Supplier, BiFunction, BiFunction)
+	 */
+	private Collection<Player> getPlayersThat(Function<Player, Boolean> filter, TerFunction<Connection, Statement, PreparedStatements, PreparedStatement> selectQuery, Function<PreparedStatement, Exception> setupQuery) throws DAOException {
 		return this.abstractGetObjectThat(
 				filter, 
-				(c,s,ps) -> ps.getGetAllPlayers(),
+				selectQuery,
+				setupQuery,
 				() -> players,
 				Player::new,
 				(p, rs) -> {
 					try {
-						p.setId(rs.getLong("id"));
-						p.nameProperty().set(rs.getString("name"));
-						p.surnameProperty().set(rs.getString("surname"));
-						p.birthdayProperty().set(Optional.ofNullable(!rs.getString("birthday").equalsIgnoreCase(Utils.EMPTY_DATE) ? Utils.getDateFrom(rs.getString("birthday")) : null));
-						p.phoneProperty().set(Optional.ofNullable(!rs.getString("phone").equalsIgnoreCase(Utils.EMPTY_PHONE) ? rs.getString("phone") : null));
+						this.readPlayer(p, rs);
 						return null;
 					} catch (SQLException e) {
 						return e;
@@ -834,6 +1822,60 @@ public class SQLiteDAOImpl implements DAO {
 				});
 	}
 
+	/**
+	 * 
+	 * @param criteria the criteria involved
+	 * @return a function setting the parameters of the query built by {@link PreparedStatements#getCriteriaQuery(String, Criteria)}
+	 */
+	private Function<PreparedStatement, Exception> getCriteriaSetup(Criteria<?> criteria) {
+		return query -> {
+			try {
+				List<Object> parameters = criteria.getParameters();
+				for (int i=0; i<parameters.size(); i++) {
+					query.setObject(i + 1, parameters.get(i));
+				}
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		};
+	}
+
+	/**
+	 * The relationships of the model reach the database later than the change (in write-behind mode or at the end of the unit of work)
+	 * and the reads may use another connection: if the criteria depends on them, we write them before querying the database.
+	 * Otherwise the query would miss the relationships the model already has
+	 * 
+	 * @param criteria the criteria about to be evaluated on the database
+	 * @throws DAOException if something bad happens
+	 */
+	private void flushBeforeReading(Criteria<?> criteria) throws DAOException {
+		if (!criteria.readsRelationships()) {
+			return;
+		}
+		if (this.transactionDepth > 0) {
+			//the writes are executed inside the unit of work, hence they're still rolled back with it
+			this.flushPendingWrites();
+		} else {
+			this.flush();
+		}
+	}
+
+	/**
+	 * Copies the columns of a row of the table <tt>player</tt> inside a {@link Player} instance
+	 * 
+	 * @param p the player to setup
+	 * @param rs the result set pointing to the row to read
+	 * @throws SQLException if something bad happens
+	 */
+	private void readPlayer(Player p, ResultSet rs) throws SQLException {
+		p.setId(rs.getLong("id"));
+		p.nameProperty().set(rs.getString("name"));
+		p.surnameProperty().set(rs.getString("surname"));
+		p.birthdayProperty().set(Optional.ofNullable(!rs.getString("birthday").equalsIgnoreCase(Utils.EMPTY_DATE) ? Utils.getDateFromISO(rs.getString("birthday")) : null));
+		p.phoneProperty().set(Optional.ofNullable(!rs.getString("phone").equalsIgnoreCase(Utils.EMPTY_PHONE) ? rs.getString("phone") : null));
+	}
+
 	public ObservableList<Player> getPlayerList() throws DAOException {
 		return this.players.observableValueList();
 	}
@@ -852,17 +1894,7 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException 
 	 */
 	private void addDBCompose(Player p, Team t) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
-			try {
-				ps.getAddPlayerComposeTeam().setLong(1, p.getId());
-				ps.getAddPlayerComposeTeam().setLong(2, t.getId());
-				
-				ps.getAddPlayerComposeTeam().executeUpdate();
-				return null;
-			} catch (SQLException e) {
-				return e;
-			}
-		});
+		this.write("addPlayerComposeTeam", Arrays.asList("compose", p.getId(), t.getId()), p.getId(), t.getId());
 	}
 	
 	/**
@@ -875,19 +1907,53 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException 
 	 */
 	private void removeDBCompose(Player p, Team t) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
-			try {
-				ps.getRemovePlayerComposeTeam().setLong(1, p.getId());
-				ps.getRemovePlayerComposeTeam().setLong(2, t.getId());
-				
-				ps.getRemovePlayerComposeTeam().executeUpdate();
-				return null;
-			} catch (SQLException e) {
-				return e;
-			}
-		});
+		this.write("removePlayerComposeTeam", Arrays.asList("compose", p.getId(), t.getId()), p.getId(), t.getId());
 	}
 	
+	/**
+	 * 
+	 * @param id the id of the player to look for
+	 * @return the only instance in memory of the player with the given id. If such player is not in memory yet, it is fetched from the database
+	 * @throws DAOException if something bad happens
+	 */
+	private Optional<Player> lookupPlayer(long id) throws DAOException {
+		Player retVal = this.players.get(id);
+		return retVal != null ? Optional.of(retVal) : this.getPlayerThat(p -> p.getId() == id);
+	}
+
+	/**
+	 * 
+	 * @param id the id of the team to look for
+	 * @return the only instance in memory of the team with the given id. If such team is not in memory yet, it is fetched from the database
+	 * @throws DAOException if something bad happens
+	 */
+	private Optional<Team> lookupTeam(long id) throws DAOException {
+		Team retVal = this.teams.get(id);
+		return retVal != null ? Optional.of(retVal) : this.getTeamThat(t -> t.getId() == id);
+	}
+
+	/**
+	 * 
+	 * @param id the id of the tournament to look for
+	 * @return the only instance in memory of the tournament with the given id. If such tournament is not in memory yet, it is fetched from the database
+	 * @throws DAOException if something bad happens
+	 */
+	private Optional<Tournament> lookupTournament(long id) throws DAOException {
+		Tournament retVal = this.tournaments.get(id);
+		return retVal != null ? Optional.of(retVal) : this.getTournamentThat(t -> t.getId() == id);
+	}
+
+	/**
+	 * 
+	 * @param id the id of the day to look for
+	 * @return the only instance in memory of the day with the given id. If such day is not in memory yet, it is fetched from the database
+	 * @throws DAOException if something bad happens
+	 */
+	private Optional<Day> lookupDay(long id) throws DAOException {
+		Day retVal = this.days.get(id);
+		return retVal != null ? Optional.of(retVal) : this.getDayThat(d -> d.getId() == id);
+	}
+
 	/**
 	 * Connects the model classes {@link Player} and {@link Team} with the relationships
 	 * declared inside the database
@@ -897,7 +1963,7 @@ public class SQLiteDAOImpl implements DAO {
 	 */
 	private void computeComposeFromPlayer(Player p) throws DAOException {
 		List<Long> teamIds = new ArrayList<>();
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetTeamWithPlayer().setLong(1, p.getId());
 				ResultSet rs = ps.getGetTeamWithPlayer().executeQuery();
@@ -910,9 +1976,8 @@ public class SQLiteDAOImpl implements DAO {
 			}
 		});
 
-		for (int j = 0; j<teamIds.size(); j++) {
-			final int i = j;
-			this.getTeamThat(t -> t.getId() == teamIds.get(i)).ifPresent(t -> {
+		for (long teamId : teamIds) {
+			this.lookupTeam(teamId).ifPresent(t -> {
 				t.playersProperty().add(p);
 				p.teamsProperty().add(t);
 			});
@@ -928,7 +1993,7 @@ public class SQLiteDAOImpl implements DAO {
 	 */
 	private void computeComposeFromTeam(Team t) throws DAOException {
 		List<Long> playerIds = new ArrayList<>();
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetPlayersInTeam().setLong(1, t.getId());
 				ResultSet rs = ps.getGetPlayersInTeam().executeQuery();
@@ -941,9 +2006,8 @@ public class SQLiteDAOImpl implements DAO {
 			}
 		});
 
-		for (int j = 0; j<playerIds.size(); j++) {
-			final int i = j;
-			this.getPlayerThat(p -> p.getId() == playerIds.get(i)).ifPresent(p -> {
+		for (long playerId : playerIds) {
+			this.lookupPlayer(playerId).ifPresent(p -> {
 				t.playersProperty().add(p);
 				p.teamsProperty().add(t);
 			});
@@ -1022,7 +2086,7 @@ public class SQLiteDAOImpl implements DAO {
 				(c,s,ps) -> {
 					try {
 						ps.getInsertTeam().setString(1, team.nameProperty().get());
-						ps.getInsertTeam().setString(2, Utils.getStandardDateFrom(team.dateProperty().get()));
+						ps.getInsertTeam().setString(2, Utils.getISODateFrom(team.dateProperty().get()));
 						ps.getInsertTeam().addBatch();
 						ps.getInsertTeam().executeBatch();
 						return null;
@@ -1045,7 +2109,7 @@ public class SQLiteDAOImpl implements DAO {
 				(c,s,ps) -> {
 					try {
 						ps.getUpdateTeam().setString(1, team.nameProperty().get());
-						ps.getUpdateTeam().setString(2, Utils.getStandardDateFrom(team.dateProperty().get()));
+						ps.getUpdateTeam().setString(2, Utils.getISODateFrom(team.dateProperty().get()));
 						ps.getUpdateTeam().setLong(3, team.getId());
 						ps.getUpdateTeam().addBatch();
 
@@ -1058,17 +2122,36 @@ public class SQLiteDAOImpl implements DAO {
 	}
 
 	@Override
-	public Collection<Team> getAllTeamsThat(Function<Team, Boolean> filter) throws DAOException {
+	public Collection<Team> getAllTeamsThat(Function<Team, Boolean> filter) throws DAOException {
+		return this.getTeamsThat(filter, (c,s,ps) -> ps.getGetAllTeams(), query -> null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The criteria is translated into the <tt>WHERE</tt> clause of the query
+	 */
+	@Override
+	public Collection<Team> getAllTeamsThat(Criteria<Team> criteria) throws DAOException {
+		this.flushBeforeReading(criteria);
+		return this.getTeamsThat(criteria, (c,s,ps) -> ps.getCriteriaQuery(SELECT_TEAMS, criteria), this.getCriteriaSetup(criteria));
+	}
+
+	/**
+	 * Fetches the teams returned by a query on the table <tt>team</tt>
+	 * 
+	 * @see #abstractGetObjectThat(Function, TerFunction, Function, Supplier, Supplier, BiFunction, BiFunction)
+	 */
+	private Collection<Team> getTeamsThat(Function<Team, Boolean> filter, TerFunction<Connection, Statement, PreparedStatements, PreparedStatement> selectQuery, Function<PreparedStatement, Exception> setupQuery) throws DAOException {
 		return this.abstractGetObjectThat(
 				filter, 
-				(c,s,ps) -> ps.getGetAllTeams(),
+				selectQuery,
+				setupQuery,
 				() -> this.teams, 
 				Team::new,
 				(t, rs) -> {
 					try {
-						t.setId(rs.getLong("id"));
-						t.nameProperty().set(rs.getString("name"));
-						t.dateProperty().set(Utils.getDateFrom(rs.getString("date")));
+						this.readTeam(t, rs);
 						return null;
 					} catch (SQLException e) {
 						return e;
@@ -1088,16 +2171,34 @@ public class SQLiteDAOImpl implements DAO {
 				});
 	}
 
+	/**
+	 * Copies the columns of a row of the table <tt>team</tt> inside a {@link Team} instance
+	 * 
+	 * @param t the team to setup
+	 * @param rs the result set pointing to the row to read
+	 * @throws SQLException if something bad happens
+	 */
+	private void readTeam(Team t, ResultSet rs) throws SQLException {
+		t.setId(rs.getLong("id"));
+		t.nameProperty().set(rs.getString("name"));
+		t.dateProperty().set(Utils.getDateFromISO(rs.getString("date")));
+	}
+
 	@Override
 	public void remove(final Team team) throws DAOException {
 		this.abstractRemove(
 				team, 
 				(c,s,ps) -> {
 					try {
+						ps.getDeleteMatchesOfTeam().setLong(1, team.getId());
+						ps.getDeleteMatchesOfTeam().setLong(2, team.getId());
+						ps.getDeleteMatchesOfTeam().executeUpdate();
+						ps.getDeleteComposesOfTeam().setLong(1, team.getId());
+						ps.getDeleteComposesOfTeam().executeUpdate();
+						ps.getDeletePartecipationsOfTeam().setLong(1, team.getId());
+						ps.getDeletePartecipationsOfTeam().executeUpdate();
 						ps.getDeleteTeam().setLong(1, team.getId());
-						ps.getDeleteTeam().addBatch();
-						ps.getDeleteTeam().executeBatch();
-						//TODO check team removal
+						ps.getDeleteTeam().executeUpdate();
 						return null;
 					} catch (SQLException e) {
 						return e;
@@ -1105,13 +2206,8 @@ public class SQLiteDAOImpl implements DAO {
 				},
 				() -> {
 					try {
-						//we need to remove all the matches
-						team.removeAllMatches();
-						//we need to remove all the composition
-						team.removeAllPlayers();
 						//we need to remove all the tournaments where this team took part. This because all the logics are based upon the partecipants
-						while (!team.partecipationsProperty().isEmpty()) {
-							Partecipation p = team.partecipationsProperty().get(0);
+						for (Partecipation p : new ArrayList<>(team.partecipationsProperty())) {
 							this.remove(p.getTournament().get());
 						}
 						return null;
@@ -1119,8 +2215,18 @@ public class SQLiteDAOImpl implements DAO {
 						return e;
 					}
 				},
-				() -> {this.teams.remove(team.getId()); return null;}
-				);
+				() -> {
+					//the matches left are the ones inside the days without a tournament
+					this.withoutWrites(() -> {
+						this.detachMatches(new ArrayList<>(team.matchesProperty()));
+						for (Player p : team.playersProperty()) {
+							p.teamsProperty().remove(team);
+						}
+						team.playersProperty().clear();
+					});
+					this.teams.remove(team.getId());
+					return null;
+				});
 	}
 
 	/**
@@ -1134,7 +2240,7 @@ public class SQLiteDAOImpl implements DAO {
 		Collection<Player> retVal = new HashSet<>();
 		Collection<Long> ids = new ArrayList<>();
 
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetPlayersInTeam().setLong(1, teamId);
 				ResultSet rs = ps.getGetPlayersInTeam().executeQuery();
@@ -1148,7 +2254,7 @@ public class SQLiteDAOImpl implements DAO {
 		});
 
 		for (Long id : ids) {
-			retVal.addAll(this.getAllPlayersThat(p -> p.getId() == id));
+			this.lookupPlayer(id).ifPresent(retVal::add);
 		}
 
 		return retVal;
@@ -1158,7 +2264,7 @@ public class SQLiteDAOImpl implements DAO {
 		Collection<Team> retVal = new HashSet<>();
 		Collection<Long> ids = new ArrayList<>();
 
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetTeamWithPlayer().setLong(1, player_id);
 				ResultSet rs = ps.getGetTeamWithPlayer().executeQuery();
@@ -1172,7 +2278,7 @@ public class SQLiteDAOImpl implements DAO {
 		}); 
 
 		for (Long id : ids) {
-			retVal.addAll(this.getAllTeamsThat(t -> t.getId() == id));
+			this.lookupTeam(id).ifPresent(retVal::add);
 		}
 
 		return retVal;
@@ -1233,8 +2339,8 @@ public class SQLiteDAOImpl implements DAO {
 					try {
 						Optional<LocalDate> endDate = tournament.endDateProperty().get();
 						ps.getInsertTournament().setString(1, tournament.nameProperty().get());
-						ps.getInsertTournament().setString(2, Utils.getStandardDateFrom(tournament.startDateProperty().get()));
-						ps.getInsertTournament().setString(3, endDate.isPresent() ? Utils.getStandardDateFrom(endDate.get()) : Utils.EMPTY_DATE);
+						ps.getInsertTournament().setString(2, Utils.getISODateFrom(tournament.startDateProperty().get()));
+						ps.getInsertTournament().setString(3, endDate.isPresent() ? Utils.getISODateFrom(endDate.get()) : Utils.EMPTY_DATE);
 						ps.getInsertTournament().addBatch();
 						ps.getInsertTournament().executeBatch();
 						return null;
@@ -1260,8 +2366,8 @@ public class SQLiteDAOImpl implements DAO {
 					try {
 						Optional<LocalDate> endDate = tournament.endDateProperty().get();
 						ps.getUpdateTournament().setString(1, tournament.nameProperty().get());
-						ps.getUpdateTournament().setString(2, Utils.getStandardDateFrom(tournament.startDateProperty().get()));
-						ps.getUpdateTournament().setString(3, endDate.isPresent() ? Utils.getStandardDateFrom(endDate.get()) : Utils.EMPTY_DATE);
+						ps.getUpdateTournament().setString(2, Utils.getISODateFrom(tournament.startDateProperty().get()));
+						ps.getUpdateTournament().setString(3, endDate.isPresent() ? Utils.getISODateFrom(endDate.get()) : Utils.EMPTY_DATE);
 						ps.getUpdateTournament().setLong(4, tournament.getId());
 						ps.getUpdateTournament().addBatch();
 						ps.getUpdateTournament().executeBatch();
@@ -1279,6 +2385,13 @@ public class SQLiteDAOImpl implements DAO {
 				tournament, 
 				(c,s,ps) -> {
 					try {
+						//day is a weak entity related to tournament: the days (and their matches) are removed as well, even the ones not in memory
+						ps.getDeleteMatchesInTournament().setLong(1, tournament.getId());
+						ps.getDeleteMatchesInTournament().executeUpdate();
+						ps.getDeleteDaysOfTournament().setLong(1, tournament.getId());
+						ps.getDeleteDaysOfTournament().executeUpdate();
+						ps.getDeletePartecipationsInTournament().setLong(1, tournament.getId());
+						ps.getDeletePartecipationsInTournament().executeUpdate();
 						ps.getDeleteTournament().setLong(1, tournament.getId());
 						ps.getDeleteTournament().executeUpdate();
 						return null;
@@ -1286,22 +2399,17 @@ public class SQLiteDAOImpl implements DAO {
 						return e;
 					}
 				},
+				() -> null,
 				() -> {
-					try {
-						//we need to remove every relationship before removing the tournament
-						tournament.removeAllPartecipations();
-						//we need to remove all the days (both in model and in db). This because day is a weak entity related to tournament
-						while (!tournament.daysProperty().isEmpty()) {
-							Day d = tournament.daysProperty().get(0);
-							this.remove(d);
-						}
-						tournament.daysProperty().clear();
-						return null;
-					} catch (DAOException e) {
-						return e;
+					List<Day> days = new ArrayList<>(tournament.daysProperty());
+					this.withoutWrites(() -> {
+						this.detachDays(days);
+						this.detachPartecipations(new ArrayList<>(tournament.partecipationsProperty()));
+					});
+					for (Day d : days) {
+						this.days.remove(d.getId());
 					}
-				},
-				() -> {
+					this.loadedTournaments.remove(tournament.getId());
 					this.tournaments.remove(tournament.getId()); 
 					return null;
 				});
@@ -1314,18 +2422,35 @@ public class SQLiteDAOImpl implements DAO {
 
 	@Override
 	public Collection<Tournament> getAllTournamentsThat(Function<Tournament, Boolean> filter) throws DAOException {
+		return this.getTournamentsThat(filter, (c,s,ps) -> ps.getGetAllTournaments(), query -> null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The criteria is translated into the <tt>WHERE</tt> clause of the query
+	 */
+	@Override
+	public Collection<Tournament> getAllTournamentsThat(Criteria<Tournament> criteria) throws DAOException {
+		this.flushBeforeReading(criteria);
+		return this.getTournamentsThat(criteria, (c,s,ps) -> ps.getCriteriaQuery(SELECT_TOURNAMENTS, criteria), this.getCriteriaSetup(criteria));
+	}
+
+	/**
+	 * Fetches the tournaments returned by a query on the table <tt>tournament</tt>
+	 * 
+	 * @see #abstractGetObjectThat(Function, TerFunction, Function, Supplier, Supplier, BiFunction, BiFunction)
+	 */
+	private Collection<Tournament> getTournamentsThat(Function<Tournament, Boolean> filter, TerFunction<Connection, Statement, PreparedStatements, PreparedStatement> selectQuery, Function<PreparedStatement, Exception> setupQuery) throws DAOException {
 		return this.abstractGetObjectThat(
 				filter, 
-				(c,s,ps) -> ps.getGetAllTournaments(),
+				selectQuery,
+				setupQuery,
 				() -> this.tournaments,
 				Tournament::new,
 				(t,rs) -> {
 					try {
-						String endDate = rs.getString("end_date");
-						t.setId(rs.getLong("id"));
-						t.nameProperty().set(rs.getString("name"));
-						t.startDateProperty().set(Utils.getDateFrom(rs.getString("start_date")));
-						t.endDateProperty().set(Optional.ofNullable(!endDate.equalsIgnoreCase(Utils.EMPTY_DATE) ? Utils.getDateFrom(endDate) : null));
+						this.readTournament(t, rs);
 						return null;
 					} catch (Exception e) {
 						return e;
@@ -1336,7 +2461,10 @@ public class SQLiteDAOImpl implements DAO {
 						this.setupTournamentListeners(t);
 						//ok, we created a tournament, we need to create the relationships of the model as well
 						this.computePartecipationsFromTournament(t);
-						this.computeDivideFromTournament(t);
+						if (!this.isLazy()) {
+							//otherwise the days are fetched by load(Tournament)
+							this.computeDivideFromTournament(t);
+						}
 						return null;
 					} catch (Exception e ){
 						return e;
@@ -1344,8 +2472,23 @@ public class SQLiteDAOImpl implements DAO {
 				});
 	}
 
+	/**
+	 * Copies the columns of a row of the table <tt>tournament</tt> inside a {@link Tournament} instance
+	 * 
+	 * @param t the tournament to setup
+	 * @param rs the result set pointing to the row to read
+	 * @throws SQLException if something bad happens
+	 */
+	private void readTournament(Tournament t, ResultSet rs) throws SQLException {
+		String endDate = rs.getString("end_date");
+		t.setId(rs.getLong("id"));
+		t.nameProperty().set(rs.getString("name"));
+		t.startDateProperty().set(Utils.getDateFromISO(rs.getString("start_date")));
+		t.endDateProperty().set(Optional.ofNullable(!endDate.equalsIgnoreCase(Utils.EMPTY_DATE) ? Utils.getDateFromISO(endDate) : null));
+	}
+
 	private <TABLE1 extends Indexable, TABLE2 extends Indexable, NNTABLE>void abstractCompute(long primaryID, TerFunction<Connection, Statement, PreparedStatements, PreparedStatement> startQuery, Function<PreparedStatement, Exception> setupQuery, String secondaryIDName, Supplier<Collection<TABLE1>> firstTableSupplier, Supplier<Collection<TABLE2>> secondTableSuppplier, Supplier<NNTABLE> emptyConstructor, BiFunction<NNTABLE, ResultSet, Exception> nntableSetupper, TerConsumer<TABLE1, TABLE2, NNTABLE> TablesUpdater) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				PreparedStatement query = startQuery.apply(c, s, ps);
 				Exception e = setupQuery.apply(query);
@@ -1355,8 +2498,8 @@ public class SQLiteDAOImpl implements DAO {
 				ResultSet rs = query.executeQuery();
 				while (rs.next()) {
 					final long secondaryID = rs.getLong(secondaryIDName);
-					Optional<TABLE1> oTable1 = firstTableSupplier.get().parallelStream().filter(t1 -> t1.getId() == primaryID).findFirst();
-					Optional<TABLE2> oTable2 = secondTableSuppplier.get().parallelStream().filter(t2 -> t2.getId() == secondaryID).findFirst();
+					Optional<TABLE1> oTable1 = ExecutionPolicy.stream(firstTableSupplier.get()).filter(t1 -> t1.getId() == primaryID).findFirst();
+					Optional<TABLE2> oTable2 = ExecutionPolicy.stream(secondTableSuppplier.get()).filter(t2 -> t2.getId() == secondaryID).findFirst();
 
 					if (oTable1.isPresent() && oTable2.isPresent()) {
 						NNTABLE nntable = emptyConstructor.get();
@@ -1385,7 +2528,7 @@ public class SQLiteDAOImpl implements DAO {
 	 */
 	private void computePartecipationsFromTournament(Tournament tournament) throws DAOException {
 		List<Long> team_ids = new ArrayList<>();
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetPartecipationsInTournament().setLong(1, tournament.getId());
 				ResultSet rs = ps.getGetPartecipationsInTournament().executeQuery();
@@ -1398,9 +2541,8 @@ public class SQLiteDAOImpl implements DAO {
 			}
 		});
 
-		for (int j = 0; j<team_ids.size(); j++) {
-			final int i = j;
-			this.getTeamThat(p -> p.getId() == team_ids.get(i)).ifPresent(team -> {
+		for (long team_id : team_ids) {
+			this.lookupTeam(team_id).ifPresent(team -> {
 				Partecipation p = new Partecipation(tournament, team);
 				p.getTournament().get().partecipationsProperty().add(p);
 				p.getTeam().get().partecipationsProperty().add(p);
@@ -1419,7 +2561,7 @@ public class SQLiteDAOImpl implements DAO {
 	 */
 	private void computePartecipationsFromTeam(Team team) throws DAOException {
 		List<Long> tournament_ids = new ArrayList<>();
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetPartecipationsOfTeam().setLong(1, team.getId());
 				ResultSet rs = ps.getGetPartecipationsOfTeam().executeQuery();
@@ -1432,9 +2574,8 @@ public class SQLiteDAOImpl implements DAO {
 			}
 		});
 
-		for (int j = 0; j<tournament_ids.size(); j++) {
-			final int i = j;
-			this.getTournamentThat(p -> p.getId() == tournament_ids.get(i)).ifPresent(tournament -> {
+		for (long tournament_id : tournament_ids) {
+			this.lookupTournament(tournament_id).ifPresent(tournament -> {
 				Partecipation p = new Partecipation(tournament, team);
 				p.getTournament().get().partecipationsProperty().add(p);
 				p.getTeam().get().partecipationsProperty().add(p);
@@ -1449,18 +2590,10 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something bad happens
 	 */
 	private Partecipation addDBPartecipation(Partecipation partecipation) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
-			try {
-				LOG.debug("adding partecipation {} team_id={} tournament_id={}...", partecipation, partecipation.getTeam().get().getId(), partecipation.getTournament().get().getId());
-				ps.getInsertOrIgnorePartecipation().setLong(1, partecipation.getTeam().get().getId());
-				ps.getInsertOrIgnorePartecipation().setLong(2, partecipation.getTournament().get().getId());
-				ps.getInsertOrIgnorePartecipation().executeUpdate();
-				LOG.debug("DONE");
-				return null;
-			} catch (Exception e) {
-				return e;
-			}
-		});
+		LOG.debug("adding partecipation {} team_id={} tournament_id={}...", partecipation, partecipation.getTeam().get().getId(), partecipation.getTournament().get().getId());
+		long teamId = partecipation.getTeam().get().getId();
+		long tournamentId = partecipation.getTournament().get().getId();
+		this.write("insertOrIgnorePartecipation", Arrays.asList("partecipation", teamId, tournamentId), teamId, tournamentId);
 		return partecipation;
 	}
 
@@ -1471,18 +2604,10 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something bad happens
 	 */
 	private void removeDBPartecipation(Partecipation partecipation) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
-			try {
-				LOG.debug("removing partecipation {} team_id={} tournament_id={}...", partecipation, partecipation.getTeam().get().getId(), partecipation.getTournament().get().getId());
-				ps.getDeletePartecipation().setLong(1, partecipation.getTeam().get().getId());
-				ps.getDeletePartecipation().setLong(2, partecipation.getTournament().get().getId());
-				ps.getDeletePartecipation().executeUpdate();
-				LOG.debug("DONE");
-				return null;
-			} catch (Exception e) {
-				return e;
-			}
-		});
+		LOG.debug("removing partecipation {} team_id={} tournament_id={}...", partecipation, partecipation.getTeam().get().getId(), partecipation.getTournament().get().getId());
+		long teamId = partecipation.getTeam().get().getId();
+		long tournamentId = partecipation.getTournament().get().getId();
+		this.write("deletePartecipation", Arrays.asList("partecipation", teamId, tournamentId), teamId, tournamentId);
 	}
 	
 	private void setupDayListeners(Day day) {
@@ -1527,7 +2652,8 @@ public class SQLiteDAOImpl implements DAO {
 				(c,s,ps) -> {
 					try {
 						ps.getInsertDay().setInt(1, day.numberProperty().get());
-						ps.getInsertDay().setString(2, Utils.getStandardDateFrom(day.dateProperty().get()));
+						ps.getInsertDay().setString(2, Utils.getISODateFrom(day.dateProperty().get()));
+						ps.getInsertDay().setLong(3, day.getSeed());
 						ps.getInsertDay().addBatch();
 
 						ps.getInsertDay().executeBatch();
@@ -1552,7 +2678,7 @@ public class SQLiteDAOImpl implements DAO {
 				(c,s,ps) -> {
 					try {
 						ps.getUpdateDay().setInt(1,day.numberProperty().get());
-						ps.getUpdateDay().setString(2, Utils.getStandardDateFrom(day.dateProperty().get()));
+						ps.getUpdateDay().setString(2, Utils.getISODateFrom(day.dateProperty().get()));
 						ps.getUpdateDay().setLong(3, day.getId());
 						ps.getUpdateDay().executeUpdate();
 						return null;
@@ -1564,16 +2690,35 @@ public class SQLiteDAOImpl implements DAO {
 
 	@Override
 	public Collection<Day> getAllDaysThat(Function<Day, Boolean> filter) throws DAOException {
+		return this.getDaysThat(filter, (c,s,ps) -> ps.getGetAllDays(), query -> null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The criteria is translated into the <tt>WHERE</tt> clause of the query
+	 */
+	@Override
+	public Collection<Day> getAllDaysThat(Criteria<Day> criteria) throws DAOException {
+		this.flushBeforeReading(criteria);
+		return this.getDaysThat(criteria, (c,s,ps) -> ps.getCriteriaQuery(SELECT_DAYS, criteria), this.getCriteriaSetup(criteria));
+	}
+
+	/**
+	 * Fetches the days returned by a query on the table <tt>day</tt>
+	 * 
+	 * @see #abstractGetObjectThat(Function, TerFunction, Function, Supplier, Supplier, BiFunction, BiFunction)
+	 */
+	private Collection<Day> getDaysThat(Function<Day, Boolean> filter, TerFunction<Connection, Statement, PreparedStatements, PreparedStatement> selectQuery, Function<PreparedStatement, Exception> setupQuery) throws DAOException {
 		return this.abstractGetObjectThat(
 				filter, 
-				(c,s,ps) -> ps.getGetAllDays(),
+				selectQuery,
+				setupQuery,
 				() -> this.days,
 				Day::new,
 				(d,rs) -> {
 					try {
-						d.setId(rs.getLong("id"));
-						d.numberProperty().set(rs.getInt("number"));
-						d.dateProperty().set(Utils.getDateFrom(rs.getString("date")));
+						this.readDay(d, rs);
 						return null;
 					} catch (SQLException e) {
 						return e;
@@ -1585,6 +2730,10 @@ public class SQLiteDAOImpl implements DAO {
 						this.setupDayListeners(d);
 						this.computeDivideTournamentFromDay(d);
 						this.computeMatchesFromDay(d);
+						if (d.getTournament() != null) {
+							//the tournament has now some of its days in memory: we fetch the others as well
+							this.load(d.getTournament());
+						}
 						return null;
 					} catch (DAOException ex) {
 						return ex;
@@ -1593,12 +2742,33 @@ public class SQLiteDAOImpl implements DAO {
 				});
 	}
 
+	/**
+	 * Copies the columns of a row of the table <tt>day</tt> inside a {@link Day} instance
+	 * 
+	 * @param d the day to setup
+	 * @param rs the result set pointing to the row to read
+	 * @throws SQLException if something bad happens
+	 */
+	private void readDay(Day d, ResultSet rs) throws SQLException {
+		d.setId(rs.getLong("id"));
+		d.numberProperty().set(rs.getInt("number"));
+		d.dateProperty().set(Utils.getDateFromISO(rs.getString("date")));
+		d.seedProperty().set(rs.getLong("seed"));
+		if (rs.wasNull()) {
+			//days created before the introduction of the seed: we use something that won't change between 2 runs
+			d.seedProperty().set(d.getId());
+		}
+	}
+
 	@Override
 	public void remove(Day day) throws DAOException {
 		this.abstractRemove(
 				day, 
 				(c,s,ps) -> {
 					try {
+						//the matches performed in that day are removed as well
+						ps.getDeleteMatchesOfDay().setLong(1, day.getId());
+						ps.getDeleteMatchesOfDay().executeUpdate();
 						ps.getDeleteDay().setLong(1, day.getId());
 						ps.getDeleteDay().executeUpdate();
 						return null;
@@ -1606,19 +2776,69 @@ public class SQLiteDAOImpl implements DAO {
 						return e;
 					}
 				}, 
+				() -> null,
 				() -> {
-					//before we remove a day, we need to remove every match performed in that day and the relationship with the tournament
-					day.removeAllMatches();
-					day.remove(day.tournamentProperty().get());
-					return null;
-				},
-				() -> {
-					this.days.remove(day);
+					this.withoutWrites(() -> this.detachDays(Arrays.asList(day)));
+					this.days.remove(day.getId());
 					return null;
 				}
 				);
 	}
 
+	/**
+	 * Performs some changes on the model without writing them on the database.
+	 * 
+	 * Use it when the database already mirrors the changes (for example because the rows have already been removed by a single statement)
+	 * 
+	 * @param changes the changes to perform on the model
+	 */
+	private void withoutWrites(Runnable changes) {
+		this.writesSuppressed = true;
+		try {
+			changes.run();
+		} finally {
+			this.writesSuppressed = false;
+		}
+	}
+
+	/**
+	 * Removes some matches from the model. Every list containing them is changed only once, hence its listeners are notified only once
+	 * 
+	 * The function deals only with <b>model</b> entries, not with database ones!
+	 * 
+	 * @param matches the matches to remove
+	 */
+	private void detachMatches(Collection<Match> matches) {
+		ObservableLists.removeAll(matches, m -> m.getContainingLists(true, true));
+	}
+
+	/**
+	 * Removes some days, together with their matches, from the model. Every list containing them is changed only once
+	 * 
+	 * The function deals only with <b>model</b> entries, not with database ones!
+	 * 
+	 * @param days the days to remove
+	 */
+	private void detachDays(Collection<Day> days) {
+		List<Match> matches = new ArrayList<>();
+		for (Day d : days) {
+			matches.addAll(d.matchesProperty());
+		}
+		this.detachMatches(matches);
+		ObservableLists.removeAll(days, d -> d.getTournament() != null ? Arrays.asList(d.getTournament().daysProperty()) : Collections.<ObservableList<Day>>emptyList());
+	}
+
+	/**
+	 * Removes some partecipations from the model. Every list containing them is changed only once
+	 * 
+	 * The function deals only with <b>model</b> entries, not with database ones!
+	 * 
+	 * @param partecipations the partecipations to remove
+	 */
+	private void detachPartecipations(Collection<Partecipation> partecipations) {
+		ObservableLists.removeAll(partecipations, Partecipation::getContainingLists);
+	}
+
 	@Override
 	public ObservableList<Day> getDaysList() throws DAOException {
 		return this.days.observableValueList();
@@ -1636,7 +2856,7 @@ public class SQLiteDAOImpl implements DAO {
 	 */
 	private void computeDivideFromTournament(Tournament tournament) throws DAOException {
 		List<Long> ids = new ArrayList<>();
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetDaysInTournament().setLong(1, tournament.getId());
 				ResultSet rs = ps.getGetDaysInTournament().executeQuery();
@@ -1650,10 +2870,7 @@ public class SQLiteDAOImpl implements DAO {
 		});
 
 		for (Long dayId : ids) {
-			this.getAllDaysThat(d -> d.getId() == dayId)
-			.stream()
-			.findFirst()
-			.ifPresent(d -> {
+			this.lookupDay(dayId).ifPresent(d -> {
 				d.tournamentProperty().set(tournament);
 				tournament.daysProperty().add(d);
 			});
@@ -1673,7 +2890,7 @@ public class SQLiteDAOImpl implements DAO {
 	 */
 	private void computeDivideTournamentFromDay(Day day) throws DAOException {
 		List<Long> tournamentIds = new ArrayList<>();
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetTournamentFromDay().setLong(1, day.getId());
 				ResultSet rs = ps.getGetTournamentFromDay().executeQuery();
@@ -1690,7 +2907,7 @@ public class SQLiteDAOImpl implements DAO {
 		}
 		long tournamentId = tournamentIds.get(0);
 
-		this.getAllTournamentsThat(tournament -> tournament.getId() == tournamentId).stream().findFirst().ifPresent(tournament -> {
+		this.lookupTournament(tournamentId).ifPresent(tournament -> {
 			//we need to set the tournament before the other because the second insturction relies on the first one
 			day.tournamentProperty().set(tournament);
 			tournament.daysProperty().add(day);
@@ -1707,16 +2924,7 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something bad happens
 	 */
 	private void addDBDivide(long dayId, long tournamentId) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
-			try {
-				ps.getInsertDivision().setLong(1, tournamentId);
-				ps.getInsertDivision().setLong(2, dayId);
-				ps.getInsertDivision().executeUpdate();
-				return null;
-			} catch (SQLException e) {
-				return e;
-			}
-		});
+		this.write("insertDivision", Arrays.asList("divide", dayId), tournamentId, dayId);
 	}
 
 	/**
@@ -1729,15 +2937,7 @@ public class SQLiteDAOImpl implements DAO {
 	 * @throws DAOException if something bad happens
 	 */
 	private void removeDBDivide(long dayId, long tournamentId) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
-			try {
-				ps.getDeleteDivision().setLong(1, dayId);
-				ps.getDeleteDivision().executeUpdate();
-				return null;
-			} catch (SQLException e) {
-				return e;
-			}
-		});
+		this.write("deleteDivision", Arrays.asList("divide", dayId), dayId);
 	}
 
 	/**
@@ -1757,7 +2957,7 @@ public class SQLiteDAOImpl implements DAO {
 		List<Integer> team2Goals = new ArrayList<>();
 		List<MatchStatus> statuses = new ArrayList<>();
 
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetMatchesFromTeam().setLong(1, team.getId());
 				ps.getGetMatchesFromTeam().setLong(2, team.getId());
@@ -1798,7 +2998,7 @@ public class SQLiteDAOImpl implements DAO {
 		List<Integer> team2Goals = new ArrayList<>();
 		List<MatchStatus> statuses = new ArrayList<>();
 
-		this.connectAndThenDo((c,s,ps) -> {
+		this.readAndThenDo((c,s,ps) -> {
 			try {
 				ps.getGetMatchesFromDay().setLong(1, day.getId());
 				ResultSet rs = ps.getGetMatchesFromDay().executeQuery();
@@ -1847,9 +3047,9 @@ public class SQLiteDAOImpl implements DAO {
 			List<MatchStatus> statuses) throws DAOException {
 		for (int j=0; j<team1_ids.size(); j++) {
 			final int i = j;
-			Optional<Team> oteam1 = this.getTeamThat(t -> t.getId() == team1_ids.get(i));
-			Optional<Team> oteam2 = this.getTeamThat(t -> t.getId() == team2_ids.get(i));
-			Optional<Day> oday = this.getDayThat(d -> d.getId() == day_ids.get(i));
+			Optional<Team> oteam1 = this.lookupTeam(team1_ids.get(i));
+			Optional<Team> oteam2 = this.lookupTeam(team2_ids.get(i));
+			Optional<Day> oday = this.lookupDay(day_ids.get(i));
 
 			oteam1.ifPresent(team1 -> {
 				oteam2.ifPresent(team2 -> {
@@ -1866,48 +3066,379 @@ public class SQLiteDAOImpl implements DAO {
 	}
 
 	/**
-	 * insert in the database the given match
-	 * 
+	 * {@inheritDoc}
 	 * 
-	 * 
-	 * @param match the match to add
-	 * @throws DAOException if something bad happens
+	 * Every table is read once: the rows are turned into model instances and then the relationships are wired
+	 * in memory by looking up the ids inside maps. The instances already in memory are reused.
+	 * The listeners that keep the database synchronized are installed only at the end: in this way wiring the
+	 * relationships doesn't trigger any write on the database.
 	 */
-	private void addDBMatch(final Match match) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
+	@Override
+	public void loadAll() throws DAOException {
+		//the entities not present in memory yet
+		Map<Long, Player> newPlayers = new LinkedHashMap<>();
+		Map<Long, Team> newTeams = new LinkedHashMap<>();
+		Map<Long, Tournament> newTournaments = new LinkedHashMap<>();
+		Map<Long, Day> newDays = new LinkedHashMap<>();
+		//every entity, indexed by id
+		Map<Long, Player> allPlayers = new HashMap<>(this.players);
+		Map<Long, Team> allTeams = new HashMap<>(this.teams);
+		Map<Long, Tournament> allTournaments = new HashMap<>(this.tournaments);
+		Map<Long, Day> allDays = new HashMap<>(this.days);
+		//the relationships involving at least one new entity
+		List<Pair<Player, Team>> composes = new ArrayList<>();
+		List<Partecipation> partecipations = new ArrayList<>();
+		List<Pair<Day, Tournament>> divides = new ArrayList<>();
+		List<Match> matches = new ArrayList<>();
+
+		this.readAndThenDo((c,s,ps) -> {
 			try {
-				LOG.debug("team1Id: {} team2Id: {} dayId: {}", match.getTeam1().get().getId(), match.getTeam2().get().getId(), match.getDay().get().getId());
-				ps.getInsertMatch().setLong(1, match.getTeam1().get().getId());
-				ps.getInsertMatch().setLong(2, match.getTeam2().get().getId());
-				ps.getInsertMatch().setLong(3, match.getDay().get().getId());
-				ps.getInsertMatch().setLong(4, match.getPointsEarnedByWinning().get());
-				ps.getInsertMatch().setLong(5, match.getPointsEarnedByLosing().get());
-				ps.getInsertMatch().setLong(6, match.getTeam1Goals().get());
-				ps.getInsertMatch().setLong(7, match.getTeam2Goals().get());
-				ps.getInsertMatch().setLong(8, match.getStatus().get().getId());
-				ps.getInsertMatch().executeUpdate();
-				LOG.debug("DONE");
+				ResultSet rs = ps.getGetAllPlayers().executeQuery();
+				while (rs.next()) {
+					if (!allPlayers.containsKey(rs.getLong("id"))) {
+						Player p = new Player();
+						this.readPlayer(p, rs);
+						newPlayers.put(p.getId(), p);
+						allPlayers.put(p.getId(), p);
+					}
+				}
+				rs = ps.getGetAllTeams().executeQuery();
+				while (rs.next()) {
+					if (!allTeams.containsKey(rs.getLong("id"))) {
+						Team t = new Team();
+						this.readTeam(t, rs);
+						newTeams.put(t.getId(), t);
+						allTeams.put(t.getId(), t);
+					}
+				}
+				rs = ps.getGetAllTournaments().executeQuery();
+				while (rs.next()) {
+					if (!allTournaments.containsKey(rs.getLong("id"))) {
+						Tournament t = new Tournament();
+						this.readTournament(t, rs);
+						newTournaments.put(t.getId(), t);
+						allTournaments.put(t.getId(), t);
+					}
+				}
+				//if the DAO is lazy, the days of the tournaments (and their matches) are fetched by load(Tournament)
+				rs = (this.isLazy() ? ps.getGetDaysWithoutTournament() : ps.getGetAllDays()).executeQuery();
+				while (rs.next()) {
+					if (!allDays.containsKey(rs.getLong("id"))) {
+						Day d = new Day();
+						this.readDay(d, rs);
+						newDays.put(d.getId(), d);
+						allDays.put(d.getId(), d);
+						//"divide" is stored inside the day table itself
+						Tournament t = allTournaments.get(rs.getLong("tournament_id"));
+						if (!rs.wasNull() && t != null) {
+							divides.add(new Pair<>(d, t));
+						}
+					}
+				}
+
+				rs = ps.getGetAllComposes().executeQuery();
+				while (rs.next()) {
+					long playerId = rs.getLong("player_id");
+					long teamId = rs.getLong("team_id");
+					if (allPlayers.containsKey(playerId) && allTeams.containsKey(teamId) && (newPlayers.containsKey(playerId) || newTeams.containsKey(teamId))) {
+						composes.add(new Pair<>(allPlayers.get(playerId), allTeams.get(teamId)));
+					}
+				}
+				rs = ps.getGetAllPartecipations().executeQuery();
+				while (rs.next()) {
+					long teamId = rs.getLong("team_id");
+					long tournamentId = rs.getLong("tournament_id");
+					if (allTeams.containsKey(teamId) && allTournaments.containsKey(tournamentId) && (newTeams.containsKey(teamId) || newTournaments.containsKey(tournamentId))) {
+						partecipations.add(new Partecipation(allTournaments.get(tournamentId), allTeams.get(teamId)));
+					}
+				}
+				rs = (this.isLazy() ? ps.getGetMatchesOfDaysWithoutTournament() : ps.getGetAllMatches()).executeQuery();
+				while (rs.next()) {
+					long team1Id = rs.getLong("team1_id");
+					long team2Id = rs.getLong("team2_id");
+					long dayId = rs.getLong("day_id");
+					if (allTeams.containsKey(team1Id) && allTeams.containsKey(team2Id) && allDays.containsKey(dayId) && (newTeams.containsKey(team1Id) || newTeams.containsKey(team2Id) || newDays.containsKey(dayId))) {
+						matches.add(new Match(
+								allTeams.get(team1Id),
+								allTeams.get(team2Id),
+								allDays.get(dayId),
+								rs.getInt("points_earned_from_winning"),
+								rs.getInt("points_earned_from_losing"),
+								rs.getInt("team1_goals"),
+								rs.getInt("team2_goals"),
+								MatchStatus.from(rs.getInt("status"))));
+					}
+				}
 				return null;
 			} catch (Exception e) {
 				return e;
 			}
 		});
+		LOG.info("read {} players, {} teams, {} tournaments, {} days and {} matches", newPlayers.size(), newTeams.size(), newTournaments.size(), newDays.size(), matches.size());
+
+		//we wire the object graph. Relationships with entities already in memory still reach the database, as it happens with the getAll APIs
+		for (Pair<Player, Team> compose : composes) {
+			compose.getValue().playersProperty().add(compose.getKey());
+			compose.getKey().teamsProperty().add(compose.getValue());
+		}
+		for (Partecipation p : partecipations) {
+			p.getTournament().get().partecipationsProperty().add(p);
+			p.getTeam().get().partecipationsProperty().add(p);
+		}
+		for (Pair<Day, Tournament> divide : divides) {
+			//we need to set the tournament before the other because the second insturction relies on the first one
+			divide.getKey().tournamentProperty().set(divide.getValue());
+			divide.getValue().daysProperty().add(divide.getKey());
+		}
+		for (Match m : matches) {
+			//we don't care if the match is already inside the list, because they are ObservableDistinctList
+			m.getTeam1().get().matchesProperty().add(m);
+			m.getTeam2().get().matchesProperty().add(m);
+			m.getDay().get().matchesProperty().add(m);
+		}
+
+		//the graph is complete: from now on every change needs to be synchronized with the database
+		for (Player p : newPlayers.values()) {
+			this.setupPlayerListeners(p);
+		}
+		for (Team t : newTeams.values()) {
+			this.setupTeamListeners(t);
+		}
+		for (Tournament t : newTournaments.values()) {
+			this.setupTournamentListeners(t);
+		}
+		for (Day d : newDays.values()) {
+			this.setupDayListeners(d);
+		}
+		this.players.putAll(newPlayers);
+		this.teams.putAll(newTeams);
+		this.tournaments.putAll(newTournaments);
+		this.days.putAll(newDays);
 	}
 
-	private void removeDBMatch(Match match) throws DAOException {
-		this.connectAndThenDo((c,s,ps) -> {
+	/**
+	 * Makes the DAO load the tournaments lazily
+	 * 
+	 * If enabled, {@link #loadAll()} and the <tt>getAll</tt> APIs create the tournaments without their days and matches: they are fetched by
+	 * {@link #load(Tournament)}. At most <tt>maximumLoadedTournaments</tt> tournaments are kept in memory: loading another one evicts
+	 * the least recently loaded one (see {@link #evict(Tournament)}).
+	 * 
+	 * Please note that the DAO doesn't monitor the memory available: tournaments are evicted only when their number exceeds the cap, never
+	 * because the memory is running low. Choose the cap by looking at how many matches the tournaments usually have.
+	 * 
+	 * Call it before fetching any tournament
+	 * 
+	 * @param maximumLoadedTournaments the maximum number of tournaments whose days and matches are kept in memory. 0 if every tournament has to be loaded eagerly
+	 */
+	public void setMaximumLoadedTournaments(int maximumLoadedTournaments) {
+		this.maximumLoadedTournaments = maximumLoadedTournaments;
+	}
+
+	public int getMaximumLoadedTournaments() {
+		return this.maximumLoadedTournaments;
+	}
+
+	/**
+	 * 
+	 * @return true if the days of the tournaments are fetched only when needed (see {@link #setMaximumLoadedTournaments(int)})
+	 */
+	private boolean isLazy() {
+		return this.maximumLoadedTournaments > 0;
+	}
+
+	@Override
+	public boolean isLoaded(Tournament tournament) {
+		return !this.isLazy() || this.loadedTournaments.containsKey(tournament.getId());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Only the days not in memory yet (and their matches) are fetched. Since they mirror what the database already contains, wiring them
+	 * inside the model doesn't write anything
+	 */
+	@Override
+	public void load(Tournament tournament) throws DAOException {
+		if (!this.isLazy()) {
+			return;
+		}
+		if (this.loadedTournaments.get(tournament.getId()) != null) {
+			//the access made it the most recently used tournament
+			return;
+		}
+		//the database needs to contain every change made on the model up until now
+		this.flush();
+
+		Map<Long, Day> newDays = new LinkedHashMap<>();
+		List<Match> matches = new ArrayList<>();
+		this.readAndThenDo((c,s,ps) -> {
 			try {
-				LOG.debug("delete match {}...", match);
-				ps.getDeleteMatch().setLong(1, match.getTeam1().get().getId());
-				ps.getDeleteMatch().setLong(2, match.getTeam2().get().getId());
-				ps.getDeleteMatch().setLong(3, match.getDay().get().getId());
-				ps.getDeleteMatch().executeUpdate();
-				LOG.debug("DONE");
+				ps.getGetDaysOfTournament().setLong(1, tournament.getId());
+				ResultSet rs = ps.getGetDaysOfTournament().executeQuery();
+				while (rs.next()) {
+					if (!this.days.containsKey(rs.getLong("id"))) {
+						Day d = new Day();
+						this.readDay(d, rs);
+						newDays.put(d.getId(), d);
+					}
+				}
+				//the days already in memory have their matches already
+				ps.getGetMatchesInTournament().setLong(1, tournament.getId());
+				rs = ps.getGetMatchesInTournament().executeQuery();
+				while (rs.next()) {
+					Team team1 = this.teams.get(rs.getLong("team1_id"));
+					Team team2 = this.teams.get(rs.getLong("team2_id"));
+					Day day = newDays.get(rs.getLong("day_id"));
+					if (team1 != null && team2 != null && day != null) {
+						matches.add(new Match(
+								team1,
+								team2,
+								day,
+								rs.getInt("points_earned_from_winning"),
+								rs.getInt("points_earned_from_losing"),
+								rs.getInt("team1_goals"),
+								rs.getInt("team2_goals"),
+								MatchStatus.from(rs.getInt("status"))));
+					}
+				}
 				return null;
 			} catch (Exception e) {
 				return e;
 			}
 		});
+		LOG.info("loaded {} days and {} matches of tournament {}", newDays.size(), matches.size(), tournament);
+
+		this.withoutWrites(() -> {
+			for (Day d : newDays.values()) {
+				//we need to set the tournament before the other because the second insturction relies on the first one
+				d.tournamentProperty().set(tournament);
+				tournament.daysProperty().add(d);
+			}
+			for (Match m : matches) {
+				m.getTeam1().get().matchesProperty().add(m);
+				m.getTeam2().get().matchesProperty().add(m);
+				m.getDay().get().matchesProperty().add(m);
+			}
+		});
+		for (Day d : newDays.values()) {
+			this.setupDayListeners(d);
+		}
+		this.days.putAll(newDays);
+
+		this.loadedTournaments.put(tournament.getId(), tournament);
+		while (this.loadedTournaments.size() > this.maximumLoadedTournaments) {
+			this.evict(this.loadedTournaments.values().iterator().next());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The matches changed and not saved with {@link #update(Match)} yet are saved before being removed from memory
+	 */
+	@Override
+	public void evict(Tournament tournament) throws DAOException {
+		if (!this.loadedTournaments.containsKey(tournament.getId())) {
+			return;
+		}
+		List<Day> toEvict = new ArrayList<>(tournament.daysProperty());
+		//the results changed in memory would be lost together with the matches
+		for (Day d : toEvict) {
+			for (Match m : d.matchesProperty()) {
+				if (m.isDirty()) {
+					this.update(m);
+				}
+			}
+		}
+		this.loadedTournaments.remove(tournament.getId());
+		LOG.info("evicting the days of tournament {}", tournament);
+		this.withoutWrites(() -> this.detachDays(toEvict));
+		for (Day d : toEvict) {
+			this.days.remove(d.getId());
+		}
+	}
+
+	@Override
+	public Match update(Match match) throws DAOException {
+		Set<Match.Field> dirtyFields = match.getDirtyFields();
+		if (dirtyFields.isEmpty()) {
+			return match;
+		}
+		List<String> columns = new ArrayList<>();
+		List<Object> parameters = new ArrayList<>();
+		for (Match.Field field : dirtyFields) {
+			switch (field) {
+			case TEAM1_GOALS:
+				columns.add("team1_goals");
+				parameters.add(match.getTeam1Goals().get());
+				break;
+			case TEAM2_GOALS:
+				columns.add("team2_goals");
+				parameters.add(match.getTeam2Goals().get());
+				break;
+			case POINTS_EARNED_BY_WINNING:
+				columns.add("points_earned_from_winning");
+				parameters.add(match.getPointsEarnedByWinning().get());
+				break;
+			case POINTS_EARNED_BY_LOSING:
+				columns.add("points_earned_from_losing");
+				parameters.add(match.getPointsEarnedByLosing().get());
+				break;
+			case STATUS:
+				columns.add("status");
+				parameters.add(match.getStatus().get().getId());
+				break;
+			}
+		}
+		parameters.add(match.getTeam1().get().getId());
+		parameters.add(match.getTeam2().get().getId());
+		parameters.add(match.getDay().get().getId());
+
+		LOG.debug("updating columns {} of match {}...", columns, match);
+		//every set of columns has its own statement
+		this.write(new PendingWrite(
+				String.format("%s%s", PARTIAL_MATCH_UPDATE, columns),
+				String.format("UPDATE match SET %s=? WHERE team1_id=? AND team2_id=? AND day_id=?", String.join("=?, ", columns)),
+				this.getMatchKey(match),
+				parameters.toArray()));
+		match.clearDirtyFields();
+		return match;
+	}
+
+	/**
+	 * insert in the database the given match
+	 * 
+	 * 
+	 * 
+	 * @param match the match to add
+	 * @throws DAOException if something bad happens
+	 */
+	private void addDBMatch(final Match match) throws DAOException {
+		LOG.debug("team1Id: {} team2Id: {} dayId: {}", match.getTeam1().get().getId(), match.getTeam2().get().getId(), match.getDay().get().getId());
+		this.write("insertMatch",
+				this.getMatchKey(match),
+				match.getTeam1().get().getId(),
+				match.getTeam2().get().getId(),
+				match.getDay().get().getId(),
+				match.getPointsEarnedByWinning().get(),
+				match.getPointsEarnedByLosing().get(),
+				match.getTeam1Goals().get(),
+				match.getTeam2Goals().get(),
+				match.getStatus().get().getId());
+	}
+
+	private void removeDBMatch(Match match) throws DAOException {
+		LOG.debug("delete match {}...", match);
+		this.write("deleteMatch", this.getMatchKey(match), match.getTeam1().get().getId(), match.getTeam2().get().getId(), match.getDay().get().getId());
+	}
+
+	/**
+	 * 
+	 * @param match the match involved
+	 * @return the key identifying the row of the match inside the database (see {@link PendingWrite#key})
+	 */
+	private List<Object> getMatchKey(Match match) {
+		return Arrays.asList("match", match.getTeam1().get().getId(), match.getTeam2().get().getId(), match.getDay().get().getId());
 	}
 
 }
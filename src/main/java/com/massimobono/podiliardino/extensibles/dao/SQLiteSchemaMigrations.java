@@ -0,0 +1,229 @@
+package com.massimobono.podiliardino.extensibles.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The ordered list of changes applied to the schema of the SQLite database
+ *
+ * The version of the schema of a database is stored inside the database itself, in <tt>PRAGMA user_version</tt>. Every migration
+ * brings the schema from the previous version to its own version: when a database is opened, every migration with a version greater than
+ * the one of the database is applied, in order. Each migration is performed in its own transaction, together with the update of
+ * <tt>user_version</tt>: if a migration fails, the database stays at the previous version.
+ *
+ * Databases created before the introduction of the versioning have version 0: the first migration creates the tables only if they don't exist,
+ * hence it can be applied to them as well.
+ *
+ * To change the schema, add a new migration at the end of the list. <b>Never change a migration already shipped</b>: the databases already
+ * upgraded would never see the change.
+ *
+ * @author massi
+ *
+ */
+public class SQLiteSchemaMigrations {
+
+	private static final Logger LOG = LogManager.getLogger(SQLiteSchemaMigrations.class);
+
+	/**
+	 * A single change of the schema
+	 *
+	 * @author massi
+	 *
+	 */
+	private static class Migration {
+		private final int version;
+		private final String description;
+		/**
+		 * the statements to execute. Returns the exception encountered or <tt>null</tt> if everything went fine
+		 */
+		private final Function<Statement, Exception> upgrade;
+
+		public Migration(int version, String description, Function<Statement, Exception> upgrade) {
+			this.version = version;
+			this.description = description;
+			this.upgrade = upgrade;
+		}
+	}
+
+	private final List<Migration> migrations;
+
+	public SQLiteSchemaMigrations() {
+		this.migrations = new ArrayList<>();
+
+		this.add("baseline schema", s -> {
+			try {
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS player (id integer primary key autoincrement, name varchar(100), surname varchar(100), birthday varchar(20), phone varchar(20));");
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS name ON player (name, surname);");
+
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS team (id integer primary key autoincrement, name varchar(100), date varchar(20));");
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS team_name ON team (name);");
+
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS player_compose_team (player_id INTEGER REFERENCES player(id) ON UPDATE CASCADE, team_id INTEGER REFERENCES team(id) ON UPDATE CASCADE, UNIQUE(player_id, team_id));");
+
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS tournament (id INTEGER PRIMARY KEY AUTOINCREMENT, name varchar(100), start_date varchar(20), end_date varchar(20));");
+
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS day (id INTEGER PRIMARY KEY AUTOINCREMENT, number INTEGER, date varchar(20), tournament_id INTEGER REFERENCES tournament(id) ON UPDATE CASCADE);");
+
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS match (team1_id INTEGER REFERENCES team(id) ON UPDATE CASCADE, team2_id INTEGER REFERENCES team(id) ON UPDATE CASCADE, day_id INTEGER REFERENCES day(id) ON UPDATE CASCADE, points_earned_from_winning INTEGER, points_earned_from_losing INTEGER, team1_goals INTEGER, team2_goals INTEGER, status INTEGER, UNIQUE(team1_id, team2_id, day_id));");
+
+				s.executeUpdate("CREATE TABLE IF NOT EXISTS partecipation (team_id INTEGER REFERENCES team(id) ON UPDATE CASCADE, tournament_id INTEGER REFERENCES tournament(id) ON UPDATE CASCADE, UNIQUE(team_id, tournament_id));");
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		});
+
+		this.add("seed of the days", s -> {
+			try {
+				//databases created by the unversioned setup may already have the column
+				if (!this.hasColumn(s, "day", "seed")) {
+					s.executeUpdate("ALTER TABLE day ADD COLUMN seed INTEGER;");
+				}
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		});
+
+		this.add("indexes on the columns the relationships are fetched by", s -> {
+			try {
+				//match(team1_id), partecipation(team_id) and player_compose_team(player_id) are already the prefix of the UNIQUE constraints of their tables
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS match_day ON match (day_id);");
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS match_team2 ON match (team2_id);");
+				//the following indexes contain every column the queries read, so the tables are not accessed at all
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS partecipation_tournament ON partecipation (tournament_id, team_id);");
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS player_compose_team_team ON player_compose_team (team_id, player_id);");
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS day_tournament ON day (tournament_id);");
+				s.executeUpdate("ANALYZE;");
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		});
+
+		this.add("dates in ISO-8601 format", s -> {
+			try {
+				//dd-MM-yyyy can't be compared as a string: yyyy-MM-dd can, hence ranges of dates can be looked up with an index
+				this.convertDates(s, "player", "birthday");
+				this.convertDates(s, "team", "date");
+				this.convertDates(s, "tournament", "start_date");
+				this.convertDates(s, "tournament", "end_date");
+				this.convertDates(s, "day", "date");
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS team_date ON team (date);");
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS tournament_start_date ON tournament (start_date);");
+				s.executeUpdate("CREATE INDEX IF NOT EXISTS day_date ON day (date);");
+				return null;
+			} catch (SQLException e) {
+				return e;
+			}
+		});
+	}
+
+	/**
+	 * Appends a migration at the end of the list. Its version is the next one
+	 *
+	 * @param description what the migration changes
+	 * @param upgrade the statements to execute
+	 */
+	private void add(String description, Function<Statement, Exception> upgrade) {
+		this.migrations.add(new Migration(this.migrations.size() + 1, description, upgrade));
+	}
+
+	/**
+	 *
+	 * @return the version of the schema after every migration has been applied
+	 */
+	public int getLatestVersion() {
+		return this.migrations.size();
+	}
+
+	/**
+	 * Brings the schema of the database to the latest version
+	 *
+	 * @param c the connection to the database. It has to be in auto-commit mode
+	 * @param s a statement of <tt>c</tt>
+	 * @return the number of migrations applied
+	 * @throws SQLException if a migration fails. The migrations applied before the failing one are kept
+	 * @throws DAOException if the database has been created by a newer version of the software
+	 */
+	public int upgrade(Connection c, Statement s) throws SQLException, DAOException {
+		int version = this.getVersion(s);
+		if (version > this.getLatestVersion()) {
+			throw new DAOException(String.format("the database has schema version %d, but the latest one known is %d", version, this.getLatestVersion()));
+		}
+		int retVal = 0;
+		for (Migration migration : this.migrations.subList(version, this.migrations.size())) {
+			LOG.info("Upgrading database schema to version {}: {}...", migration.version, migration.description);
+			c.setAutoCommit(false);
+			try {
+				Exception e = migration.upgrade.apply(s);
+				if (e != null) {
+					throw e;
+				}
+				s.executeUpdate(String.format("PRAGMA user_version = %d;", migration.version));
+				c.commit();
+				retVal++;
+			} catch (Exception e) {
+				c.rollback();
+				throw e instanceof SQLException ? (SQLException) e : new SQLException(e);
+			} finally {
+				c.setAutoCommit(true);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 *
+	 * @param s the statement to use to query the database
+	 * @return the schema version of the database
+	 * @throws SQLException if something bad happens
+	 */
+	public int getVersion(Statement s) throws SQLException {
+		try (ResultSet rs = s.executeQuery("PRAGMA user_version;")) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+
+	/**
+	 * Converts the dates of a column from <tt>dd-MM-yyyy</tt> to <tt>yyyy-MM-dd</tt>. Empty dates are left untouched
+	 *
+	 * @param s the statement to use to query the database
+	 * @param table the table to change
+	 * @param column the column containing the dates
+	 * @throws SQLException if something bad happens
+	 */
+	private void convertDates(Statement s, String table, String column) throws SQLException {
+		s.executeUpdate(String.format(
+				"UPDATE %1$s SET %2$s = substr(%2$s, 7, 4) || '-' || substr(%2$s, 4, 2) || '-' || substr(%2$s, 1, 2) WHERE %2$s LIKE '__-__-____';",
+				table, column));
+	}
+
+	/**
+	 *
+	 * @param s the statement to use to query the database
+	 * @param table the table to check
+	 * @param column the column to look for
+	 * @return true if <tt>table</tt> has a column named <tt>column</tt>, false otherwise
+	 * @throws SQLException if something bad happens
+	 */
+	private boolean hasColumn(Statement s, String table, String column) throws SQLException {
+		try (ResultSet rs = s.executeQuery(String.format("PRAGMA table_info(%s);", table))) {
+			while (rs.next()) {
+				if (rs.getString("name").equalsIgnoreCase(column)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+}
@@ -3,6 +3,7 @@ package com.massimobono.podiliardino.extensibles.dummymatch;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Optional;
 
 import com.massimobono.podiliardino.extensibles.dao.DAO;
 import com.massimobono.podiliardino.extensibles.dao.DAOException;
@@ -20,8 +21,8 @@ public class AddDefaultVictoryDummyMatchHandler implements DummyMatchHandler{
 	private static final int GOALS_RECEIVED = 9;
 	
 	@Override
-	public void handleUnPairedTeam(Day day, Team unpairedTeam) {
-		day.matchesProperty().add(new Match(
+	public Optional<Match> handleUnPairedTeam(Day day, Team unpairedTeam) {
+		return Optional.of(new Match(
 				unpairedTeam,
 				Utils.DUMMYTEAM,
 				day, 
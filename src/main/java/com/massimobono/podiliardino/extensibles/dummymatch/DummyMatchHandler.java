@@ -1,5 +1,6 @@
 package com.massimobono.podiliardino.extensibles.dummymatch;
 
+import java.util.Optional;
 import java.util.function.BiConsumer;
 
 import com.massimobono.podiliardino.model.Day;
@@ -18,5 +19,14 @@ import com.massimobono.podiliardino.model.Team;
 @FunctionalInterface
 public interface DummyMatchHandler {
 	
-	public void handleUnPairedTeam(Day d, Team team);
+	/**
+	 * Establishes what happens to the team with no opponents
+	 * 
+	 * The handler must not change the day: the caller adds the returned match together with the other matches of the day
+	 * 
+	 * @param d the day where <tt>team</tt> has no opponent
+	 * @param team the team with no opponent
+	 * @return the match the team has to play in <tt>d</tt> instead, if any
+	 */
+	public Optional<Match> handleUnPairedTeam(Day d, Team team);
 }
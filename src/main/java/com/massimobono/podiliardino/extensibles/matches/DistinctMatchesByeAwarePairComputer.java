@@ -1,11 +1,9 @@
 package com.massimobono.podiliardino.extensibles.matches;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
-import java.util.Random;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -34,125 +32,160 @@ public class DistinctMatchesByeAwarePairComputer<T extends Team> implements Pair
 	
 	private static final Logger LOG = LogManager.getLogger(DistinctMatchesByeAwarePairComputer.class);
 
+	/**
+	 * value of {@link #computePairs(Day, Collection)} partner array representing a team which will bye
+	 */
+	private static final int BYE = -2;
+	/**
+	 * value of {@link #computePairs(Day, Collection)} partner array representing a team not paired yet
+	 */
+	private static final int UNPAIRED = -1;
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The pairing works only on the positions of the teams inside the ranking: the state is kept in a <tt>boolean[]</tt> of the teams already paired
+	 * and in a <tt>int[]</tt> containing the partner of each team. The {@link Pair} objects are built only at the end.
+	 */
 	@Override
 	public List<Pair<T, T>> computePairs(Day d, Collection<T> toPair) throws PodiliardinoException{
 		
-		T team1, team2;
 		List<T> teams = new ArrayList<>(toPair);
-		List<Pair<T,T>> retVal = new ArrayList<>();
-		Team teamToBye = null;
+		Tournament tournament = d.tournamentProperty().get();
+		int n = teams.size();
+		//true if the team in the given position has already a pair
+		boolean[] paired = new boolean[n];
+		//the position of the team paired with the team in the given position (or BYE)
+		int[] partner = new int[n];
+		//the position of the first team of every pair, in the order the pairs have been created
+		int[] pairOrder = new int[n];
+		int pairs = 0;
+		int teamToBye = UNPAIRED;
 		//if every team has "maximumNumberOfMatchesAllowed" against eachother, we assume no one has a match against noone
 		int maximumNumberOfMatchesAllowed = 0;
-		//if inside the main for loop a team has found its opponent
-		boolean pairFound = false;
+		//the position of the team found as opponent in the main loop
+		int opponent;
 		
+		Arrays.fill(partner, UNPAIRED);
 		//first we need to determinate whether or not a bye is necessary and, whether is necessary, we need to detemrine which team will bye
 		//if every team has a bye we act like none really has (in this way the tournament can keep going more than the minimum day length)
-		if (d.tournamentProperty().get().hasOddPartecipants()) {
-			//ok, there are a odd number of partecipants. We need to determine which team will have no pair
-			teamToBye = this.computeTeamToBye(teams, d.tournamentProperty().get());
-			LOG.info("In this pairs {} will bye", teamToBye);
+		//the teams to pair may be only a part of the tournament (see ScoreGroupPairComputer): the bye depends on them, not on the partecipants
+		if ((n % 2) == 1) {
+			//ok, there are a odd number of teams. We need to determine which team will have no pair
+			teamToBye = teams.indexOf(this.computeTeamToBye(teams, tournament));
+			LOG.info("In this pairs {} will bye", teams.get(teamToBye));
+			//the team to bye is not involved in any computation
+			paired[teamToBye] = true;
+			partner[teamToBye] = BYE;
 		}
 		
 		LOG.debug("Computing pairs...");
-		for (int i=0; i<teams.size(); i++) {
-			team1 = teams.get(i);
+		for (int i=0; i<n; i++) {
 			maximumNumberOfMatchesAllowed = 0;
-			pairFound = false;
 			
-			if (team1 == teamToBye) {
+			if (i == teamToBye) {
 				//we found the team to bye. we add the handicapped pair
-				retVal.add(new Pair<>(team1, null));
-				pairFound = true;
+				pairOrder[pairs++] = i;
 			}
 			//we need to check if the team is already paired with someone else
-			if (this.hasAlreadyASetupMatch(team1, retVal)) {
+			if (paired[i]) {
 				continue;
 			}
-			LOG.info("Analyzing {}...", team1);
+			LOG.info("Analyzing {}...", teams.get(i));
 			
-			while (!pairFound) {
+			opponent = UNPAIRED;
+			while (opponent == UNPAIRED) {
 				//we first goes directly to "team2 next to team1": every team before the "team1" 
 				//is ranked higher than "team1" itself, hence we shouldn't create the match at all
-				for (int j=(i+1); j<teams.size(); j++) {
-					team2 = teams.get(j);
-					if (team2 == teamToBye) {
-						//the team to bye is not involved in any computation
-						continue;
-					}
-					//we need to check if the team is already paired with someone else
-					if (this.hasAlreadyASetupMatch(team2, retVal)) {
-						continue;
-					}
-					//we check if team1 and team2 has already fought against
-					if (d.tournamentProperty().get().hasAMatchAgainst(team1, team2, maximumNumberOfMatchesAllowed)){
-						continue;
-					}
-					//ok, we have found the first team2 that "team1" has never fought against. We pair them
-					retVal.add(new Pair<>(team1, team2));
-					LOG.info("{} paired with lower-ranked {}", team1, team2);
-					pairFound = true;
-					break;
-				}
-				
-				if (pairFound) {
+				opponent = this.findOpponent(tournament, teams, paired, i, i + 1, n, 1, maximumNumberOfMatchesAllowed);
+				if (opponent != UNPAIRED) {
+					LOG.info("{} paired with lower-ranked {}", teams.get(i), teams.get(opponent));
 					break;
 				}
 				//ok, this team has fought all the teams below itself (according to a specific ranking). We look at teams higher in ranking
-				for (int j=(i-1); j>=0; j--) {
-					team2 = teams.get(j);
-					if (team2 == teamToBye) {
-						//the team to bye is not involved in any computation
-						continue;
-					}
-					//we need to check if the team is already paired with someone else
-					if (this.hasAlreadyASetupMatch(team2, retVal)) {
-						continue;
-					}
-					//we check if team1 and team2 has already fought against
-					if (d.tournamentProperty().get().hasAMatchAgainst(team1, team2, maximumNumberOfMatchesAllowed)){
-						continue;
-					}
-					//ok, we have found the first team2 that "team1" has never fought against. We pair them
-					retVal.add(new Pair<>(team1, team2));
-					LOG.info("{} paired with higher-ranked {}", team1, team2);
-					pairFound = true;
+				opponent = this.findOpponent(tournament, teams, paired, i, i - 1, -1, -1, maximumNumberOfMatchesAllowed);
+				if (opponent != UNPAIRED) {
+					LOG.info("{} paired with higher-ranked {}", teams.get(i), teams.get(opponent));
 					break;
 				}
-				
-				if (pairFound) {
+				if (!this.hasUnpairedTeams(paired, i)) {
+					//there is no one left to pair this team with
 					break;
 				}
-				
 				//ok, it seems this team has fought against everyone. It appears we need to increase maximumNumberOfMatchesAllowed
 				maximumNumberOfMatchesAllowed++;
 			}
-			
+			if (opponent == UNPAIRED) {
+				continue;
+			}
+			paired[i] = paired[opponent] = true;
+			partner[i] = opponent;
+			partner[opponent] = i;
+			pairOrder[pairs++] = i;
 		}
-		if (retVal.size()*2 != (teams.size() + (teamToBye == null ? 0 : 1))) {
+		if (pairs*2 != (n + (teamToBye == UNPAIRED ? 0 : 1))) {
 			//we check that all the teams have a pair. the unpaired team will have fake additional team, hence the 1
-			throw new PodiliardinoException(String.format("pairs: %d; teams: %d, byed team: %s", retVal.size(), teams.size(), teamToBye));
-			
+			throw new PodiliardinoException(String.format("pairs: %d; teams: %d, byed team: %s", pairs, n, teamToBye == UNPAIRED ? null : teams.get(teamToBye)));
+		}
+		
+		List<Pair<T,T>> retVal = new ArrayList<>(pairs);
+		for (int i=0; i<pairs; i++) {
+			int team1 = pairOrder[i];
+			retVal.add(new Pair<>(teams.get(team1), partner[team1] == BYE ? null : teams.get(partner[team1])));
 		}
 		return retVal;
 	}
 	
 	/**
+	 * Looks for the first team <tt>team1</tt> can be paired with
 	 * 
-	 * @param t the team involved
-	 * @param buildingPairs the pairs to check
-	 * @return True if inside the <tt>buildingPairs</tt> there is a pair involving the team <t>t</t>, flase otherwise
+	 * @param tournament the tournament involved
+	 * @param teams the teams to pair
+	 * @param paired for every team, true if the team has already a pair
+	 * @param team1 the position of the team we need to find an opponent of
+	 * @param from the first position to check (inclusive)
+	 * @param to the last position to check (exclusive)
+	 * @param step either +1 or -1, the direction of the search
+	 * @param maximumNumberOfMatchesAllowed number of previous fights between the 2 team allowed
+	 * @return the position of the opponent or {@link #UNPAIRED} if no team can be paired with <tt>team1</tt>
 	 */
-	private boolean hasAlreadyASetupMatch(T t, Collection<Pair<T,T>> buildingPairs) {
-		Optional<Pair<T,T>> teamPair = buildingPairs.parallelStream().filter(p -> ((p.getKey() == t) || (p.getValue() == t))).findFirst();
-		return teamPair.isPresent();
+	private int findOpponent(Tournament tournament, List<T> teams, boolean[] paired, int team1, int from, int to, int step, int maximumNumberOfMatchesAllowed) {
+		for (int j=from; j!=to; j+=step) {
+			//we need to check if the team is already paired with someone else (the team to bye is paired as well)
+			if (paired[j]) {
+				continue;
+			}
+			//we check if team1 and team2 has already fought against
+			if (tournament.hasAMatchAgainst(teams.get(team1), teams.get(j), maximumNumberOfMatchesAllowed)){
+				continue;
+			}
+			//ok, we have found the first team2 that "team1" has never fought against
+			return j;
+		}
+		return UNPAIRED;
+	}
+	
+	/**
+	 * 
+	 * @param paired for every team, true if the team has already a pair
+	 * @param team the team to ignore
+	 * @return true if there is at least one team, other than <tt>team</tt>, with no pair yet
+	 */
+	private boolean hasUnpairedTeams(boolean[] paired, int team) {
+		for (int j=0; j<paired.length; j++) {
+			if (j != team && !paired[j]) {
+				return true;
+			}
+		}
+		return false;
 	}
 	
 	/**
 	 * Computes the team that will receive the bye
 	 * 
-	 * The team is computed as follow: we compute the team within <tt>ranking</tt> with minimum bye used, then
-	 * we pick up one of those teams randomly.
+	 * The team is computed as follow: we look for the teams within <tt>ranking</tt> with minimum bye used, then
+	 * we pick up the one lowest in ranking. Since the number of byes of a team is kept by the tournament (see {@link Tournament#getByeNumber(Team)}),
+	 * a single scan from the bottom of the ranking is enough.
 	 * 
 	 * Please note the following:
 	 * <ol>
@@ -164,27 +197,20 @@ public class DistinctMatchesByeAwarePairComputer<T extends Team> implements Pair
 	 * @return the team which will receive the bye
 	 */
 	private T computeTeamToBye(List<T> ranking, Tournament tournament) {
-		T teamAnalyzed = null;
-		int minBye, bye;
+		T retVal = null;
+		int minBye = Integer.MAX_VALUE;
+		int bye;
 		
-		bye = 0;
-		minBye = 0;
-		while (true) {
-			//find the first team from the bottom of the ranking with bye to minBye
-			for (int i=(ranking.size()-1); i>=0; i--){
-				teamAnalyzed = ranking.get(i);
-				bye = teamAnalyzed.getByeNumber(tournament, false);
-				if (bye > minBye) {
-					//this team has already used more bye that the threashold we set. Skipping
-					continue;
-				}
-				//ok, we found a team!
-				LOG.info("The team that will use the bye is {}", teamAnalyzed);
-				return teamAnalyzed;
+		for (int i=(ranking.size()-1); i>=0; i--){
+			bye = tournament.getByeNumber(ranking.get(i));
+			if (bye < minBye) {
+				//this team is the lowest ranked one with so few byes
+				minBye = bye;
+				retVal = ranking.get(i);
 			}
-			//all the team have already used at least "minBye" byes. We increase our threshold
-			minBye++;
 		}
+		LOG.info("The team that will use the bye is {}", retVal);
+		return retVal;
 	}
 
 }
@@ -0,0 +1,212 @@
+package com.massimobono.podiliardino.extensibles.matches;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.massimobono.podiliardino.model.Day;
+import com.massimobono.podiliardino.model.PodiliardinoException;
+import com.massimobono.podiliardino.model.Team;
+import com.massimobono.podiliardino.model.Tournament;
+import com.massimobono.podiliardino.util.MaximumWeightMatching;
+
+import javafx.util.Pair;
+
+/**
+ * Represents a object that pairs a list of team by looking at all the possible pairings at once.
+ *
+ * The rules are the same ones of {@link DistinctMatchesByeAwarePairComputer}:
+ * <ul>
+ * 	<li>teams ranked similar are matched together</li>
+ * 	<li>A team shouldn't fight another team twice in the whole tournament</li>
+ * 	<li>A team shouldn't exploit the "bye" more than once in the whole tournament</li>
+ * </ul>
+ *
+ * However, instead of pairing the teams one after the other, every possible pair becomes an edge of a graph whose weight
+ * is higher the closer the 2 teams are in the ranking. Rematches and byes given to a team which has already used one
+ * are heavily penalized: their penalty is bigger than the whole cost of any pairing without them. The pairing is then
+ * the maximum weight perfect matching of such graph (see {@link MaximumWeightMatching}). In this way a rematch is created
+ * only when there is no pairing at all without rematches.
+ *
+ * If the number of teams is odd, an additional vertex representing the bye is added in the graph: the team matched with it
+ * will bye.
+ *
+ * Teams very far away in the ranking are almost never paired together, hence at first we consider only the pairs whose teams
+ * are at most {@link #INITIAL_WINDOW} positions apart. If the best pairing found in this way contains a penalized pair
+ * we double the window (up to the whole ranking) and we try again.
+ *
+ * @author massi
+ *
+ */
+public class MaximumWeightMatchingPairComputer<T extends Team> implements PairComputer<T> {
+
+	private static final Logger LOG = LogManager.getLogger(MaximumWeightMatchingPairComputer.class);
+
+	/**
+	 * the maximum distance in the ranking of the teams we pair in the first attempt
+	 */
+	private static final int INITIAL_WINDOW = 16;
+
+	@Override
+	public List<Pair<T, T>> computePairs(Day day, Collection<T> toPair) throws PodiliardinoException {
+		List<T> teams = new ArrayList<>(toPair);
+		Tournament tournament = day.tournamentProperty().get();
+		int n = teams.size();
+		//the vertex representing the bye. It is present only if the teams are odd
+		int bye = (n % 2) == 1 ? n : -1;
+		int vertices = bye == -1 ? n : n + 1;
+
+		//a penalty bigger than the cost of every pairing with no penalized pair
+		long penalty = ((long)n + 1) * ((long)n + 1) * ((long)n + 1);
+		//for every team, the byes it has used more than the team with the fewest byes. If every team has a bye we act like none really has
+		int[] byes = new int[n];
+		if (bye != -1) {
+			int minBye = Integer.MAX_VALUE;
+			for (int i=0; i<n; i++) {
+				byes[i] = tournament.getByeNumber(teams.get(i));
+				minBye = Math.min(minBye, byes[i]);
+			}
+			for (int i=0; i<n; i++) {
+				byes[i] -= minBye;
+			}
+		}
+
+		int window = INITIAL_WINDOW;
+		int[] mate;
+		while (true) {
+			mate = this.computeMatching(tournament, teams, byes, bye, vertices, window, penalty);
+
+			if (window >= n) {
+				//we have considered every possible pair: this is the best we can do
+				break;
+			}
+			if (this.isPerfect(mate) && !this.hasPenalizedPairs(tournament, teams, mate, byes, bye)) {
+				break;
+			}
+			LOG.info("No pairing without rematches found by pairing teams at most {} positions apart. Widening the search", window);
+			window *= 2;
+		}
+
+		if (!this.isPerfect(mate)) {
+			throw new PodiliardinoException(String.format("teams: %d, unpaired teams found", n));
+		}
+
+		List<Pair<T,T>> retVal = new ArrayList<>();
+		T teamToBye = null;
+		for (int i=0; i<n; i++) {
+			if (mate[i] == bye) {
+				teamToBye = teams.get(i);
+			} else if (mate[i] > i) {
+				retVal.add(new Pair<>(teams.get(i), teams.get(mate[i])));
+				LOG.info("{} paired with {}", teams.get(i), teams.get(mate[i]));
+			}
+		}
+		if (teamToBye != null) {
+			//as required by the interface, the bye is the last pair
+			LOG.info("In this pairs {} will bye", teamToBye);
+			retVal.add(new Pair<>(teamToBye, null));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Computes the best perfect matching by considering only the pairs of teams at most <tt>window</tt> positions apart
+	 * 
+	 * Every perfect matching has the same number of pairs, hence we can turn the costs into weights by subtracting them from
+	 * a constant greater than every cost: the perfect matching with maximum weight is then the one with minimum cost.
+	 * Positive weights let the algorithm converge in far fewer dual updates than negative ones.
+	 *
+	 * @return for every vertex, the vertex matched with it (or -1 if the vertex is unmatched)
+	 */
+	private int[] computeMatching(Tournament tournament, List<T> teams, int[] byes, int bye, int vertices, int window, long penalty) {
+		int n = teams.size();
+		int edges = 0;
+		for (int i=0; i<n; i++) {
+			edges += Math.min(n, i + 1 + window) - (i + 1) + (bye != -1 ? 1 : 0);
+		}
+		int[] from = new int[edges];
+		int[] to = new int[edges];
+		long[] costs = new long[edges];
+		long maxCost = 0;
+		int k = 0;
+		for (int i=0; i<n; i++) {
+			for (int j=i+1; j<Math.min(n, i + 1 + window); j++) {
+				from[k] = i;
+				to[k] = j;
+				costs[k] = this.getCost(tournament, teams, i, j, penalty);
+				maxCost = Math.max(maxCost, costs[k]);
+				k++;
+			}
+			if (bye != -1) {
+				from[k] = i;
+				to[k] = bye;
+				costs[k] = this.getByeCost(n, i, byes[i], penalty);
+				maxCost = Math.max(maxCost, costs[k]);
+				k++;
+			}
+		}
+		
+		MaximumWeightMatching graph = new MaximumWeightMatching(vertices);
+		for (k=0; k<edges; k++) {
+			graph.addEdge(from[k], to[k], maxCost + 1 - costs[k]);
+		}
+		return graph.compute(true);
+	}
+
+	/**
+	 *
+	 * @param tournament the tournament involved
+	 * @param teams the teams to pair, from the highest in ranking to the lowest one
+	 * @param i the position of the first team
+	 * @param j the position of the second team
+	 * @param penalty the cost of a single rematch
+	 * @return the cost of pairing the 2 teams
+	 */
+	private long getCost(Tournament tournament, List<T> teams, int i, int j, long penalty) {
+		long distance = j - i;
+		return (distance * distance) + (penalty * tournament.getHeadToHead().getNumberOfMatchesBetween(teams.get(i), teams.get(j)));
+	}
+
+	/**
+	 *
+	 * @param n the number of teams to pair
+	 * @param i the position of the team
+	 * @param byes the number of byes the team has already used more than the team with the fewest byes
+	 * @param penalty the cost of a bye already used
+	 * @return the cost of making the team bye. Teams lower in ranking are favoured
+	 */
+	private long getByeCost(int n, int i, int byes, long penalty) {
+		long distance = n - 1 - i;
+		return (distance * distance) + (penalty * byes);
+	}
+
+	private boolean isPerfect(int[] mate) {
+		for (int m : mate) {
+			if (m == -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @return true if the matching contains a rematch or a bye given to a team which has already used more byes than someone else
+	 */
+	private boolean hasPenalizedPairs(Tournament tournament, List<T> teams, int[] mate, int[] byes, int bye) {
+		for (int i=0; i<teams.size(); i++) {
+			if (mate[i] == bye) {
+				if (byes[i] > 0) {
+					return true;
+				}
+			} else if (mate[i] > i && tournament.hasAMatchAgainst(teams.get(i), teams.get(mate[i]), 0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.massimobono.podiliardino.extensibles.matches;
+
+import com.massimobono.podiliardino.model.Team;
+
+/**
+ * The {@link PairComputer} the application can use to generate the matches of a day
+ *
+ * Changing the engine changes how the teams are paired: a tournament already in progress should keep the engine
+ * it has started with.
+ *
+ * @author massi
+ *
+ */
+public enum PairingEngine {
+	/**
+	 * pairs the teams one after the other (see {@link DistinctMatchesByeAwarePairComputer})
+	 */
+	DISTINCT_MATCHES,
+	/**
+	 * pairs all the teams at once (see {@link MaximumWeightMatchingPairComputer})
+	 */
+	MAXIMUM_WEIGHT_MATCHING,
+	/**
+	 * pairs every score group on its own (see {@link ScoreGroupPairComputer}) with {@link MaximumWeightMatchingPairComputer}
+	 */
+	SCORE_GROUPS;
+
+	/**
+	 *
+	 * @return a new computer pairing the teams as the engine requires
+	 */
+	public <T extends Team> PairComputer<T> create() {
+		switch (this) {
+		case MAXIMUM_WEIGHT_MATCHING:
+			return new MaximumWeightMatchingPairComputer<>();
+		case SCORE_GROUPS:
+			return new ScoreGroupPairComputer<>(new MaximumWeightMatchingPairComputer<>());
+		default:
+			return new DistinctMatchesByeAwarePairComputer<>();
+		}
+	}
+
+	/**
+	 *
+	 * @param value the name of the engine, case insensitive and without underscores (eg. <tt>scoregroups</tt>)
+	 * @return the engine with the given name
+	 * @throws IllegalArgumentException if no engine has the given name
+	 */
+	public static PairingEngine fromSetting(String value) {
+		for (PairingEngine engine : values()) {
+			if (engine.name().replace("_", "").equalsIgnoreCase(value)) {
+				return engine;
+			}
+		}
+		throw new IllegalArgumentException(String.format("unknown pairing engine %s", value));
+	}
+}
@@ -0,0 +1,255 @@
+package com.massimobono.podiliardino.extensibles.matches;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.massimobono.podiliardino.model.Day;
+import com.massimobono.podiliardino.model.PodiliardinoException;
+import com.massimobono.podiliardino.model.Team;
+import com.massimobono.podiliardino.model.Tournament;
+import com.massimobono.podiliardino.model.TournamentMatchTable;
+
+import javafx.util.Pair;
+
+/**
+ * Represents a object that pairs the teams inside the same score group, as required by the swiss rules.
+ *
+ * The ranking is split in score groups, namely sequences of teams with the same points. If a group has an odd number of teams,
+ * its lowest ranked team floats down into the next group. Every group is then paired independently by another {@link PairComputer}:
+ * since the groups share nothing, they are paired in parallel on the common {@link ForkJoinPool}. In this way large tournaments are paired
+ * in roughly the time needed to pair the largest group.
+ *
+ * A group may be too small to be paired without rematches (or without giving the bye to a team that has already used more byes than someone else).
+ * When this happens the group is merged with the adjacent one and the merged group is paired again, until every group is fine
+ * or there is only one group left.
+ *
+ * @author massi
+ *
+ */
+public class ScoreGroupPairComputer<T extends Team> implements PairComputer<T> {
+
+	private static final Logger LOG = LogManager.getLogger(ScoreGroupPairComputer.class);
+
+	/**
+	 * the computer used to pair the teams inside a single group
+	 */
+	private final PairComputer<T> groupPairComputer;
+
+	/**
+	 * The computer receives the teams of a single group, not the whole tournament: it has to honor the contract of {@link PairComputer},
+	 * namely it has to pair every team it receives exactly once and to give a bye if and only if it receives an odd number of teams.
+	 * The pairs of every group are checked and a {@link PodiliardinoException} is thrown if the computer breaks such contract
+	 * 
+	 * @param groupPairComputer the computer used to pair the teams inside a single score group
+	 */
+	public ScoreGroupPairComputer(PairComputer<T> groupPairComputer) {
+		this.groupPairComputer = groupPairComputer;
+	}
+
+	/**
+	 * Creates a new computer pairing every score group with {@link MaximumWeightMatchingPairComputer}
+	 */
+	public ScoreGroupPairComputer() {
+		this(new MaximumWeightMatchingPairComputer<>());
+	}
+
+	@Override
+	public List<Pair<T, T>> computePairs(Day day, Collection<T> toPair) throws PodiliardinoException {
+		Tournament tournament = day.tournamentProperty().get();
+		List<List<T>> groups = this.computeScoreGroups(tournament, new ArrayList<>(toPair));
+		LOG.info("Pairing {} score groups", groups.size());
+
+		List<List<Pair<T,T>>> groupPairs;
+		try {
+			groupPairs = ForkJoinPool.commonPool().invoke(new GroupPairingTask(day, groups, 0, groups.size()));
+		} catch (RuntimeException e) {
+			//the tasks can't throw checked exceptions: we unwrap the original one
+			for (Throwable t = e; t != null; t = t.getCause()) {
+				if (t instanceof PodiliardinoException) {
+					throw (PodiliardinoException) t;
+				}
+			}
+			throw e;
+		}
+
+		//reconcile the groups which couldn't be paired properly
+		int minBye = (toPair.size() % 2) == 1 ? this.getMinimumByeNumber(tournament, toPair) : 0;
+		int i = 0;
+		while (i < groups.size()) {
+			if (groups.size() == 1 || this.isAcceptable(tournament, groupPairs.get(i), minBye)) {
+				i++;
+				continue;
+			}
+			int first = (i + 1) < groups.size() ? i : i - 1;
+			LOG.info("Score group {} can't be paired properly on its own. Merging it with the group {}", i, first == i ? i + 1 : first);
+			List<T> merged = new ArrayList<>(groups.get(first));
+			merged.addAll(groups.remove(first + 1));
+			groupPairs.remove(first + 1);
+			groups.set(first, merged);
+			groupPairs.set(first, this.computeGroupPairs(day, merged));
+			i = first;
+		}
+
+		List<Pair<T,T>> retVal = new ArrayList<>(toPair.size() / 2 + 1);
+		for (List<Pair<T,T>> pairs : groupPairs) {
+			retVal.addAll(pairs);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Splits the ranking in score groups.
+	 *
+	 * Every group but the last one has an even number of teams: the lowest ranked team of an odd group floats down in the next group
+	 *
+	 * @param tournament the tournament involved
+	 * @param ranking the teams to pair, from the highest in ranking to the lowest one
+	 * @return the score groups, from the one with most points to the one with less points
+	 */
+	private List<List<T>> computeScoreGroups(Tournament tournament, List<T> ranking) {
+		TournamentMatchTable.Statistics statistics = tournament.getMatchTable().computeStatistics(new ArrayList<Team>(ranking));
+		List<List<T>> retVal = new ArrayList<>();
+		List<T> group = new ArrayList<>();
+		int points = 0;
+		for (int i=0; i<ranking.size(); i++) {
+			T team = ranking.get(i);
+			int teamPoints = statistics.getPointsScored(i);
+			if (!group.isEmpty() && teamPoints != points && (group.size() % 2) == 0) {
+				retVal.add(group);
+				group = new ArrayList<>();
+			} else if (!group.isEmpty() && teamPoints != points) {
+				//the group is odd: its last team floats down in the next group
+				T floater = group.remove(group.size() - 1);
+				if (!group.isEmpty()) {
+					retVal.add(group);
+				}
+				group = new ArrayList<>();
+				group.add(floater);
+			}
+			group.add(team);
+			points = teamPoints;
+		}
+		if (!group.isEmpty()) {
+			retVal.add(group);
+		}
+		return retVal;
+	}
+
+	/**
+	 *
+	 * @param tournament the tournament involved
+	 * @param pairs the pairs of a single group
+	 * @param minBye the minimum number of byes used by the teams to pair
+	 * @return true if the pairs contain no rematch and the bye (if any) is given to a team which has used the minimum number of byes
+	 */
+	private boolean isAcceptable(Tournament tournament, List<Pair<T,T>> pairs, int minBye) {
+		for (Pair<T,T> pair : pairs) {
+			if (pair.getValue() == null) {
+				if (tournament.getByeNumber(pair.getKey()) > minBye) {
+					return false;
+				}
+			} else if (tournament.hasAMatchAgainst(pair.getKey(), pair.getValue(), 0)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Pairs a single group with {@link #groupPairComputer}
+	 * 
+	 * @param day the day we need to compute the pairs
+	 * @param group the teams of the group
+	 * @return the pairs of the group
+	 * @throws PodiliardinoException if the pairs don't contain every team of the group exactly once, or if the bye is given to an even group
+	 * 	(or not given to an odd one)
+	 */
+	private List<Pair<T,T>> computeGroupPairs(Day day, List<T> group) throws PodiliardinoException {
+		List<Pair<T,T>> retVal = this.groupPairComputer.computePairs(day, group);
+		Set<T> paired = Collections.newSetFromMap(new IdentityHashMap<>());
+		int byes = 0;
+		for (Pair<T,T> pair : retVal) {
+			if (!paired.add(pair.getKey()) || (pair.getValue() != null && !paired.add(pair.getValue()))) {
+				throw new PodiliardinoException(String.format("team paired twice in the score group %s", group));
+			}
+			if (pair.getValue() == null) {
+				byes++;
+			}
+		}
+		if (paired.size() != group.size() || !paired.containsAll(group)) {
+			throw new PodiliardinoException(String.format("not every team of the score group %s has been paired", group));
+		}
+		if (byes != (group.size() % 2)) {
+			throw new PodiliardinoException(String.format("%d byes given in the score group %s of %d teams", byes, group, group.size()));
+		}
+		return retVal;
+	}
+
+	private int getMinimumByeNumber(Tournament tournament, Collection<T> teams) {
+		int retVal = Integer.MAX_VALUE;
+		for (T team : teams) {
+			retVal = Math.min(retVal, tournament.getByeNumber(team));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Pairs a range of score groups by splitting it in half until a single group is left
+	 *
+	 * @author massi
+	 *
+	 */
+	private class GroupPairingTask extends RecursiveTask<List<List<Pair<T,T>>>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Day day;
+		private final List<List<T>> groups;
+		private final int from;
+		private final int to;
+
+		/**
+		 * @param day the day we need to compute the pairs
+		 * @param groups all the score groups
+		 * @param from the first group to pair (inclusive)
+		 * @param to the last group to pair (exclusive)
+		 */
+		public GroupPairingTask(Day day, List<List<T>> groups, int from, int to) {
+			this.day = day;
+			this.groups = groups;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<List<Pair<T,T>>> compute() {
+			List<List<Pair<T,T>>> retVal = new ArrayList<>(this.to - this.from);
+			if ((this.to - this.from) <= 1) {
+				for (int i=this.from; i<this.to; i++) {
+					try {
+						retVal.add(computeGroupPairs(this.day, this.groups.get(i)));
+					} catch (PodiliardinoException e) {
+						throw new RuntimeException(e);
+					}
+				}
+				return retVal;
+			}
+			int middle = (this.from + this.to) >>> 1;
+			GroupPairingTask lower = new GroupPairingTask(this.day, this.groups, middle, this.to);
+			lower.fork();
+			retVal.addAll(new GroupPairingTask(this.day, this.groups, this.from, middle).compute());
+			retVal.addAll(lower.join());
+			return retVal;
+		}
+	}
+
+}
@@ -13,6 +13,7 @@ import com.massimobono.podiliardino.extensibles.Formatter;
 import com.massimobono.podiliardino.model.Day;
 import com.massimobono.podiliardino.model.Team;
 import com.massimobono.podiliardino.model.Tournament;
+import com.massimobono.podiliardino.model.TournamentMatchTable;
 import com.massimobono.podiliardino.util.CSVHandler;
 import com.massimobono.podiliardino.util.I18N;
 
@@ -36,6 +37,7 @@ public class CSVRankingFormatter implements Formatter<List<Team>, File> {
 	@Override
 	public File format(List<Team> toFormat) throws FormatException {
 		Team team = null;
+		TournamentMatchTable.Statistics statistics = this.day.getTournament().getMatchTable().computeStatistics(toFormat);
 		
 		String[] header = new String[] {
 				I18N.get("rank"),
@@ -54,11 +56,11 @@ public class CSVRankingFormatter implements Formatter<List<Team>, File> {
 				csvHandler.printRow(
 						String.format("%3d", i+1),
 						team.getName(),
-						String.format("%3d", team.getPointsScoredIn(this.day.getTournament())),
-						String.format("%3d", team.getNumberOfGoalsScored(this.day.getTournament()) - team.getNumberOfGoalsReceived(this.day.getTournament())),
-						String.format("%3d", team.getNumberOfGoalsScored(this.day.getTournament())),
-						String.format("%3d", team.getPointsYourOpponentsScored(this.day.getTournament())),
-						String.format("%3d", team.getNumberOfGoalsYourOpponentsScored(this.day.getTournament()))
+						String.format("%3d", statistics.getPointsScored(i)),
+						String.format("%3d", statistics.getGoalsDifference(i)),
+						String.format("%3d", statistics.getNumberOfGoalsScored(i)),
+						String.format("%3d", statistics.getPointsYourOpponentsScored(i)),
+						String.format("%3d", statistics.getNumberOfGoalsYourOpponentsScored(i))
 						);
 			}
 		} catch (IOException e) {
@@ -1,20 +1,15 @@
 package com.massimobono.podiliardino.extensibles.ranking;
 
-import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
-import java.util.PriorityQueue;
-import java.util.Random;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.massimobono.podiliardino.model.Day;
 import com.massimobono.podiliardino.model.Team;
-import com.massimobono.podiliardino.model.Tournament;
+import com.massimobono.podiliardino.model.TournamentMatchTable;
 import com.massimobono.podiliardino.util.ObservableDistinctList;
 
 import javafx.collections.FXCollections;
@@ -27,113 +22,205 @@ import javafx.collections.ObservableList;
  * The rules used to rank a team better than the other are the following ones (from the higher priority to the lowest one):
  * <ol>
  * 	<li>Team1 is ranked higher than team2 if the points scored by team1 are more;</li>
- * 	<li>If the points scored by team1 and team2 are the same, then the tie breaking is solved by looking at the number of goals: whoever has score more goals is ranked higher;</li>
- * 	<li>If there is still a tie, it is broken by looking at the subtraction between goals scored and goals received. Whoever has such higher difference is ranked higher;</li>
+ * 	<li>If the points scored by team1 and team2 are the same, then the tie is broken by looking at the subtraction between goals scored and goals received. Whoever has such higher difference is ranked higher;</li>
+ * 	<li>If there is still a tie, it is broken by looking at the number of goals: whoever has score more goals is ranked higher;</li>
  * 	<li>If there is still a tie, it is broken by looking at the number of total goals all your opponents have scored in the tournament. The team whose opponents have score higher is ranked higher.</li>
  * </ol>
  * 
+ * The statistics of the teams are computed by scanning the {@link TournamentMatchTable} of the tournament, which keeps the matches
+ * as arrays of primitives. The ranking is computed in 2 phases: first we compute, for every team, a key vector containing
+ * all the criteria above (see {@link #computeKeys(List, Day)}); then we sort the teams once by looking only at such vectors.
+ * 
+ * If 2 teams are still equal (for example at the very beginning of the tournament) the tie is broken by a random draw. Such draw is made once per team
+ * and is determined by the seed of the day (see {@link Day#getSeed()}): in this way the ranking of a day is always the same, no matter how many times
+ * we compute it, and it changes only when the matches change. This allows us to reuse the last ranking computed until the standings of the tournament change.
+ * 
  * @author massi
  *
  */
 public class SwissRankingManager implements RankingComputer<Team> {
 	
 	private static final Logger LOG = LogManager.getLogger(SwissRankingManager.class);
-
+	
+	/**
+	 * Position of the points scored inside the key vector of a team
+	 */
+	private static final int POINTS = 0;
+	/**
+	 * Position of the difference between goals scored and goals received inside the key vector of a team
+	 */
+	private static final int GOALS_DIFFERENCE = 1;
+	/**
+	 * Position of the goals scored inside the key vector of a team
+	 */
+	private static final int GOALS_SCORED = 2;
+	/**
+	 * Position of the goals scored by all the opponents inside the key vector of a team
+	 */
+	private static final int OPPONENTS_GOALS = 3;
+	/**
+	 * Position of the random draw of the team (see {@link #draw(long, long)}) inside the key vector of a team
+	 */
+	private static final int DRAW = 4;
 	/**
-	 * A prority queue use dto temporary sort the teams.
-	 * Remeber that the priority queue puts in the head the element which is the least value inside the queue itself.
-	 * Since this class uses a ranking where the first element should be highest, the implementation need to reverse
-	 * the queue before sending the result to the caller
+	 * the length of the key vector of a team
 	 */
-	private PriorityQueue<Team> ranking;
-	private Random random;
+	private static final int KEY_LENGTH = 5;
+
 	private ObservableDistinctList<Team> observableRanking;
 	
-	private Day currentDay;
+	/**
+	 * the day whose ranking is inside {@link #lastRanking}
+	 */
+	private Day lastDay;
+	/**
+	 * the {@link TournamentMatchTable#getVersion()} when we computed {@link #lastRanking}
+	 */
+	private long lastVersion;
+	/**
+	 * the last ranking computed
+	 */
+	private List<Team> lastRanking;
 	
 	public SwissRankingManager() {
-		this.random = new Random(System.nanoTime());
 		this.observableRanking = new ObservableDistinctList<>(FXCollections.observableArrayList());
-		this.ranking = new PriorityQueue<>(new Comparator<Team>() {
-
-			@Override
-			public int compare(Team o1, Team o2) {
-				LOG.info("comparing {} and {}", o1, o2);
-				int score1 = o1.getPointsScoredIn(currentDay.tournamentProperty().get());
-				int score2 = o2.getPointsScoredIn(currentDay.tournamentProperty().get());
-				LOG.info("score: {} VS {}", score1, score2);
-				if (score1 != score2) {
-					LOG.info("wins {}", (score1 - score2) > 0 ? o1 : o2);
-					return score1 - score2;
-				}
-				int goals1 = o1.getNumberOfGoalsScored(currentDay.tournamentProperty().get());
-				int goals2 = o2.getNumberOfGoalsScored(currentDay.tournamentProperty().get());
-				int goalsReceived1 = o1.getNumberOfGoalsReceived(currentDay.tournamentProperty().get());
-				int goalsReceived2 = o2.getNumberOfGoalsReceived(currentDay.tournamentProperty().get());
-				int goalsDifference1 = goals1 - goalsReceived1;
-				int goalsDifference2 = goals2 - goalsReceived2;
-				
-				LOG.info("difference of goals received: {} VS {}", goalsDifference1, goalsDifference2);
-				if (goalsDifference1 != goalsDifference2) {
-					LOG.info("wins {}", (goalsDifference1 - goalsDifference2) > 0 ? o1 : o2);
-					return goalsDifference1 - goalsDifference2;
-				}
-				
-				LOG.info("goals: {} VS {}", goals1, goals2);
-				if (goals1 != goals2) {
-					LOG.info("wins {}", (goals1 - goals2) > 0 ? o1 : o2);
-					return goals1 - goals2;
-				}
-				
-				int opponentsGoals1 = o1.getNumberOfGoalsYourOpponentsScored(currentDay.tournamentProperty().get());
-				int opponentsGoals2 = o2.getNumberOfGoalsYourOpponentsScored(currentDay.tournamentProperty().get());
-				LOG.info("number of opponents goals: {} VS {}", opponentsGoals1, opponentsGoals2);
-				if (opponentsGoals1 != opponentsGoals2) {
-					LOG.info("wins {}", (opponentsGoals1 - opponentsGoals2) > 0 ? o1 : o2);
-					return opponentsGoals1 - opponentsGoals2;
-				}
-				
-				//ok, the 2 teams are equal. This happens when we're trying to create a ranking at the beginning.
-				//in order to use this system even at the very beginning of the tournament we choose randomly between the 2
-				int r = 50;
-				while (r == 50) {
-					r = random.nextInt(100);
-				}
-				return 50 - r;
-			}
-		});
+		this.setup();
 	}
 	
 	@Override
 	public void setup() {
-		this.ranking.clear();
-		this.currentDay = null;
+		this.observableRanking.clear();
+		this.lastDay = null;
+		this.lastVersion = 0;
+		this.lastRanking = null;
 	}
 
 	@Override
 	public List<Team> getDayRanking(Day d) {
-		List<Team> retVal = new ArrayList<>();
-		this.currentDay = d;
+		TournamentMatchTable table = d.tournamentProperty().get().getMatchTable();
+		if (this.lastDay == d && this.lastVersion == table.getVersion()) {
+			LOG.debug("standings of day {} haven't changed. Reusing the last ranking", d.getNumber());
+			return new ArrayList<>(this.lastRanking);
+		}
 		
-		//we use a priority queue to automatically sort the teams
-		this.ranking.addAll(d.tournamentProperty().get().getPartecipatingTeams());
-		while (!this.ranking.isEmpty()) {
-			retVal.add(0, this.ranking.poll());
+		List<Team> teams = new ArrayList<>(d.tournamentProperty().get().getPartecipatingTeams());
+		//teams with the same key vector are sorted by id: in this way the ranking doesn't depend on how the teams are stored in the tournament
+		teams.sort(Comparator.comparingLong(Team::getId));
+		int[] keys = this.computeKeys(teams, d);
+		int[] order = new int[teams.size()];
+		for (int i=0; i<order.length; i++) {
+			order[i] = i;
 		}
-		return retVal;
+		this.sort(order, new int[order.length], keys, 0, order.length);
+		
+		List<Team> retVal = new ArrayList<>(teams.size());
+		for (int i : order) {
+			retVal.add(teams.get(i));
+		}
+		LOG.debug("ranking of day {}: {}", d.getNumber(), retVal);
+		this.lastDay = d;
+		this.lastVersion = table.getVersion();
+		this.lastRanking = retVal;
+		return new ArrayList<>(retVal);
 	}
 
 	@Override
 	public ObservableList<Team> getDayObservableRanking(Day d) {
-		this.currentDay = d;
-		
-		//we use a priority queue to automatically sort the teams
-		this.ranking.addAll(d.tournamentProperty().get().getPartecipatingTeams());
-		this.observableRanking.clear();
-		while (!this.ranking.isEmpty()) {
-			this.observableRanking.add(0, this.ranking.poll());
-		}
+		this.observableRanking.setAll(this.getDayRanking(d));
 		return this.observableRanking;
 	}
+	
+	/**
+	 * Computes the key vectors of all the teams at once
+	 * 
+	 * @param teams the teams to rank
+	 * @param day the day whose ranking we're computing
+	 * @return an array containing all the key vectors, one after the other. The key vector of the i-th team in <tt>teams</tt>
+	 * 	starts at <tt>i * {@link #KEY_LENGTH}</tt>
+	 */
+	private int[] computeKeys(List<Team> teams, Day day) {
+		TournamentMatchTable.Statistics statistics = day.tournamentProperty().get().getMatchTable().computeStatistics(teams);
+		int[] retVal = new int[teams.size() * KEY_LENGTH];
+		int offset = 0;
+		for (int i=0; i<teams.size(); i++) {
+			retVal[offset + POINTS] = statistics.getPointsScored(i);
+			retVal[offset + GOALS_DIFFERENCE] = statistics.getGoalsDifference(i);
+			retVal[offset + GOALS_SCORED] = statistics.getNumberOfGoalsScored(i);
+			retVal[offset + OPPONENTS_GOALS] = statistics.getNumberOfGoalsYourOpponentsScored(i);
+			retVal[offset + DRAW] = draw(day.getSeed(), teams.get(i).getId());
+			offset += KEY_LENGTH;
+		}
+		return retVal;
+	}
+	
+	/**
+	 * 
+	 * @param keys the key vectors computed by {@link #computeKeys(List, Day)}
+	 * @param team1 the index of the first team
+	 * @param team2 the index of the second team
+	 * @return a positive number if <tt>team1</tt> is ranked higher than <tt>team2</tt>, a negative one otherwise. The function never returns 0 for 2 different teams
+	 */
+	private int compare(int[] keys, int team1, int team2) {
+		int offset1 = team1 * KEY_LENGTH;
+		int offset2 = team2 * KEY_LENGTH;
+		for (int i=0; i<KEY_LENGTH; i++) {
+			if (keys[offset1 + i] != keys[offset2 + i]) {
+				return Integer.compare(keys[offset1 + i], keys[offset2 + i]);
+			}
+		}
+		//the 2 teams have even the same draw: we privilege the team with the lowest id, which is the one with the lowest index
+		return Integer.compare(team2, team1);
+	}
+	
+	/**
+	 * Computes the random draw of a team in a day.
+	 * 
+	 * The draw looks random, but it depends only on the seed of the day and on the team: hence it doesn't change no matter how many times
+	 * we compute it
+	 * 
+	 * @param seed the seed of the day
+	 * @param teamId the id of the team involved
+	 * @return the draw of the team in the day
+	 */
+	private static int draw(long seed, long teamId) {
+		//finalizer of SplitMix64: it spreads even close inputs all over the output range
+		long z = seed + (teamId * 0x9E3779B97F4A7C15L);
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		return (int) (z >>> 32);
+	}
+	
+	/**
+	 * Sorts (with a stable merge sort) the indexes inside <tt>order</tt> from the highest ranked to the lowest ranked
+	 * 
+	 * @param order the indexes of the teams to sort. Only the range [from, to) is sorted
+	 * @param buffer an array as long as <tt>order</tt> used to merge the sorted halves
+	 * @param keys the key vectors computed by {@link #computeKeys(List, Day)}
+	 * @param from the first index to sort (inclusive)
+	 * @param to the last index to sort (exclusive)
+	 */
+	private void sort(int[] order, int[] buffer, int[] keys, int from, int to) {
+		if ((to - from) < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		this.sort(order, buffer, keys, from, middle);
+		this.sort(order, buffer, keys, middle, to);
+		if (this.compare(keys, order[middle - 1], order[middle]) >= 0) {
+			//the 2 halves are already in order
+			return;
+		}
+		System.arraycopy(order, from, buffer, from, to - from);
+		int i = from;
+		int j = middle;
+		for (int k=from; k<to; k++) {
+			if (j >= to || (i < middle && this.compare(keys, buffer[i], buffer[j]) >= 0)) {
+				order[k] = buffer[i++];
+			} else {
+				order[k] = buffer[j++];
+			}
+		}
+	}
 
 }
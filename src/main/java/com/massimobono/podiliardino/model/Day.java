@@ -3,16 +3,25 @@ package com.massimobono.podiliardino.model;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.massimobono.podiliardino.util.ExecutionPolicy;
 import com.massimobono.podiliardino.util.ObservableDistinctList;
+import com.massimobono.podiliardino.util.ObservableLists;
 import com.massimobono.podiliardino.util.Utils;
 
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -26,6 +35,10 @@ public class Day implements Indexable {
 	private long id;
 	private final IntegerProperty number;
 	private final ObjectProperty<LocalDate> day;
+	/**
+	 * The seed used to randomly (but reproducibly) break the ties between teams in the ranking of this day
+	 */
+	private final LongProperty seed;
 	
 	//RELATIONSHIPS
 	
@@ -34,15 +47,23 @@ public class Day implements Indexable {
 	
 	//derived properties
 	
-	public Day(long id, int number, LocalDate day, Tournament tournament, Collection<Match> matches) {
+	public Day(long id, int number, LocalDate day, long seed, Tournament tournament, Collection<Match> matches) {
 		super();
 		this.id = id;
 		this.number = new SimpleIntegerProperty(number);
 		this.day = new SimpleObjectProperty<>(day);
+		this.seed = new SimpleLongProperty(seed);
 		this.tournament = new SimpleObjectProperty<>(tournament);
 		this.matches = new ObservableDistinctList<>(FXCollections.observableArrayList(matches));
 	}
 	
+	/**
+	 * like {@link #Day(long, int, LocalDate, long, Tournament, Collection)} but the seed of the day is randomly generated
+	 */
+	public Day(long id, int number, LocalDate day, Tournament tournament, Collection<Match> matches) {
+		this(id, number, day, new Random().nextLong(), tournament, matches);
+	}
+	
 	public Day() {
 		this(0,1,LocalDate.now(), null, new ArrayList<>());
 	}
@@ -106,12 +127,44 @@ public class Day implements Indexable {
 	}
 	
 	/**
-	 * Iteratively call {@link #remove(Match)} until no matches are inside it
+	 * Removes every match of the day
+	 * 
+	 * Like {@link #replaceMatches(Collection)} with no matches
 	 */
 	public void removeAllMatches() {
-		while (!this.matches.isEmpty()) {
-			this.remove(this.matches.get(0));
+		this.replaceMatches(Collections.emptyList());
+	}
+	
+	/**
+	 * Replaces the matches of the day with new ones
+	 * 
+	 * The list of the day changes only once, hence its listeners receive a single change containing both the matches removed and the ones added.
+	 * The lists of the teams involved change only once as well
+	 * 
+	 * @param matches the new matches of the day. They need to be played in this day
+	 */
+	public void replaceMatches(Collection<Match> matches) {
+		//a new match may be equal to an old one (same teams): it replaces the old instance anyway
+		Set<Match> oldMatches = Collections.newSetFromMap(new IdentityHashMap<>());
+		oldMatches.addAll(this.matches);
+		Set<Match> newMatches = Collections.newSetFromMap(new IdentityHashMap<>());
+		newMatches.addAll(matches);
+		List<Match> removed = new ArrayList<>();
+		for (Match m : oldMatches) {
+			if (!newMatches.contains(m)) {
+				removed.add(m);
+			}
 		}
+		List<Match> added = new ArrayList<>();
+		for (Match m : newMatches) {
+			if (!oldMatches.contains(m)) {
+				added.add(m);
+			}
+		}
+		
+		ObservableLists.removeAll(removed, m -> m.getContainingLists(true, false));
+		ObservableLists.addAll(added, m -> m.getContainingLists(true, false));
+		this.matches.setAll(matches);
 	}
 	
 	/**
@@ -120,7 +173,7 @@ public class Day implements Indexable {
 	 * @return the number of mathces that we have left in order to conclude the day
 	 */
 	public int getNumberOfMatchesToDo() {
-		return this.matchesProperty().parallelStream().filter(m -> m.getStatus().get() == MatchStatus.TODO).mapToInt(m -> 1).sum();
+		return ExecutionPolicy.stream(this.matchesProperty()).filter(m -> m.getStatus().get() == MatchStatus.TODO).mapToInt(m -> 1).sum();
 	}
 	
 	/**
@@ -139,8 +192,7 @@ public class Day implements Indexable {
 	 * @return the number of matches already terminated
 	 */
 	public int getNumberOfMatchesDone(final boolean includeBye) {
-		return this.matchesProperty()
-		.parallelStream()
+		return ExecutionPolicy.stream(this.matchesProperty())
 		.filter(m -> m.getStatus().get() == MatchStatus.DONE)
 		.filter(m -> {
 			return !m.getLoser().equals(Utils.DUMMYTEAM) || includeBye;
@@ -170,6 +222,13 @@ public class Day implements Indexable {
 		return day;
 	}
 
+	/**
+	 * @return the seed
+	 */
+	public LongProperty seedProperty() {
+		return seed;
+	}
+
 	/**
 	 * @return the tournament
 	 */
@@ -193,6 +252,13 @@ public class Day implements Indexable {
 		return day.get();
 	}
 
+	/**
+	 * @return the seed
+	 */
+	public final long getSeed() {
+		return seed.get();
+	}
+
 	/**
 	 * @return the tournament
 	 */
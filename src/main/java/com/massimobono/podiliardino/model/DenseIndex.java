@@ -0,0 +1,105 @@
+package com.massimobono.podiliardino.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense indexes (0, 1, 2, ...) to some keys, counting the users of each of them
+ *
+ * When the last user of an index releases it, its key is forgotten. The indexes stay dense: the last index is moved in the place
+ * of the forgotten one, hence whoever stores the indexes has to update the ones equal to the moved index.
+ *
+ * Used by {@link TournamentMatchTable} and {@link HeadToHeadIndex} to store teams and days as indexes of arrays of primitives.
+ *
+ * @author massi
+ *
+ * @param <K> the type of the keys
+ */
+class DenseIndex<K> {
+
+	/**
+	 * the initial number of indexes the structure can handle without growing
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final Map<K, Integer> indexes;
+	private final List<K> keys;
+	/**
+	 * for every index, the number of users of it
+	 */
+	private int[] users;
+
+	/**
+	 *
+	 * @param indexes the (empty) map used to look up the index of a key
+	 */
+	public DenseIndex(Map<K, Integer> indexes) {
+		this.indexes = indexes;
+		this.keys = new ArrayList<>();
+		this.users = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 *
+	 * @param key the key involved
+	 * @return the index of <tt>key</tt> or -1 if nobody uses it
+	 */
+	public int get(K key) {
+		Integer retVal = this.indexes.get(key);
+		return retVal == null ? -1 : retVal;
+	}
+
+	/**
+	 * Adds a user of <tt>key</tt>
+	 *
+	 * @param key the key involved
+	 * @return the index of <tt>key</tt>. If it has no index yet, a new one is assigned to it
+	 */
+	public int acquire(K key) {
+		Integer retVal = this.indexes.get(key);
+		if (retVal == null) {
+			retVal = this.keys.size();
+			this.indexes.put(key, retVal);
+			this.keys.add(key);
+			if (retVal == this.users.length) {
+				this.users = Arrays.copyOf(this.users, this.users.length * 2);
+			}
+		}
+		this.users[retVal]++;
+		return retVal;
+	}
+
+	/**
+	 * Removes a user of <tt>index</tt>
+	 *
+	 * @param index the index involved
+	 * @return the index moved in the place of <tt>index</tt> because nobody uses it anymore, or -1 if no index has been moved
+	 */
+	public int release(int index) {
+		this.users[index]--;
+		if (this.users[index] > 0) {
+			return -1;
+		}
+		int last = this.keys.size() - 1;
+		this.indexes.remove(this.keys.get(index));
+		if (index != last) {
+			K moved = this.keys.get(last);
+			this.keys.set(index, moved);
+			this.indexes.put(moved, index);
+			this.users[index] = this.users[last];
+			this.users[last] = 0;
+		}
+		this.keys.remove(last);
+		return index != last ? last : -1;
+	}
+
+	/**
+	 *
+	 * @return the number of indexes assigned
+	 */
+	public int size() {
+		return this.keys.size();
+	}
+}
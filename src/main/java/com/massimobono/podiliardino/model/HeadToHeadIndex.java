@@ -0,0 +1,153 @@
+package com.massimobono.podiliardino.model;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps, for every couple of teams in a single {@link Tournament}, how many times they have been matched against each other.
+ *
+ * Every team seen in a match receives a dense index (0, 1, 2, ...) from a {@link DenseIndex} and the number of meetings is stored inside
+ * a square count matrix. The matrix is updated every time a match is added in or removed from a day of the tournament, so
+ * checking how many times 2 teams have met doesn't need to scan the days anymore. When the last match of a team is removed, the team
+ * is forgotten and the row and the column of the last index are moved in the place of its ones.
+ *
+ * Every match is taken into account, no matter its {@link MatchStatus}: a match to do yet is still a meeting between the 2 teams.
+ *
+ * @author massi
+ *
+ */
+public class HeadToHeadIndex implements TournamentMatchListener {
+
+	/**
+	 * the initial number of teams the matrix can handle without growing
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * the dense index of every team involved in at least one match
+	 */
+	private final DenseIndex<Team> indexes;
+	/**
+	 * the 2 teams of every match, as they were when we added the match. We need them since a match
+	 * is removed by looking at its identity
+	 */
+	private final Map<Match, Team[]> pairs;
+	/**
+	 * a <tt>capacity x capacity</tt> matrix where the cell <tt>i * capacity + j</tt> contains the number of times
+	 * the team with index <tt>i</tt> has met the team with index <tt>j</tt>. The matrix is symmetric
+	 */
+	private int[] counts;
+	private int capacity;
+
+	/**
+	 * Creates a new index and registers it in the given tournament
+	 *
+	 * @param tournament the tournament whose matches we need to index
+	 */
+	public HeadToHeadIndex(Tournament tournament) {
+		this.indexes = new DenseIndex<>(new HashMap<>());
+		this.pairs = new IdentityHashMap<>();
+		this.capacity = INITIAL_CAPACITY;
+		this.counts = new int[this.capacity * this.capacity];
+
+		tournament.addMatchListener(this);
+	}
+
+	@Override
+	public void matchAdded(Match m) {
+		Team[] pair = new Team[] {m.getTeam1().get(), m.getTeam2().get()};
+		if (this.pairs.putIfAbsent(m, pair) != null) {
+			return;
+		}
+		this.update(this.acquire(pair[0]), this.acquire(pair[1]), +1);
+	}
+
+	@Override
+	public void matchRemoved(Match m) {
+		Team[] pair = this.pairs.remove(m);
+		if (pair == null) {
+			return;
+		}
+		this.update(this.indexes.get(pair[0]), this.indexes.get(pair[1]), -1);
+		//the removed match may be the last one of its teams. Releasing the first team may move the index of the second one
+		this.release(this.indexes.get(pair[0]));
+		this.release(this.indexes.get(pair[1]));
+	}
+
+	@Override
+	public void matchChanged(Match m) {
+		//the result of a match doesn't change the teams that met
+	}
+
+	/**
+	 *
+	 * @param team1 the team involved
+	 * @param team2 the team involved
+	 * @return the number of matches between the 2 teams in the whole tournament
+	 */
+	public int getNumberOfMatchesBetween(Team team1, Team team2) {
+		int i = this.indexes.get(team1);
+		int j = this.indexes.get(team2);
+		if (i == -1 || j == -1) {
+			return 0;
+		}
+		return this.counts[i * this.capacity + j];
+	}
+
+	private void update(int i, int j, int sign) {
+		this.counts[i * this.capacity + j] += sign;
+		if (i != j) {
+			this.counts[j * this.capacity + i] += sign;
+		}
+	}
+
+	/**
+	 * Adds a match of the given team
+	 *
+	 * @param t the team involved
+	 * @return the dense index of the team. If the team has no index yet, a new one is assigned to it
+	 */
+	private int acquire(Team t) {
+		int retVal = this.indexes.acquire(t);
+		if (retVal == this.capacity) {
+			this.grow();
+		}
+		return retVal;
+	}
+
+	/**
+	 * Removes a match of the team with the given index. If it was the last one, the counts of the index moved in its place are moved as well
+	 *
+	 * @param team the index of the team
+	 */
+	private void release(int team) {
+		int moved = this.indexes.release(team);
+		if (moved == -1) {
+			return;
+		}
+		//the team has no match anymore, hence its row and its column contain only zeros
+		for (int k=0; k<=moved; k++) {
+			this.counts[team * this.capacity + k] = this.counts[moved * this.capacity + k];
+			this.counts[moved * this.capacity + k] = 0;
+		}
+		for (int k=0; k<=moved; k++) {
+			this.counts[k * this.capacity + team] = this.counts[k * this.capacity + moved];
+			this.counts[k * this.capacity + moved] = 0;
+		}
+	}
+
+	/**
+	 * Doubles the number of teams the matrix can handle, keeping the counts already stored
+	 */
+	private void grow() {
+		int newCapacity = this.capacity * 2;
+		int[] newCounts = new int[newCapacity * newCapacity];
+		for (int i=0; i<this.capacity; i++) {
+			System.arraycopy(this.counts, i * this.capacity, newCounts, i * newCapacity, this.capacity);
+		}
+		this.counts = newCounts;
+		this.capacity = newCapacity;
+	}
+
+}
@@ -1,11 +1,33 @@
 package com.massimobono.podiliardino.model;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.massimobono.podiliardino.util.ObservableLists;
+
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ObservableList;
 
 public class Match {
+	
+	/**
+	 * The properties of a match that can change after the match has been created
+	 * 
+	 * @author massi
+	 *
+	 */
+	public enum Field {
+		TEAM1_GOALS,
+		TEAM2_GOALS,
+		POINTS_EARNED_BY_WINNING,
+		POINTS_EARNED_BY_LOSING,
+		STATUS
+	}
 
 	private final ObjectProperty<Team> team1;
 	private final ObjectProperty<Team> team2;
@@ -16,6 +38,10 @@ public class Match {
 	private final IntegerProperty team2Goals;
 	private final ObjectProperty<MatchStatus> status;
 	
+	/**
+	 * the properties changed since the last time someone has called {@link #clearDirtyFields()}
+	 */
+	private final EnumSet<Field> dirtyFields;
 	
 	public Match(Team team1, Team team2, Day day, int pointsEarnedByWinning, int pointsEarnedByLosing, int team1Goals, int team2Goals, MatchStatus status) {
 		super();
@@ -27,6 +53,55 @@ public class Match {
 		this.pointsEarnedByWinning = new SimpleIntegerProperty(pointsEarnedByWinning);
 		this.pointsEarnedByLosing = new SimpleIntegerProperty(pointsEarnedByLosing);
 		this.status = new SimpleObjectProperty<>(status);
+		
+		this.dirtyFields = EnumSet.noneOf(Field.class);
+		this.team1Goals.addListener((ov, oldValue, newValue) -> this.dirtyFields.add(Field.TEAM1_GOALS));
+		this.team2Goals.addListener((ov, oldValue, newValue) -> this.dirtyFields.add(Field.TEAM2_GOALS));
+		this.pointsEarnedByWinning.addListener((ov, oldValue, newValue) -> this.dirtyFields.add(Field.POINTS_EARNED_BY_WINNING));
+		this.pointsEarnedByLosing.addListener((ov, oldValue, newValue) -> this.dirtyFields.add(Field.POINTS_EARNED_BY_LOSING));
+		this.status.addListener((ov, oldValue, newValue) -> this.dirtyFields.add(Field.STATUS));
+	}
+	
+	/**
+	 * 
+	 * @return the properties changed since the last call of {@link #clearDirtyFields()} (or since the creation of the match)
+	 */
+	public Set<Field> getDirtyFields() {
+		return EnumSet.copyOf(this.dirtyFields);
+	}
+	
+	/**
+	 * 
+	 * @return true if at least one property has changed since the last call of {@link #clearDirtyFields()}
+	 */
+	public boolean isDirty() {
+		return !this.dirtyFields.isEmpty();
+	}
+	
+	/**
+	 * Marks every property as synchronized. Call it after having persisted the match
+	 */
+	public void clearDirtyFields() {
+		this.dirtyFields.clear();
+	}
+	
+	/**
+	 * Use it with {@link ObservableLists} to change every list with a single bulk operation
+	 * 
+	 * @param teams true if the lists of the teams who fought the match need to be included
+	 * @param days true if the list of the day the match has been played in needs to be included
+	 * @return the lists of the model containing this match
+	 */
+	public List<ObservableList<Match>> getContainingLists(boolean teams, boolean days) {
+		List<ObservableList<Match>> retVal = new ArrayList<>(3);
+		if (teams) {
+			retVal.add(this.team1.get().matchesProperty());
+			retVal.add(this.team2.get().matchesProperty());
+		}
+		if (days) {
+			retVal.add(this.day.get().matchesProperty());
+		}
+		return retVal;
 	}
 	
 	/**
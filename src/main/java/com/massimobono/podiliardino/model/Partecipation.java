@@ -1,9 +1,15 @@
 package com.massimobono.podiliardino.model;
 
+import java.util.Arrays;
+import java.util.List;
+
+import com.massimobono.podiliardino.util.ObservableLists;
+
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ObservableList;
 
 public class Partecipation{
 	private final ObjectProperty<Tournament> tournament;
@@ -28,6 +34,15 @@ public class Partecipation{
 		return team;
 	}
 	
+	/**
+	 * Use it with {@link ObservableLists} to change every list with a single bulk operation
+	 * 
+	 * @return the lists of the model containing this partecipation
+	 */
+	public List<ObservableList<Partecipation>> getContainingLists() {
+		return Arrays.asList(this.team.get().partecipationsProperty(), this.tournament.get().partecipationsProperty());
+	}
+	
 	public String toString() {
 		return String.format("<%s team_name=%s tournament_name=%s>", 
 				this.getClass().getSimpleName(), 
@@ -119,7 +119,6 @@ public class Player implements Indexable{
 	
 	/**
 	 * The {@value #STANDARD_DATE_PATTERN} represents the so-called "standardized date".
-	 * This values is stored in the database as well
 	 * 
 	 * @return the birthday date, according to the {@link #STANDARD_DATE_PATTERN} pattern
 	 */
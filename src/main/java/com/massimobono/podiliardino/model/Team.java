@@ -3,11 +3,17 @@ package com.massimobono.podiliardino.model;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
+import com.massimobono.podiliardino.util.ExecutionPolicy;
 import com.massimobono.podiliardino.util.ObservableDistinctList;
+import com.massimobono.podiliardino.util.ObservableLists;
 import com.massimobono.podiliardino.util.Utils;
 
 import javafx.beans.property.LongProperty;
@@ -17,6 +23,7 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 public class Team implements Indexable {
@@ -35,6 +42,12 @@ public class Team implements Indexable {
 	
 	//derived properties
 	
+	/**
+	 * the matches of {@link #matches} grouped by their day. It is kept synchronized by listening to {@link #matches}, so
+	 * it is up to date whatever way the relationship "match" is changed
+	 */
+	private final Map<Day, List<Match>> matchesByDay;
+	
 	public Team(long id, String name, LocalDate date, Collection<Player> players, Collection<Partecipation> partecipations, Collection<Match> matches){
 		super();
 		this.id = new SimpleLongProperty(id);
@@ -43,44 +56,96 @@ public class Team implements Indexable {
 		this.players = new ObservableDistinctList<>(FXCollections.observableArrayList(players));
 		this.partecipations = new ObservableDistinctList<>(FXCollections.observableArrayList(partecipations));
 		this.matches = new ObservableDistinctList<>(FXCollections.observableArrayList(matches));
+		this.matchesByDay = new IdentityHashMap<>();
+		for (Match m : this.matches) {
+			this.indexMatch(m);
+		}
+		this.matches.addListener(this::updateMatchesByDay);
 	}
 	
-	public Team() {
-		this(0, "", LocalDate.now(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+	/**
+	 * Keeps {@link #matchesByDay} synchronized with {@link #matches}
+	 * 
+	 * @param c the change of {@link #matches}
+	 */
+	private void updateMatchesByDay(ListChangeListener.Change<? extends Match> c) {
+		while (c.next()) {
+			if (c.wasPermutated()) {
+				continue;
+			}
+			for (Match m : c.getRemoved()) {
+				this.unindexMatch(m);
+			}
+			for (Match m : c.getAddedSubList()) {
+				this.indexMatch(m);
+			}
+		}
 	}
 	
-	public String toString() {
-		return String.format("<%s name=%s players=%s>", this.getClass().getSimpleName(), this.name.get(), String.join(", ", this.players.stream().map(p -> p.nameProperty().get()).collect(Collectors.toList())));
+	private void indexMatch(Match m) {
+		this.matchesByDay.computeIfAbsent(m.getDay().get(), d -> new ArrayList<>(1)).add(m);
+	}
+	
+	private void unindexMatch(Match m) {
+		List<Match> dayMatches = this.matchesByDay.get(m.getDay().get());
+		if (dayMatches == null) {
+			return;
+		}
+		//a team plays very few matches in a day: a linear scan is enough
+		for (int i=0; i<dayMatches.size(); i++) {
+			if (dayMatches.get(i) == m) {
+				dayMatches.remove(i);
+				break;
+			}
+		}
+		if (dayMatches.isEmpty()) {
+			this.matchesByDay.remove(m.getDay().get());
+		}
 	}
 	
 	/**
 	 * 
-	 * @return true if this team represents some special team for the application
+	 * @param d the day involved
+	 * @return the matches this team has in the given day. The list can't be modified
 	 */
-	public boolean isSpecial() {
-		return this.equals(Utils.DUMMYTEAM);
+	public List<Match> getMatchesIn(Day d) {
+		List<Match> retVal = this.matchesByDay.get(d);
+		return retVal == null ? Collections.emptyList() : Collections.unmodifiableList(retVal);
 	}
 	
 	/**
-	 * Check if the current team has used the bye in the tournament
-	 * @param t the tournament to check
-	 * @param checkDaysWithNoMatches true if you want to take into account days with no matches. False otherwise.
-	 * Usually you want to not take into account those days because they are temporary
-	 * @return the number of bye of this team
+	 * The matches are looked up day by day in the index of the matches of the team, so only the matches of the tournament are visited
+	 * 
+	 * @param t the tournament involved
+	 * @return the matches this team has in the given tournament
 	 */
-	public int getByeNumber(Tournament t, boolean checkDaysWithNoMatches) {
-		int retVal = 0;
+	public List<Match> getMatchesIn(Tournament t) {
+		List<Match> retVal = new ArrayList<>();
 		for (Day d : t.daysProperty()) {
-			if (!checkDaysWithNoMatches && (d.matchesProperty().size() == 0)) {
-				continue;
-			}
-			if (!this.hasTeamFoughtInDay(d, false)) {
-				retVal++;
+			List<Match> dayMatches = this.matchesByDay.get(d);
+			if (dayMatches != null && d.tournamentProperty().get() == t) {
+				retVal.addAll(dayMatches);
 			}
 		}
 		return retVal;
 	}
 	
+	public Team() {
+		this(0, "", LocalDate.now(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+	}
+	
+	public String toString() {
+		return String.format("<%s name=%s players=%s>", this.getClass().getSimpleName(), this.name.get(), String.join(", ", this.players.stream().map(p -> p.nameProperty().get()).collect(Collectors.toList())));
+	}
+	
+	/**
+	 * 
+	 * @return true if this team represents some special team for the application
+	 */
+	public boolean isSpecial() {
+		return this.equals(Utils.DUMMYTEAM);
+	}
+	
 	/**
 	 * Check if the current team has fought at least once in a given tournament day
 	 * @param d the day to check
@@ -88,9 +153,7 @@ public class Team implements Indexable {
 	 * @return true if the team has fought at least once in that day, false otherwise
 	 */
 	public boolean hasTeamFoughtInDay(Day d, boolean includeBye) {
-		return this.matchesProperty()
-		.parallelStream()
-		.filter(m -> m.getDay().get() == d) //consider only a particular day
+		return ExecutionPolicy.stream(this.getMatchesIn(d))
 		.filter(m -> m.getStatus().get() == MatchStatus.DONE)
 		.filter(m -> m.hasTeamFoughtInThisMatch(this))
 		.filter(m -> includeBye || !m.hasTeamFoughtInThisMatch(Utils.DUMMYTEAM))
@@ -120,10 +183,11 @@ public class Team implements Indexable {
 	 * Removes all the relationships bettewn this team and players
 	 */
 	public void removeAllPlayers(){
-		while (!this.players.isEmpty()){
-			Player p = this.players.get(0);
-			this.remove(p);
+		for (Player p : this.players) {
+			p.teamsProperty().remove(this);
 		}
+		//the list of the team changes only once
+		this.players.clear();
 	}
 	
 	/**
@@ -148,12 +212,11 @@ public class Team implements Indexable {
 	
 	/**
 	 * Removes all the relationships of team-match-team-in-day of this particular team
+	 * 
+	 * Every list involved (the one of this team included) changes only once
 	 */
 	public void removeAllMatches() {
-		while (!this.matches.isEmpty()) {
-			Match m = this.matches.get(0);
-			this.remove(m);
-		}
+		ObservableLists.removeAll(new ArrayList<>(this.matches), m -> m.getContainingLists(true, true));
 	}
 	
 	/**
@@ -192,9 +255,7 @@ public class Team implements Indexable {
 	 * @return the sum of the number of points all your opponents in the given tournament scored in their matches 
 	 */
 	public int getPointsYourOpponentsScored(Tournament t) {
-		return this.matchesProperty()
-				.parallelStream()
-				.filter(m -> m.getDay().get().tournamentProperty().get() == t)
+		return ExecutionPolicy.stream(this.getMatchesIn(t))
 				.filter(m -> m.getStatus().get() == MatchStatus.DONE)
 				.mapToInt(m -> m.getOtherTeam(this).getPointsScoredIn(t))
 				.sum();
@@ -206,11 +267,7 @@ public class Team implements Indexable {
 	 * @return the number of points scored by the team in the whole tournament 
 	 */
 	public int getPointsScoredIn(Tournament t) {
-		return this.matchesProperty()
-				.parallelStream()
-				.filter(m -> {
-					return m.getDay().get().tournamentProperty().get() == t;
-				})
+		return ExecutionPolicy.stream(this.getMatchesIn(t))
 				.filter(m -> {
 					return m.getStatus().get() == MatchStatus.DONE;
 				})
@@ -230,9 +287,7 @@ public class Team implements Indexable {
 	 * @return the number of goals this team scored in the whole tournament
 	 */
 	public int getNumberOfGoalsScored(Tournament t) {
-		return this.matchesProperty()
-				.parallelStream()
-				.filter(m -> m.getDay().get().tournamentProperty().get() == t)
+		return ExecutionPolicy.stream(this.getMatchesIn(t))
 				.filter(m -> m.getStatus().get() == MatchStatus.DONE)
 				.mapToInt(m -> m.getNumberOfGoalsOfTeam(this))
 				.sum();
@@ -245,9 +300,7 @@ public class Team implements Indexable {
 	 * @return the number of goals this team received in the whole tournament
 	 */
 	public int getNumberOfGoalsReceived(Tournament t) {
-		return this.matchesProperty()
-				.parallelStream()
-				.filter(m -> m.getDay().get().tournamentProperty().get() == t)
+		return ExecutionPolicy.stream(this.getMatchesIn(t))
 				.filter(m -> m.getStatus().get() == MatchStatus.DONE)
 				.mapToInt(m -> m.getNumberOfGoalssOfOtherTeam(this))
 				.sum();
@@ -259,9 +312,7 @@ public class Team implements Indexable {
 	 * @return the number of goals all your opponents have scored
 	 */
 	public int getNumberOfGoalsYourOpponentsScored(Tournament t) {
-		return this.matchesProperty()
-				.parallelStream()
-				.filter(m -> m.getDay().get().tournamentProperty().get() == t)
+		return ExecutionPolicy.stream(this.getMatchesIn(t))
 				.filter(m -> m.getStatus().get() == MatchStatus.DONE)
 				.mapToInt(m -> m.getOtherTeam(this).getNumberOfGoalsScored(t))
 				.sum();
@@ -301,7 +352,7 @@ public class Team implements Indexable {
 	 * @return a list of tournaments this team is partcepating/have partecipated in the past.
 	 */
 	public Collection<Tournament> getAllPartecipatingTournaments() {
-		return this.partecipationsProperty().parallelStream().map(p -> p.getTournament().get()).collect(Collectors.toList());
+		return ExecutionPolicy.stream(this.partecipationsProperty()).map(p -> p.getTournament().get()).collect(Collectors.toList());
 	}
 	
 	/**
@@ -310,7 +361,7 @@ public class Team implements Indexable {
 	 * @return True if the team is partecipating/partecipated in the given tournament, false otherwise
 	 */
 	public boolean isPartecipatingIn(Tournament t) {
-		return this.partecipationsProperty().parallelStream().filter(p -> p.getTournament().get() == t).count() > 0;
+		return ExecutionPolicy.stream(this.partecipationsProperty()).filter(p -> p.getTournament().get() == t).count() > 0;
 	}
 
 	/**
@@ -4,6 +4,9 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -11,7 +14,10 @@ import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.massimobono.podiliardino.util.ExecutionPolicy;
 import com.massimobono.podiliardino.util.ObservableDistinctList;
+import com.massimobono.podiliardino.util.ObservableLists;
+import com.massimobono.podiliardino.util.Utils;
 
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.IntegerProperty;
@@ -24,7 +30,9 @@ import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 public class Tournament implements Indexable {
@@ -45,6 +53,20 @@ public class Tournament implements Indexable {
 	private final ReadOnlyIntegerWrapper numberOfPartecipants;
 	private final ReadOnlyIntegerWrapper numberOfTeams;
 	
+	//match events
+	private final List<TournamentMatchListener> matchListeners;
+	/**
+	 * For every day of the tournament, the listener we have put on {@link Day#matchesProperty()}
+	 */
+	private final Map<Day, ListChangeListener<Match>> dayListeners;
+	/**
+	 * For every match of the tournament, the listener we have put on the properties representing the result of the match
+	 */
+	private final Map<Match, ChangeListener<Object>> resultListeners;
+	
+	//caches
+	private final HeadToHeadIndex headToHead;
+	private final TournamentMatchTable matchTable;
 	
 	/**
 	 * 
@@ -66,6 +88,26 @@ public class Tournament implements Indexable {
 		this.numberOfPartecipants.bind(Bindings.createIntegerBinding(this::getNumberOfPartecipants, this.partecipations));
 		this.numberOfTeams = new ReadOnlyIntegerWrapper();
 		this.numberOfTeams.bind(Bindings.createIntegerBinding(this::getNumberOfTeams, this.partecipations));
+		
+		this.matchListeners = new ArrayList<>();
+		this.dayListeners = new IdentityHashMap<>();
+		this.resultListeners = new IdentityHashMap<>();
+		this.headToHead = new HeadToHeadIndex(this);
+		this.matchTable = new TournamentMatchTable(this);
+		
+		this.days.addListener((ListChangeListener.Change<? extends Day> c) -> {
+			while (c.next()) {
+				for (Day d : c.getRemoved()) {
+					this.detach(d);
+				}
+				for (Day d : c.getAddedSubList()) {
+					this.attach(d);
+				}
+			}
+		});
+		for (Day d : this.days) {
+			this.attach(d);
+		}
 	}
 	
 	public Tournament() {
@@ -98,18 +140,20 @@ public class Tournament implements Indexable {
 	 * @param maximumPreviousMatchAllowed non negative number of previous fights between 2 team allowed. forexample if 2 teams fought eachother 2 times,
 	 * 	calling this method with either 0 or 1 will return true but calling this method with 2 or an higher alue will return false
 	 * @return True if the 2 teams have a match/ has already fought eachother in this day, false otherwise
+	 * @see HeadToHeadIndex
 	 */
 	public boolean hasAMatchAgainst(Team team1, Team team2, int maximumPreviousMatchAllowed) {
-		int count = 0;
-		for (Day d : this.daysProperty()) {
-			if (d.hasAMatchAgainst(team1, team2)){
-				count++;
-				if (count > maximumPreviousMatchAllowed) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return this.headToHead.getNumberOfMatchesBetween(team1, team2) > maximumPreviousMatchAllowed;
+	}
+	
+	/**
+	 * The number is read from {@link #getHeadToHead()}, hence it is kept updated every time a bye match is added or removed
+	 * 
+	 * @param team the team involved
+	 * @return the number of byes the team has used in this tournament, namely the number of its matches against {@link Utils#DUMMYTEAM}
+	 */
+	public int getByeNumber(Team team) {
+		return this.headToHead.getNumberOfMatchesBetween(team, Utils.DUMMYTEAM);
 	}
 	
 	/**
@@ -134,10 +178,8 @@ public class Tournament implements Indexable {
 	 * Removes all the partecipations betwee tournament and teams
 	 */
 	public void removeAllPartecipations() {
-		while (!this.partecipations.isEmpty()){
-			Partecipation p = this.partecipations.get(0);
-			this.remove(p);
-		}
+		//the list of the tournament changes only once
+		ObservableLists.removeAll(new ArrayList<>(this.partecipations), Partecipation::getContainingLists);
 	}
 	
 	/**
@@ -150,10 +192,123 @@ public class Tournament implements Indexable {
 		d.tournamentProperty().set(this);
 	}
 	
+	/**
+	 * Removes all the relationships "divide" of the tournament. The list of the tournament changes only once
+	 */
 	public void removeAllDays() {
-		while (!this.days.isEmpty()) {
-			Day d = this.days.get(0);
+		this.days.clear();
+	}
+	
+	/**
+	 * Register a new listener that will be notified every time a match of this tournament is added, removed or changes its result.
+	 * 
+	 * The listener is immediately notified (via {@link TournamentMatchListener#matchAdded(Match)}) of all the matches already inside the tournament
+	 * 
+	 * @param l the listener to add
+	 */
+	public void addMatchListener(TournamentMatchListener l) {
+		this.matchListeners.add(l);
+		for (Match m : this.resultListeners.keySet()) {
+			l.matchAdded(m);
+		}
+	}
+	
+	public void removeMatchListener(TournamentMatchListener l) {
+		this.matchListeners.remove(l);
+	}
+	
+	/**
+	 * Starts listening to the matches of a day just added in the tournament
+	 * 
+	 * @param d the day added
+	 */
+	private void attach(Day d) {
+		if (this.dayListeners.containsKey(d)) {
+			return;
+		}
+		ListChangeListener<Match> l = c -> {
+			while (c.next()) {
+				for (Match m : c.getRemoved()) {
+					this.detach(m);
+				}
+				for (Match m : c.getAddedSubList()) {
+					this.attach(m);
+				}
+			}
+		};
+		this.dayListeners.put(d, l);
+		d.matchesProperty().addListener(l);
+		for (Match m : d.matchesProperty()) {
+			this.attach(m);
+		}
+	}
+	
+	/**
+	 * Stops listening to the matches of a day just removed from the tournament
+	 * 
+	 * @param d the day removed
+	 */
+	private void detach(Day d) {
+		ListChangeListener<Match> l = this.dayListeners.remove(d);
+		if (l == null) {
+			return;
+		}
+		d.matchesProperty().removeListener(l);
+		for (Match m : d.matchesProperty()) {
+			this.detach(m);
+		}
+	}
+	
+	private void attach(Match m) {
+		if (this.resultListeners.containsKey(m)) {
+			return;
 		}
+		ChangeListener<Object> l = (ov, oldValue, newValue) -> {
+			for (TournamentMatchListener ml : this.matchListeners) {
+				ml.matchChanged(m);
+			}
+		};
+		this.resultListeners.put(m, l);
+		m.getTeam1Goals().addListener(l);
+		m.getTeam2Goals().addListener(l);
+		m.getPointsEarnedByWinning().addListener(l);
+		m.getPointsEarnedByLosing().addListener(l);
+		m.getStatus().addListener(l);
+		for (TournamentMatchListener ml : this.matchListeners) {
+			ml.matchAdded(m);
+		}
+	}
+	
+	private void detach(Match m) {
+		ChangeListener<Object> l = this.resultListeners.remove(m);
+		if (l == null) {
+			return;
+		}
+		m.getTeam1Goals().removeListener(l);
+		m.getTeam2Goals().removeListener(l);
+		m.getPointsEarnedByWinning().removeListener(l);
+		m.getPointsEarnedByLosing().removeListener(l);
+		m.getStatus().removeListener(l);
+		for (TournamentMatchListener ml : this.matchListeners) {
+			ml.matchRemoved(m);
+		}
+	}
+	
+	/**
+	 * 
+	 * @return how many times every couple of teams of this tournament have met, kept updated as the matches change
+	 */
+	public HeadToHeadIndex getHeadToHead() {
+		return this.headToHead;
+	}
+	
+	/**
+	 * 
+	 * @return the matches of this tournament stored as arrays of primitives, kept updated as the matches change. Use it to compute the
+	 * 	statistics of the teams partecipating in this tournament
+	 */
+	public TournamentMatchTable getMatchTable() {
+		return this.matchTable;
 	}
 	
 	/**
@@ -161,7 +316,7 @@ public class Tournament implements Indexable {
 	 * @return the number of players that will be attending to the tournament
 	 */
 	public int getNumberOfPartecipants() {
-		return this.partecipationsProperty().parallelStream().mapToInt(p -> p.getTeam().get().playersProperty().size()).sum();
+		return ExecutionPolicy.stream(this.partecipationsProperty()).mapToInt(p -> p.getTeam().get().playersProperty().size()).sum();
 	}
 	
 	public ReadOnlyIntegerProperty numberOfPartecipantsProperty() {
@@ -192,7 +347,7 @@ public class Tournament implements Indexable {
 	 * @return a list of teams partecipating in the current tournament
 	 */
 	public Collection<Team> getPartecipatingTeams() {
-		return this.partecipationsProperty().parallelStream().map(p -> p.getTeam().get()).collect(Collectors.toSet());
+		return ExecutionPolicy.stream(this.partecipationsProperty()).map(p -> p.getTeam().get()).collect(Collectors.toSet());
 	}
 	
 	/**
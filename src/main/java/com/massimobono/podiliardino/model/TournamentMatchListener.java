@@ -0,0 +1,38 @@
+package com.massimobono.podiliardino.model;
+
+/**
+ * Represents an object interested in the matches played inside a single {@link Tournament}
+ *
+ * The {@link Tournament} itself takes care of listening to its days, to the matches inside each of them and to the
+ * result of every match: the implementations only need to register themselves via {@link Tournament#addMatchListener(TournamentMatchListener)}.
+ * In this way, whoever needs to aggregate data over the matches of the tournament can keep such data updated incrementally
+ * instead of scanning every match each time.
+ *
+ * @author massi
+ *
+ */
+public interface TournamentMatchListener {
+
+	/**
+	 * Called when a match becomes part of the tournament (either because it has been added in a day of the tournament or
+	 * because the day containing it has been added in the tournament)
+	 *
+	 * @param m the match added
+	 */
+	public void matchAdded(Match m);
+
+	/**
+	 * Called when a match is not part of the tournament anymore
+	 *
+	 * @param m the match removed
+	 */
+	public void matchRemoved(Match m);
+
+	/**
+	 * Called when the result of a match already inside the tournament changes. A result change is a change in the goals,
+	 * in the points earned or in the {@link MatchStatus} of the match
+	 *
+	 * @param m the match whose result has changed
+	 */
+	public void matchChanged(Match m);
+}
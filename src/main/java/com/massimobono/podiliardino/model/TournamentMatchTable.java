@@ -0,0 +1,428 @@
+package com.massimobono.podiliardino.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.collections.ListChangeListener;
+
+/**
+ * Mirrors the matches of a single {@link Tournament} into parallel arrays of primitives, one array per column
+ *
+ * Every match of the tournament is a row of the table: the i-th cell of every column contains the data of the i-th match.
+ * Teams and days are stored as dense indexes (0, 1, 2, ...) assigned by a {@link DenseIndex}, just like {@link HeadToHeadIndex} does. In this way
+ * computing the statistics of the whole tournament is a sequential scan of few <tt>int[]</tt> instead of a walk over
+ * the properties of every {@link Match}.
+ *
+ * The table is updated every time a match is added, removed or changes its result. Removing a match moves the last row
+ * in the place of the removed one, hence the rows are not kept in any particular order. When the last row of a team or of a day
+ * is removed, the team or the day is forgotten, so the table doesn't keep reachable the days the DAO has evicted from memory.
+ *
+ * @author massi
+ *
+ */
+public class TournamentMatchTable implements TournamentMatchListener {
+
+	/**
+	 * the initial number of rows the table can handle without growing
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final byte DONE = (byte) MatchStatus.DONE.ordinal();
+
+	/**
+	 * The statistics of some teams, computed by {@link TournamentMatchTable#computeStatistics(List)}.
+	 *
+	 * Every getter accepts the position of the team inside the list passed to {@link TournamentMatchTable#computeStatistics(List)}
+	 *
+	 * @author massi
+	 *
+	 */
+	public static class Statistics {
+		private final int[] points;
+		private final int[] goalsScored;
+		private final int[] goalsReceived;
+		private final int[] opponentsGoalsScored;
+		private final int[] opponentsPoints;
+
+		private Statistics(int teams) {
+			this.points = new int[teams];
+			this.goalsScored = new int[teams];
+			this.goalsReceived = new int[teams];
+			this.opponentsGoalsScored = new int[teams];
+			this.opponentsPoints = new int[teams];
+		}
+
+		/**
+		 * @see Team#getPointsScoredIn(Tournament)
+		 */
+		public int getPointsScored(int team) {
+			return this.points[team];
+		}
+
+		/**
+		 * @see Team#getNumberOfGoalsScored(Tournament)
+		 */
+		public int getNumberOfGoalsScored(int team) {
+			return this.goalsScored[team];
+		}
+
+		/**
+		 * @see Team#getNumberOfGoalsReceived(Tournament)
+		 */
+		public int getNumberOfGoalsReceived(int team) {
+			return this.goalsReceived[team];
+		}
+
+		/**
+		 * @return the goals scored subtracted by the goals received by the team
+		 */
+		public int getGoalsDifference(int team) {
+			return this.goalsScored[team] - this.goalsReceived[team];
+		}
+
+		/**
+		 * @see Team#getNumberOfGoalsYourOpponentsScored(Tournament)
+		 */
+		public int getNumberOfGoalsYourOpponentsScored(int team) {
+			return this.opponentsGoalsScored[team];
+		}
+
+		/**
+		 * @see Team#getPointsYourOpponentsScored(Tournament)
+		 */
+		public int getPointsYourOpponentsScored(int team) {
+			return this.opponentsPoints[team];
+		}
+	}
+
+	//COLUMNS
+
+	private int[] team1Idx;
+	private int[] team2Idx;
+	private int[] goals1;
+	private int[] goals2;
+	private int[] pointsEarnedByWinning;
+	private int[] dayIdx;
+	private byte[] status;
+	/**
+	 * the number of rows used
+	 */
+	private int size;
+
+	/**
+	 * the match of every row. We need it to update the row of the match moved when another match is removed
+	 */
+	private final List<Match> matches;
+	/**
+	 * the row of every match of the tournament
+	 */
+	private final Map<Match, Integer> rows;
+	/**
+	 * the dense index of every team involved in at least one match
+	 */
+	private final DenseIndex<Team> teamIndexes;
+	/**
+	 * the dense index of every day containing at least one match
+	 */
+	private final DenseIndex<Day> dayIndexes;
+	/**
+	 * A number increased every time the table (or the teams partecipating in the tournament) change.
+	 */
+	private long version;
+	/**
+	 * the statistics of every team in the table, computed when the table had version {@link #statisticsVersion}. Null if not computed yet
+	 */
+	private Statistics statistics;
+	private long statisticsVersion;
+
+	/**
+	 * Creates a new table and registers it in the given tournament
+	 *
+	 * @param tournament the tournament whose matches we need to mirror
+	 */
+	public TournamentMatchTable(Tournament tournament) {
+		this.allocate(INITIAL_CAPACITY);
+		this.size = 0;
+		this.matches = new ArrayList<>();
+		this.rows = new IdentityHashMap<>();
+		this.teamIndexes = new DenseIndex<>(new HashMap<>());
+		this.dayIndexes = new DenseIndex<>(new IdentityHashMap<>());
+		this.version = 0;
+		this.statistics = null;
+		this.statisticsVersion = 0;
+
+		tournament.partecipationsProperty().addListener((ListChangeListener.Change<? extends Partecipation> c) -> this.version++);
+		tournament.addMatchListener(this);
+	}
+
+	@Override
+	public void matchAdded(Match m) {
+		if (this.rows.containsKey(m)) {
+			return;
+		}
+		if (this.size == this.status.length) {
+			this.allocate(this.size * 2);
+		}
+		this.rows.put(m, this.size);
+		this.matches.add(m);
+		this.team1Idx[this.size] = this.teamIndexes.acquire(m.getTeam1().get());
+		this.team2Idx[this.size] = this.teamIndexes.acquire(m.getTeam2().get());
+		this.dayIdx[this.size] = this.dayIndexes.acquire(m.getDay().get());
+		this.write(this.size, m);
+		this.size++;
+		this.version++;
+	}
+
+	@Override
+	public void matchRemoved(Match m) {
+		Integer row = this.rows.remove(m);
+		if (row == null) {
+			return;
+		}
+		//the removed row may be the last one using its teams or its day
+		this.releaseTeam(this.team1Idx[row]);
+		this.releaseTeam(this.team2Idx[row]);
+		this.releaseDay(this.dayIdx[row]);
+		int last = this.size - 1;
+		if (row != last) {
+			//we move the last row in the place of the removed one
+			Match moved = this.matches.get(last);
+			this.team1Idx[row] = this.team1Idx[last];
+			this.team2Idx[row] = this.team2Idx[last];
+			this.goals1[row] = this.goals1[last];
+			this.goals2[row] = this.goals2[last];
+			this.pointsEarnedByWinning[row] = this.pointsEarnedByWinning[last];
+			this.dayIdx[row] = this.dayIdx[last];
+			this.status[row] = this.status[last];
+			this.matches.set(row, moved);
+			this.rows.put(moved, row);
+		}
+		this.matches.remove(last);
+		this.size--;
+		this.version++;
+	}
+
+	@Override
+	public void matchChanged(Match m) {
+		Integer row = this.rows.get(m);
+		if (row == null) {
+			return;
+		}
+		if (this.teamIndexes.get(m.getTeam1().get()) != this.team1Idx[row]
+				|| this.teamIndexes.get(m.getTeam2().get()) != this.team2Idx[row]
+				|| this.dayIndexes.get(m.getDay().get()) != this.dayIdx[row]) {
+			//the match has been moved: the indexes of the row need to be updated
+			this.matchRemoved(m);
+			this.matchAdded(m);
+			return;
+		}
+		this.write(row, m);
+		this.version++;
+	}
+
+	/**
+	 * Computes the statistics of the given teams.
+	 *
+	 * The statistics of every team are computed all together with 2 scans of the table: the first one sums what every team has done in its matches,
+	 * the second one sums what the opponents of every team have done. They are kept until the table changes, so
+	 * calling the function again (for example for every row of a view) doesn't scan the table again.
+	 *
+	 * Just like {@link Team}, only the matches with status {@link MatchStatus#DONE} are taken into account.
+	 *
+	 * @param teams the teams involved
+	 * @return the statistics of the teams, in the same order of <tt>teams</tt>
+	 */
+	public Statistics computeStatistics(List<Team> teams) {
+		if (this.statistics == null || this.statisticsVersion != this.version) {
+			this.statistics = this.computeStatistics();
+			this.statisticsVersion = this.version;
+		}
+		Statistics all = this.statistics;
+		Statistics retVal = new Statistics(teams.size());
+		for (int i=0; i<teams.size(); i++) {
+			int t = this.teamIndexes.get(teams.get(i));
+			if (t == -1) {
+				//the team hasn't played any match yet
+				continue;
+			}
+			retVal.points[i] = all.points[t];
+			retVal.goalsScored[i] = all.goalsScored[t];
+			retVal.goalsReceived[i] = all.goalsReceived[t];
+			retVal.opponentsGoalsScored[i] = all.opponentsGoalsScored[t];
+			retVal.opponentsPoints[i] = all.opponentsPoints[t];
+		}
+		return retVal;
+	}
+
+	/**
+	 * Like {@link #computeStatistics(List)}, but for every team involved in at least one match
+	 *
+	 * @return the statistics of the teams, indexed by {@link #teamIndexes}. They are valid until the table changes
+	 */
+	private Statistics computeStatistics() {
+		Statistics retVal = new Statistics(this.teamIndexes.size());
+		int[] points = retVal.points;
+		int[] goalsScored = retVal.goalsScored;
+		int[] goalsReceived = retVal.goalsReceived;
+		for (int i=0; i<this.size; i++) {
+			if (this.status[i] != DONE) {
+				continue;
+			}
+			int t1 = this.team1Idx[i];
+			int t2 = this.team2Idx[i];
+			goalsScored[t1] += this.goals1[i];
+			goalsReceived[t1] += this.goals2[i];
+			goalsScored[t2] += this.goals2[i];
+			goalsReceived[t2] += this.goals1[i];
+			//see Match#getWinner()
+			points[this.goals1[i] > this.goals2[i] ? t1 : t2] += this.pointsEarnedByWinning[i];
+		}
+		int[] opponentsGoalsScored = retVal.opponentsGoalsScored;
+		int[] opponentsPoints = retVal.opponentsPoints;
+		for (int i=0; i<this.size; i++) {
+			if (this.status[i] != DONE) {
+				continue;
+			}
+			int t1 = this.team1Idx[i];
+			int t2 = this.team2Idx[i];
+			opponentsGoalsScored[t1] += goalsScored[t2];
+			opponentsGoalsScored[t2] += goalsScored[t1];
+			opponentsPoints[t1] += points[t2];
+			opponentsPoints[t2] += points[t1];
+		}
+		return retVal;
+	}
+
+	/**
+	 *
+	 * @param d the day involved
+	 * @param s the status of the matches to count
+	 * @return the number of matches of the given day with the given status
+	 */
+	public int getNumberOfMatches(Day d, MatchStatus s) {
+		int day = this.dayIndexes.get(d);
+		if (day == -1) {
+			return 0;
+		}
+		byte status = (byte) s.ordinal();
+		int retVal = 0;
+		for (int i=0; i<this.size; i++) {
+			if (this.dayIdx[i] == day && this.status[i] == status) {
+				retVal++;
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 *
+	 * @return the number of matches of the tournament
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 *
+	 * @return the number of teams with at least one match in the table
+	 */
+	int getNumberOfTeams() {
+		return this.teamIndexes.size();
+	}
+
+	/**
+	 *
+	 * @return the number of days with at least one match in the table
+	 */
+	int getNumberOfDays() {
+		return this.dayIndexes.size();
+	}
+
+	/**
+	 *
+	 * @return a number that changes every time the table changes. If 2 calls return the same value, the table hasn't changed in between
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Copies the result of a match inside a row. The indexes of the teams and of the day are not changed
+	 *
+	 * @param row the row to write
+	 * @param m the match involved
+	 */
+	private void write(int row, Match m) {
+		this.goals1[row] = m.getTeam1Goals().get();
+		this.goals2[row] = m.getTeam2Goals().get();
+		this.pointsEarnedByWinning[row] = m.getPointsEarnedByWinning().get();
+		this.status[row] = (byte) m.getStatus().get().ordinal();
+	}
+
+	/**
+	 * Removes a row using the given team. If it was the last one, the rows using the index moved in its place are updated
+	 *
+	 * @param team the index of the team
+	 */
+	private void releaseTeam(int team) {
+		int moved = this.teamIndexes.release(team);
+		if (moved == -1) {
+			return;
+		}
+		for (int i=0; i<this.size; i++) {
+			if (this.team1Idx[i] == moved) {
+				this.team1Idx[i] = team;
+			}
+			if (this.team2Idx[i] == moved) {
+				this.team2Idx[i] = team;
+			}
+		}
+	}
+
+	/**
+	 * Removes a row using the given day. If it was the last one, the rows using the index moved in its place are updated
+	 *
+	 * @param day the index of the day
+	 */
+	private void releaseDay(int day) {
+		int moved = this.dayIndexes.release(day);
+		if (moved == -1) {
+			return;
+		}
+		for (int i=0; i<this.size; i++) {
+			if (this.dayIdx[i] == moved) {
+				this.dayIdx[i] = day;
+			}
+		}
+	}
+
+	/**
+	 * Resizes every column, keeping the rows already stored
+	 *
+	 * @param capacity the new number of rows the table can handle
+	 */
+	private void allocate(int capacity) {
+		if (this.status == null) {
+			this.team1Idx = new int[capacity];
+			this.team2Idx = new int[capacity];
+			this.goals1 = new int[capacity];
+			this.goals2 = new int[capacity];
+			this.pointsEarnedByWinning = new int[capacity];
+			this.dayIdx = new int[capacity];
+			this.status = new byte[capacity];
+			return;
+		}
+		this.team1Idx = Arrays.copyOf(this.team1Idx, capacity);
+		this.team2Idx = Arrays.copyOf(this.team2Idx, capacity);
+		this.goals1 = Arrays.copyOf(this.goals1, capacity);
+		this.goals2 = Arrays.copyOf(this.goals2, capacity);
+		this.pointsEarnedByWinning = Arrays.copyOf(this.pointsEarnedByWinning, capacity);
+		this.dayIdx = Arrays.copyOf(this.dayIdx, capacity);
+		this.status = Arrays.copyOf(this.status, capacity);
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.massimobono.podiliardino.util;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Decides whether a collection should be processed by a sequential or by a parallel {@link Stream}
+ *
+ * The collections of the model usually hold few elements (the teams of a tournament, the matches of a day, ...): splitting them among
+ * the threads of the common {@link ForkJoinPool} costs far more than processing them. This is even worse when a stream is created
+ * inside a comparator or a cell factory, since the UI creates thousands of them per refresh. Hence a stream is parallel only if the collection
+ * has at least {@link #getParallelThreshold()} elements and there is more than one thread to split the work among.
+ *
+ * Use {@link #stream(Collection)} instead of {@link Collection#parallelStream()}. The number of streams created in each mode is counted,
+ * so the threshold can be tuned by looking at {@link #getSequentialStreams()} and {@link #getParallelStreams()}.
+ *
+ * @author massi
+ *
+ */
+public class ExecutionPolicy {
+
+	/**
+	 * the default minimum number of elements a collection needs to be processed in parallel
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+	private static volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+	private static final LongAdder sequentialStreams = new LongAdder();
+	private static final LongAdder parallelStreams = new LongAdder();
+
+	private ExecutionPolicy() {
+	}
+
+	/**
+	 *
+	 * @param collection the collection to process
+	 * @return a stream over <tt>collection</tt>, parallel only if the collection is big enough to benefit from it
+	 */
+	public static <E> Stream<E> stream(Collection<E> collection) {
+		if (collection.size() >= parallelThreshold && ForkJoinPool.getCommonPoolParallelism() > 1) {
+			parallelStreams.increment();
+			return collection.parallelStream();
+		}
+		sequentialStreams.increment();
+		return collection.stream();
+	}
+
+	/**
+	 *
+	 * @return the minimum number of elements a collection needs to be processed in parallel
+	 */
+	public static int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 *
+	 * @param threshold the minimum number of elements a collection needs to be processed in parallel. Use {@link Integer#MAX_VALUE} to
+	 * 	process every collection sequentially
+	 */
+	public static void setParallelThreshold(int threshold) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException(String.format("threshold %d can't be negative", threshold));
+		}
+		parallelThreshold = threshold;
+	}
+
+	/**
+	 *
+	 * @return the number of sequential streams created by {@link #stream(Collection)} since the last {@link #resetCounters()}
+	 */
+	public static long getSequentialStreams() {
+		return sequentialStreams.sum();
+	}
+
+	/**
+	 *
+	 * @return the number of parallel streams created by {@link #stream(Collection)} since the last {@link #resetCounters()}
+	 */
+	public static long getParallelStreams() {
+		return parallelStreams.sum();
+	}
+
+	public static void resetCounters() {
+		sequentialStreams.reset();
+		parallelStreams.reset();
+	}
+
+}
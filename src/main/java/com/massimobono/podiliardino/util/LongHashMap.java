@@ -0,0 +1,198 @@
+package com.massimobono.podiliardino.util;
+
+import java.util.Arrays;
+
+/**
+ * Represents a map whose keys are primitive <tt>long</tt>
+ *
+ * The map is an open addressing hash table with linear probing: keys and values are stored inside 2 parallel arrays,
+ * so looking up an id neither boxes the key nor follows any chain of entries. It is meant to be used as an identity map,
+ * namely to retrieve the only instance of an entity in memory given its id.
+ *
+ * The map doesn't allow <tt>null</tt> values.
+ *
+ * @author massi
+ *
+ * @param <V> the value of the map
+ */
+public class LongHashMap<V> {
+
+	/**
+	 * the initial number of slots of the table. Must be a power of 2
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+	/**
+	 * the table grows when more than <tt>MAX_LOAD_NUMERATOR/MAX_LOAD_DENOMINATOR</tt> of its slots are used
+	 */
+	private static final int MAX_LOAD_NUMERATOR = 2;
+	private static final int MAX_LOAD_DENOMINATOR = 3;
+
+	private long[] keys;
+	/**
+	 * the value of every slot. A slot is free if its value is <tt>null</tt>
+	 */
+	private Object[] values;
+	private int size;
+	/**
+	 * <tt>keys.length - 1</tt>. Since the length is a power of 2, <tt>hash & mask</tt> is the slot of the hash
+	 */
+	private int mask;
+
+	public LongHashMap() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 *
+	 * @param expectedSize the number of entries the map will contain. The map won't grow until such number is reached
+	 */
+	public LongHashMap(int expectedSize) {
+		int capacity = INITIAL_CAPACITY;
+		while ((long)capacity * MAX_LOAD_NUMERATOR < (long)expectedSize * MAX_LOAD_DENOMINATOR) {
+			capacity *= 2;
+		}
+		this.allocate(capacity);
+	}
+
+	/**
+	 *
+	 * @param key the key to look for
+	 * @return the value associated to the key or <tt>null</tt> if the key is not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int slot = this.slotOf(key);
+		return slot < 0 ? null : (V) this.values[slot];
+	}
+
+	public boolean containsKey(long key) {
+		return this.slotOf(key) >= 0;
+	}
+
+	/**
+	 * Associates a value to a key
+	 *
+	 * @param key the key involved
+	 * @param value the value to store. Can't be <tt>null</tt>
+	 * @return the value previously associated to the key or <tt>null</tt> if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("the map doesn't allow null values");
+		}
+		int slot = this.hash(key);
+		while (this.values[slot] != null) {
+			if (this.keys[slot] == key) {
+				V retVal = (V) this.values[slot];
+				this.values[slot] = value;
+				return retVal;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		this.keys[slot] = key;
+		this.values[slot] = value;
+		this.size++;
+		if ((long)this.size * MAX_LOAD_DENOMINATOR > (long)this.keys.length * MAX_LOAD_NUMERATOR) {
+			this.rehash(this.keys.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes a key from the map
+	 *
+	 * The entries following the removed one are shifted back, so no tombstone is left in the table
+	 *
+	 * @param key the key to remove
+	 * @return the value associated to the key or <tt>null</tt> if the key was not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int slot = this.slotOf(key);
+		if (slot < 0) {
+			return null;
+		}
+		V retVal = (V) this.values[slot];
+		int free = slot;
+		int next = (slot + 1) & this.mask;
+		while (this.values[next] != null) {
+			int home = this.hash(this.keys[next]);
+			//we can move the entry in the free slot only if the free slot lays between the home of the entry and the entry itself
+			if (((next - home) & this.mask) >= ((next - free) & this.mask)) {
+				this.keys[free] = this.keys[next];
+				this.values[free] = this.values[next];
+				free = next;
+			}
+			next = (next + 1) & this.mask;
+		}
+		this.values[free] = null;
+		this.size--;
+		return retVal;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(this.values, null);
+		this.size = 0;
+	}
+
+	/**
+	 *
+	 * @param key the key to look for
+	 * @return the slot containing the key or -1 if the key is not in the map
+	 */
+	private int slotOf(long key) {
+		int slot = this.hash(key);
+		while (this.values[slot] != null) {
+			if (this.keys[slot] == key) {
+				return slot;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * ids are usually consecutive numbers: we spread them all over the table
+	 *
+	 * @param key the key involved
+	 * @return the home slot of the key
+	 */
+	private int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32)) & this.mask;
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+		this.size = 0;
+	}
+
+	private void rehash(int newCapacity) {
+		long[] oldKeys = this.keys;
+		Object[] oldValues = this.values;
+		this.allocate(newCapacity);
+		for (int i=0; i<oldKeys.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = this.hash(oldKeys[i]);
+				while (this.values[slot] != null) {
+					slot = (slot + 1) & this.mask;
+				}
+				this.keys[slot] = oldKeys[i];
+				this.values[slot] = oldValues[i];
+				this.size++;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,792 @@
+package com.massimobono.podiliardino.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Computes a maximum weight matching of an undirected graph by using the Edmonds' blossom algorithm.
+ *
+ * The implementation follows the primal-dual method described by Galil in "Efficient algorithms for finding maximum matching in graphs"
+ * and it runs in <tt>O(n^3)</tt> time, where <tt>n</tt> is the number of vertices. Since the weights are integers, every dual variable
+ * is kept as an integer too: to do so, every weight is internally doubled.
+ *
+ * Use it as follows:
+ * <pre>
+ * MaximumWeightMatching m = new MaximumWeightMatching(4);
+ * m.addEdge(0, 1, 5);
+ * m.addEdge(2, 3, 4);
+ * int[] mate = m.compute(true);
+ * </pre>
+ *
+ * @author massi
+ *
+ */
+public class MaximumWeightMatching {
+
+	/**
+	 * the number of vertices of the graph
+	 */
+	private final int nvertex;
+	/**
+	 * the number of edges added so far
+	 */
+	private int nedge;
+	/**
+	 * for every edge, the first vertex. The edges are stored in 3 parallel arrays to avoid an object per edge
+	 */
+	private int[] edgeFrom;
+	/**
+	 * for every edge, the second vertex
+	 */
+	private int[] edgeTo;
+	/**
+	 * for every edge, its (doubled) weight
+	 */
+	private long[] edgeWeight;
+
+	//state of the algorithm. The names follow the ones of the original algorithm description.
+	//Every edge k has 2 endpoints: 2k is the endpoint of edgeFrom[k] and 2k+1 is the endpoint of edgeTo[k].
+	//Vertices are numbered from 0 to nvertex-1 while blossoms are numbered from nvertex to 2*nvertex-1
+
+	private int[] endpoint;
+	private int[][] neighbend;
+	private int[] mate;
+	/**
+	 * 0 if the (top level) blossom or vertex is free, 1 if it is labelled S, 2 if it is labelled T.
+	 * 5 is used temporarily while scanning for a blossom
+	 */
+	private int[] label;
+	private int[] labelend;
+	private int[] inblossom;
+	private int[] blossomparent;
+	private int[][] blossomchilds;
+	private int[] blossombase;
+	private int[][] blossomendps;
+	private int[] bestedge;
+	private int[][] blossombestedges;
+	private int[] unusedblossoms;
+	private int unusedblossomsSize;
+	private long[] dualvar;
+	private boolean[] allowedge;
+	private int[] queue;
+	private int queueSize;
+	/**
+	 * buffer used by {@link #scanBlossom(int, int)}
+	 */
+	private int[] path;
+
+	/**
+	 * Creates a new graph with no edges
+	 *
+	 * @param vertices the number of vertices of the graph. Vertices are identified by a number from 0 to <tt>vertices - 1</tt>
+	 */
+	public MaximumWeightMatching(int vertices) {
+		this.nvertex = vertices;
+		this.nedge = 0;
+		this.edgeFrom = new int[Math.max(vertices, 1)];
+		this.edgeTo = new int[this.edgeFrom.length];
+		this.edgeWeight = new long[this.edgeFrom.length];
+	}
+
+	/**
+	 * Adds a new edge in the graph. There should be at most one edge between 2 vertices
+	 *
+	 * @param i the first vertex of the edge
+	 * @param j the second vertex of the edge. It can't be <tt>i</tt>
+	 * @param weight the weight of the edge
+	 * @throws IllegalArgumentException if the edge is a loop or involves a vertex not in the graph
+	 */
+	public void addEdge(int i, int j, long weight) {
+		if (i == j || i < 0 || j < 0 || i >= this.nvertex || j >= this.nvertex) {
+			throw new IllegalArgumentException(String.format("invalid edge %d-%d in a graph of %d vertices", i, j, this.nvertex));
+		}
+		if (this.nedge == this.edgeFrom.length) {
+			this.edgeFrom = Arrays.copyOf(this.edgeFrom, this.nedge * 2);
+			this.edgeTo = Arrays.copyOf(this.edgeTo, this.nedge * 2);
+			this.edgeWeight = Arrays.copyOf(this.edgeWeight, this.nedge * 2);
+		}
+		this.edgeFrom[this.nedge] = i;
+		this.edgeTo[this.nedge] = j;
+		this.edgeWeight[this.nedge] = weight * 2;
+		this.nedge++;
+	}
+
+	/**
+	 *
+	 * @return the number of edges inside the graph
+	 */
+	public int getNumberOfEdges() {
+		return this.nedge;
+	}
+
+	/**
+	 * Computes the matching
+	 *
+	 * @param maxCardinality if true, only matchings with the maximum number of edges are considered; the one with the maximum weight among them is returned
+	 * @return an array where the i-th cell contains the vertex matched with the vertex i, or -1 if the vertex i is not matched
+	 */
+	public int[] compute(boolean maxCardinality) {
+		if (this.nedge == 0) {
+			int[] retVal = new int[this.nvertex];
+			Arrays.fill(retVal, -1);
+			return retVal;
+		}
+		this.initialize();
+
+		for (int stage=0; stage<this.nvertex; stage++) {
+			Arrays.fill(this.label, 0);
+			Arrays.fill(this.bestedge, -1);
+			Arrays.fill(this.blossombestedges, this.nvertex, 2 * this.nvertex, null);
+			Arrays.fill(this.allowedge, false);
+			this.queueSize = 0;
+
+			for (int v=0; v<this.nvertex; v++) {
+				if (this.mate[v] == -1 && this.label[this.inblossom[v]] == 0) {
+					this.assignLabel(v, 1, -1);
+				}
+			}
+
+			boolean augmented = false;
+			while (true) {
+				while (this.queueSize > 0 && !augmented) {
+					int v = this.queue[--this.queueSize];
+					for (int p : this.neighbend[v]) {
+						int k = p / 2;
+						int w = this.endpoint[p];
+						if (this.inblossom[v] == this.inblossom[w]) {
+							continue;
+						}
+						long kslack = 0;
+						if (!this.allowedge[k]) {
+							kslack = this.slack(k);
+							if (kslack <= 0) {
+								this.allowedge[k] = true;
+							}
+						}
+						if (this.allowedge[k]) {
+							if (this.label[this.inblossom[w]] == 0) {
+								this.assignLabel(w, 2, p ^ 1);
+							} else if (this.label[this.inblossom[w]] == 1) {
+								int base = this.scanBlossom(v, w);
+								if (base >= 0) {
+									this.addBlossom(base, k);
+								} else {
+									this.augmentMatching(k);
+									augmented = true;
+									break;
+								}
+							} else if (this.label[w] == 0) {
+								this.label[w] = 2;
+								this.labelend[w] = p ^ 1;
+							}
+						} else if (this.label[this.inblossom[w]] == 1) {
+							int b = this.inblossom[v];
+							if (this.bestedge[b] == -1 || kslack < this.slack(this.bestedge[b])) {
+								this.bestedge[b] = k;
+							}
+						} else if (this.label[w] == 0) {
+							if (this.bestedge[w] == -1 || kslack < this.slack(this.bestedge[w])) {
+								this.bestedge[w] = k;
+							}
+						}
+					}
+				}
+				if (augmented) {
+					break;
+				}
+
+				//there is no augmenting path under the current duals: we need to update them
+				int deltatype = -1;
+				long delta = 0;
+				int deltaedge = -1;
+				int deltablossom = -1;
+
+				if (!maxCardinality) {
+					deltatype = 1;
+					delta = this.minVertexDual();
+				}
+				for (int v=0; v<this.nvertex; v++) {
+					if (this.label[this.inblossom[v]] == 0 && this.bestedge[v] != -1) {
+						long d = this.slack(this.bestedge[v]);
+						if (deltatype == -1 || d < delta) {
+							delta = d;
+							deltatype = 2;
+							deltaedge = this.bestedge[v];
+						}
+					}
+				}
+				for (int b=0; b<2*this.nvertex; b++) {
+					if (this.blossomparent[b] == -1 && this.label[b] == 1 && this.bestedge[b] != -1) {
+						long d = this.slack(this.bestedge[b]) / 2;
+						if (deltatype == -1 || d < delta) {
+							delta = d;
+							deltatype = 3;
+							deltaedge = this.bestedge[b];
+						}
+					}
+				}
+				for (int b=this.nvertex; b<2*this.nvertex; b++) {
+					if (this.blossombase[b] >= 0 && this.blossomparent[b] == -1 && this.label[b] == 2 && (deltatype == -1 || this.dualvar[b] < delta)) {
+						delta = this.dualvar[b];
+						deltatype = 4;
+						deltablossom = b;
+					}
+				}
+				if (deltatype == -1) {
+					//no further improvement is possible with max cardinality: we do a final delta update to make the optimum verifiable
+					deltatype = 1;
+					delta = Math.max(0, this.minVertexDual());
+				}
+
+				for (int v=0; v<this.nvertex; v++) {
+					if (this.label[this.inblossom[v]] == 1) {
+						this.dualvar[v] -= delta;
+					} else if (this.label[this.inblossom[v]] == 2) {
+						this.dualvar[v] += delta;
+					}
+				}
+				for (int b=this.nvertex; b<2*this.nvertex; b++) {
+					if (this.blossombase[b] >= 0 && this.blossomparent[b] == -1) {
+						if (this.label[b] == 1) {
+							this.dualvar[b] += delta;
+						} else if (this.label[b] == 2) {
+							this.dualvar[b] -= delta;
+						}
+					}
+				}
+
+				if (deltatype == 1) {
+					//no further improvement possible
+					break;
+				} else if (deltatype == 2) {
+					this.allowedge[deltaedge] = true;
+					int i = this.edgeFrom[deltaedge];
+					if (this.label[this.inblossom[i]] == 0) {
+						i = this.edgeTo[deltaedge];
+					}
+					this.enqueue(i);
+				} else if (deltatype == 3) {
+					this.allowedge[deltaedge] = true;
+					this.enqueue(this.edgeFrom[deltaedge]);
+				} else {
+					this.expandBlossom(deltablossom, false);
+				}
+			}
+
+			if (!augmented) {
+				break;
+			}
+
+			//end of the stage: expand all S-blossoms with zero dual
+			for (int b=this.nvertex; b<2*this.nvertex; b++) {
+				if (this.blossomparent[b] == -1 && this.blossombase[b] >= 0 && this.label[b] == 1 && this.dualvar[b] == 0) {
+					this.expandBlossom(b, true);
+				}
+			}
+		}
+
+		int[] retVal = new int[this.nvertex];
+		for (int v=0; v<this.nvertex; v++) {
+			retVal[v] = this.mate[v] >= 0 ? this.endpoint[this.mate[v]] : -1;
+		}
+		return retVal;
+	}
+
+	private void initialize() {
+		int n = this.nvertex;
+		long maxweight = 0;
+		for (int k=0; k<this.nedge; k++) {
+			maxweight = Math.max(maxweight, this.edgeWeight[k]);
+		}
+
+		this.endpoint = new int[2 * this.nedge];
+		int[] degree = new int[n];
+		for (int k=0; k<this.nedge; k++) {
+			this.endpoint[2 * k] = this.edgeFrom[k];
+			this.endpoint[2 * k + 1] = this.edgeTo[k];
+			degree[this.edgeFrom[k]]++;
+			degree[this.edgeTo[k]]++;
+		}
+		this.neighbend = new int[n][];
+		for (int v=0; v<n; v++) {
+			this.neighbend[v] = new int[degree[v]];
+			degree[v] = 0;
+		}
+		for (int k=0; k<this.nedge; k++) {
+			int i = this.edgeFrom[k];
+			int j = this.edgeTo[k];
+			this.neighbend[i][degree[i]++] = 2 * k + 1;
+			this.neighbend[j][degree[j]++] = 2 * k;
+		}
+
+		this.mate = new int[n];
+		Arrays.fill(this.mate, -1);
+		this.label = new int[2 * n];
+		this.labelend = new int[2 * n];
+		Arrays.fill(this.labelend, -1);
+		this.inblossom = new int[n];
+		for (int v=0; v<n; v++) {
+			this.inblossom[v] = v;
+		}
+		this.blossomparent = new int[2 * n];
+		Arrays.fill(this.blossomparent, -1);
+		this.blossomchilds = new int[2 * n][];
+		this.blossombase = new int[2 * n];
+		for (int v=0; v<2*n; v++) {
+			this.blossombase[v] = v < n ? v : -1;
+		}
+		this.blossomendps = new int[2 * n][];
+		this.bestedge = new int[2 * n];
+		Arrays.fill(this.bestedge, -1);
+		this.blossombestedges = new int[2 * n][];
+		this.unusedblossoms = new int[n];
+		for (int b=0; b<n; b++) {
+			this.unusedblossoms[b] = n + b;
+		}
+		this.unusedblossomsSize = n;
+		this.dualvar = new long[2 * n];
+		Arrays.fill(this.dualvar, 0, n, maxweight);
+		this.allowedge = new boolean[this.nedge];
+		this.queue = new int[Math.max(n, 1)];
+		this.queueSize = 0;
+		this.path = new int[2 * n];
+	}
+
+	private long minVertexDual() {
+		long retVal = this.dualvar[0];
+		for (int v=1; v<this.nvertex; v++) {
+			retVal = Math.min(retVal, this.dualvar[v]);
+		}
+		return retVal;
+	}
+
+	/**
+	 *
+	 * @param k the edge involved
+	 * @return the slack of the edge. Never call it on an edge inside a blossom
+	 */
+	private long slack(int k) {
+		return this.dualvar[this.edgeFrom[k]] + this.dualvar[this.edgeTo[k]] - 2 * this.edgeWeight[k];
+	}
+
+	/**
+	 * Calls <tt>action</tt> on every vertex inside the given blossom
+	 *
+	 * @param b a blossom or a single vertex
+	 * @param action the action to perform on each vertex
+	 */
+	private void forEachLeaf(int b, IntConsumer action) {
+		if (b < this.nvertex) {
+			action.accept(b);
+			return;
+		}
+		for (int t : this.blossomchilds[b]) {
+			this.forEachLeaf(t, action);
+		}
+	}
+
+	private void enqueue(int v) {
+		if (this.queueSize == this.queue.length) {
+			this.queue = Arrays.copyOf(this.queue, this.queueSize * 2);
+		}
+		this.queue[this.queueSize++] = v;
+	}
+
+	/**
+	 * Assigns the label <tt>t</tt> to the top level blossom containing the vertex <tt>w</tt>
+	 *
+	 * @param w the vertex involved
+	 * @param t the label to assign
+	 * @param p the endpoint through which the label has been reached (-1 if none)
+	 */
+	private void assignLabel(int w, int t, int p) {
+		int b = this.inblossom[w];
+		this.label[w] = this.label[b] = t;
+		this.labelend[w] = this.labelend[b] = p;
+		this.bestedge[w] = this.bestedge[b] = -1;
+		if (t == 1) {
+			//b becomes an S-blossom: all its vertices need to be scanned
+			this.forEachLeaf(b, this::enqueue);
+		} else if (t == 2) {
+			//b becomes a T-blossom: the vertex matched with its base becomes an S-vertex
+			int base = this.blossombase[b];
+			this.assignLabel(this.endpoint[this.mate[base]], 1, this.mate[base] ^ 1);
+		}
+	}
+
+	/**
+	 * Traces back from the vertices <tt>v</tt> and <tt>w</tt> to discover either a new blossom or an augmenting path
+	 *
+	 * @return the base vertex of the new blossom or -1 if we have found an augmenting path
+	 */
+	private int scanBlossom(int v, int w) {
+		int[] path = this.path;
+		int pathSize = 0;
+		int base = -1;
+		while (v != -1 || w != -1) {
+			int b = this.inblossom[v];
+			if ((this.label[b] & 4) != 0) {
+				base = this.blossombase[b];
+				break;
+			}
+			path[pathSize++] = b;
+			this.label[b] = 5;
+			if (this.labelend[b] == -1) {
+				//we have reached the root of an alternating tree
+				v = -1;
+			} else {
+				v = this.endpoint[this.labelend[b]];
+				b = this.inblossom[v];
+				v = this.endpoint[this.labelend[b]];
+			}
+			if (w != -1) {
+				int tmp = v;
+				v = w;
+				w = tmp;
+			}
+		}
+		for (int i=0; i<pathSize; i++) {
+			this.label[path[i]] = 1;
+		}
+		return base;
+	}
+
+	/**
+	 * Constructs a new blossom with the given base, containing the edge <tt>k</tt> which connects a pair of S-vertices
+	 */
+	private void addBlossom(int base, int k) {
+		int v = this.edgeFrom[k];
+		int w = this.edgeTo[k];
+		int bb = this.inblossom[base];
+		int bv = this.inblossom[v];
+		int bw = this.inblossom[w];
+		int b = this.unusedblossoms[--this.unusedblossomsSize];
+		this.blossombase[b] = base;
+		this.blossomparent[b] = -1;
+		this.blossomparent[bb] = b;
+
+		//trace back from v to base
+		IntList path = new IntList();
+		IntList endps = new IntList();
+		while (bv != bb) {
+			this.blossomparent[bv] = b;
+			path.add(bv);
+			endps.add(this.labelend[bv]);
+			v = this.endpoint[this.labelend[bv]];
+			bv = this.inblossom[v];
+		}
+		path.add(bb);
+		path.reverse();
+		endps.reverse();
+		endps.add(2 * k);
+		//trace back from w to base
+		while (bw != bb) {
+			this.blossomparent[bw] = b;
+			path.add(bw);
+			endps.add(this.labelend[bw] ^ 1);
+			w = this.endpoint[this.labelend[bw]];
+			bw = this.inblossom[w];
+		}
+		this.blossomchilds[b] = path.toArray();
+		this.blossomendps[b] = endps.toArray();
+
+		this.label[b] = 1;
+		this.labelend[b] = this.labelend[bb];
+		this.dualvar[b] = 0;
+		final int newBlossom = b;
+		this.forEachLeaf(b, leaf -> {
+			if (this.label[this.inblossom[leaf]] == 2) {
+				//this T-vertex now becomes an S-vertex
+				this.enqueue(leaf);
+			}
+			this.inblossom[leaf] = newBlossom;
+		});
+
+		//compute the best edges of the new blossom
+		int[] bestedgeto = new int[2 * this.nvertex];
+		Arrays.fill(bestedgeto, -1);
+		for (int child : this.blossomchilds[b]) {
+			if (this.blossombestedges[child] == null) {
+				//this subblossom has no list of best edges: we look at all the edges of its vertices
+				this.forEachLeaf(child, leaf -> {
+					for (int p : this.neighbend[leaf]) {
+						this.considerBestEdge(p / 2, newBlossom, bestedgeto);
+					}
+				});
+			} else {
+				for (int edge : this.blossombestedges[child]) {
+					this.considerBestEdge(edge, newBlossom, bestedgeto);
+				}
+			}
+			this.blossombestedges[child] = null;
+			this.bestedge[child] = -1;
+		}
+		IntList best = new IntList();
+		for (int edge : bestedgeto) {
+			if (edge != -1) {
+				best.add(edge);
+			}
+		}
+		this.blossombestedges[b] = best.toArray();
+		this.bestedge[b] = -1;
+		for (int edge : this.blossombestedges[b]) {
+			if (this.bestedge[b] == -1 || this.slack(edge) < this.slack(this.bestedge[b])) {
+				this.bestedge[b] = edge;
+			}
+		}
+	}
+
+	private void considerBestEdge(int k, int b, int[] bestedgeto) {
+		int j = this.edgeTo[k];
+		if (this.inblossom[j] == b) {
+			j = this.edgeFrom[k];
+		}
+		int bj = this.inblossom[j];
+		if (bj != b && this.label[bj] == 1 && (bestedgeto[bj] == -1 || this.slack(k) < this.slack(bestedgeto[bj]))) {
+			bestedgeto[bj] = k;
+		}
+	}
+
+	/**
+	 *
+	 * @param array the array involved
+	 * @param index an index, possibly negative
+	 * @return the cell of the array at the given index, where negative indexes count from the end of the array
+	 */
+	private static int at(int[] array, int index) {
+		return array[index < 0 ? index + array.length : index];
+	}
+
+	/**
+	 * Expands the given top level blossom
+	 *
+	 * @param b the blossom to expand
+	 * @param endstage true if we're expanding the blossom at the end of a stage
+	 */
+	private void expandBlossom(int b, boolean endstage) {
+		//convert sub-blossoms into top-level blossoms
+		for (int s : this.blossomchilds[b]) {
+			this.blossomparent[s] = -1;
+			if (s < this.nvertex) {
+				this.inblossom[s] = s;
+			} else if (endstage && this.dualvar[s] == 0) {
+				//recursively expand this sub-blossom
+				this.expandBlossom(s, endstage);
+			} else {
+				final int subBlossom = s;
+				this.forEachLeaf(s, leaf -> this.inblossom[leaf] = subBlossom);
+			}
+		}
+
+		if (!endstage && this.label[b] == 2) {
+			//this blossom was reached through the endpoint labelend[b]: we need to relabel the sub-blossoms along the path from the entry child to the base
+			int[] childs = this.blossomchilds[b];
+			int[] endps = this.blossomendps[b];
+			int entrychild = this.inblossom[this.endpoint[this.labelend[b] ^ 1]];
+			int j = indexOf(childs, entrychild);
+			int jstep;
+			int endptrick;
+			if ((j & 1) != 0) {
+				//start index is odd: go forward and wrap
+				j -= childs.length;
+				jstep = 1;
+				endptrick = 0;
+			} else {
+				//start index is even: go backward
+				jstep = -1;
+				endptrick = 1;
+			}
+			int p = this.labelend[b];
+			while (j != 0) {
+				//relabel the T-sub-blossom
+				this.label[this.endpoint[p ^ 1]] = 0;
+				this.label[this.endpoint[at(endps, j - endptrick) ^ endptrick ^ 1]] = 0;
+				this.assignLabel(this.endpoint[p ^ 1], 2, p);
+				//step to the next S-sub-blossom and note its forward endpoint
+				this.allowedge[at(endps, j - endptrick) / 2] = true;
+				j += jstep;
+				p = at(endps, j - endptrick) ^ endptrick;
+				//step to the next T-sub-blossom
+				this.allowedge[p / 2] = true;
+				j += jstep;
+			}
+			//relabel the base T-sub-blossom without creating a new S-vertex
+			int bv = at(childs, j);
+			this.label[this.endpoint[p ^ 1]] = this.label[bv] = 2;
+			this.labelend[this.endpoint[p ^ 1]] = this.labelend[bv] = p;
+			this.bestedge[bv] = -1;
+			//continue along the blossom until we get back to the entry child
+			j += jstep;
+			while (at(childs, j) != entrychild) {
+				bv = at(childs, j);
+				if (this.label[bv] == 1) {
+					//this sub-blossom already got label S through one of its neighbours
+					j += jstep;
+					continue;
+				}
+				int labelled = this.firstLabelledLeaf(bv);
+				if (labelled != -1) {
+					//this sub-blossom contains a vertex labelled T: we need to label the whole sub-blossom
+					this.label[labelled] = 0;
+					this.label[this.endpoint[this.mate[this.blossombase[bv]]]] = 0;
+					this.assignLabel(labelled, 2, this.labelend[labelled]);
+				}
+				j += jstep;
+			}
+		}
+
+		//recycle the blossom number
+		this.label[b] = this.labelend[b] = -1;
+		this.blossomchilds[b] = this.blossomendps[b] = null;
+		this.blossombase[b] = -1;
+		this.blossombestedges[b] = null;
+		this.bestedge[b] = -1;
+		this.unusedblossoms[this.unusedblossomsSize++] = b;
+	}
+
+	/**
+	 *
+	 * @param b a blossom
+	 * @return the first vertex inside the blossom with a label, or -1 if there is none
+	 */
+	private int firstLabelledLeaf(int b) {
+		if (b < this.nvertex) {
+			return this.label[b] != 0 ? b : -1;
+		}
+		for (int t : this.blossomchilds[b]) {
+			int retVal = this.firstLabelledLeaf(t);
+			if (retVal != -1) {
+				return retVal;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOf(int[] array, int value) {
+		for (int i=0; i<array.length; i++) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		throw new IllegalStateException(String.format("%d not found", value));
+	}
+
+	/**
+	 * Swaps matched/unmatched edges over an alternating path through the blossom <tt>b</tt> between the vertex <tt>v</tt> and the base vertex
+	 */
+	private void augmentBlossom(int b, int v) {
+		//bubble up through the blossom tree from v to an immediate sub-blossom of b
+		int t = v;
+		while (this.blossomparent[t] != b) {
+			t = this.blossomparent[t];
+		}
+		if (t >= this.nvertex) {
+			this.augmentBlossom(t, v);
+		}
+		int[] childs = this.blossomchilds[b];
+		int[] endps = this.blossomendps[b];
+		int i = indexOf(childs, t);
+		int j = i;
+		int jstep;
+		int endptrick;
+		if ((i & 1) != 0) {
+			j -= childs.length;
+			jstep = 1;
+			endptrick = 0;
+		} else {
+			jstep = -1;
+			endptrick = 1;
+		}
+		//move along the blossom until we get to the base
+		while (j != 0) {
+			j += jstep;
+			t = at(childs, j);
+			int p = at(endps, j - endptrick) ^ endptrick;
+			if (t >= this.nvertex) {
+				this.augmentBlossom(t, this.endpoint[p]);
+			}
+			j += jstep;
+			t = at(childs, j);
+			if (t >= this.nvertex) {
+				this.augmentBlossom(t, this.endpoint[p ^ 1]);
+			}
+			//match the edge connecting those sub-blossoms
+			this.mate[this.endpoint[p]] = p ^ 1;
+			this.mate[this.endpoint[p ^ 1]] = p;
+		}
+		//rotate the list of sub-blossoms to put the new base at the front
+		this.blossomchilds[b] = rotate(childs, i);
+		this.blossomendps[b] = rotate(endps, i);
+		this.blossombase[b] = this.blossombase[this.blossomchilds[b][0]];
+	}
+
+	private static int[] rotate(int[] array, int first) {
+		int[] retVal = new int[array.length];
+		System.arraycopy(array, first, retVal, 0, array.length - first);
+		System.arraycopy(array, 0, retVal, array.length - first, first);
+		return retVal;
+	}
+
+	/**
+	 * Swaps matched/unmatched edges over an alternating path between 2 single vertices, passing through the edge <tt>k</tt>
+	 */
+	private void augmentMatching(int k) {
+		int[] starts = new int[] {this.edgeFrom[k], this.edgeTo[k]};
+		int[] ends = new int[] {2 * k + 1, 2 * k};
+		for (int side=0; side<2; side++) {
+			int s = starts[side];
+			int p = ends[side];
+			while (true) {
+				int bs = this.inblossom[s];
+				if (bs >= this.nvertex) {
+					this.augmentBlossom(bs, s);
+				}
+				this.mate[s] = p;
+				if (this.labelend[bs] == -1) {
+					//we have reached the root of the tree
+					break;
+				}
+				int t = this.endpoint[this.labelend[bs]];
+				int bt = this.inblossom[t];
+				s = this.endpoint[this.labelend[bt]];
+				int j = this.endpoint[this.labelend[bt] ^ 1];
+				if (bt >= this.nvertex) {
+					this.augmentBlossom(bt, j);
+				}
+				this.mate[j] = this.labelend[bt];
+				p = this.labelend[bt] ^ 1;
+			}
+		}
+	}
+
+	/**
+	 * A minimal growable list of primitive integers
+	 *
+	 * @author massi
+	 *
+	 */
+	private static class IntList {
+		private int[] values = new int[8];
+		private int size = 0;
+
+		public void add(int value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = value;
+		}
+
+		public void reverse() {
+			for (int i=0, j=this.size-1; i<j; i++, j--) {
+				int tmp = this.values[i];
+				this.values[i] = this.values[j];
+				this.values[j] = tmp;
+			}
+		}
+
+		public int[] toArray() {
+			return Arrays.copyOf(this.values, this.size);
+		}
+	}
+
+}
@@ -1,10 +1,15 @@
 package com.massimobono.podiliardino.util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import javafx.beans.InvalidationListener;
 import javafx.collections.ListChangeListener;
@@ -13,15 +18,77 @@ import javafx.collections.ObservableList;
 /**
  * An {@link ObservableList} where you can add no "null" and no duplicates entries
  * 
+ * Bulk operations (like {@link #addAll(Collection)}, {@link #setAll(Collection)}, {@link #removeAll(Collection)} and {@link #clear()})
+ * change the list only once: the listeners receive a single {@link ListChangeListener.Change}, possibly made of several sub-changes.
+ * Prefer them to loops of single additions or removals.
+ * 
+ * Next to the list, the class keeps a hash index of its elements: checking whether an element is already inside the list
+ * (hence {@link #add(Object)}, {@link #contains(Object)} and {@link #indexOf(Object)} as well) takes constant expected time instead
+ * of scanning the whole list. The index is updated by a listener registered on the underlying list before any other one, so every listener
+ * of the list already sees the index up to date. For this reason <b>the elements must not change their hash code while they are inside the list</b>.
+ * 
  * @author massi
  *
  */
 public class ObservableDistinctList<E> implements ObservableList<E>{
 
 	private ObservableList<E> underlyingList;
+	/**
+	 * for every element inside {@link #underlyingList}, the number of times it is inside the list. Since the list is distinct,
+	 * it's always 1, unless someone changes the list without using this class (for example with {@link #set(int, Object)})
+	 */
+	private final Map<E, Integer> occurrences;
+	/**
+	 * for every element inside {@link #underlyingList}, the position of its first occurrence. Valid only if {@link #positionsValid} is true
+	 */
+	private final Map<E, Integer> positions;
+	/**
+	 * true if {@link #positions} is up to date. Appending elements keeps the positions valid, every other change invalidates them:
+	 * they are computed again by the next {@link #indexOf(Object)}
+	 */
+	private boolean positionsValid;
 	
 	public ObservableDistinctList(ObservableList<E> lists) {
 		this.underlyingList = lists;
+		this.occurrences = new HashMap<>();
+		this.positions = new HashMap<>();
+		this.positionsValid = false;
+		for (E e : lists) {
+			this.occurrences.merge(e, 1, Integer::sum);
+		}
+		//registered before anyone else can register a listener: the index is up to date when the other listeners are notified
+		this.underlyingList.addListener(this::updateIndex);
+	}
+	
+	/**
+	 * Keeps {@link #occurrences} and {@link #positions} synchronized with the underlying list
+	 * 
+	 * @param c the change of the underlying list
+	 */
+	private void updateIndex(ListChangeListener.Change<? extends E> c) {
+		while (c.next()) {
+			if (c.wasPermutated()) {
+				this.positionsValid = false;
+				continue;
+			}
+			for (E e : c.getRemoved()) {
+				this.occurrences.computeIfPresent(e, (k, n) -> n > 1 ? n - 1 : null);
+			}
+			for (E e : c.getAddedSubList()) {
+				this.occurrences.merge(e, 1, Integer::sum);
+			}
+			if (!this.positionsValid) {
+				continue;
+			}
+			if (c.wasRemoved() || c.getTo() != c.getList().size()) {
+				this.positionsValid = false;
+				continue;
+			}
+			//the elements have been appended: the positions of the other elements haven't changed
+			for (int i=c.getFrom(); i<c.getTo(); i++) {
+				this.positions.putIfAbsent(c.getList().get(i), i);
+			}
+		}
 	}
 
 	@Override
@@ -29,7 +96,7 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 		if (e == null) {
 			return false;
 		}
-		if (this.underlyingList.contains(e)){
+		if (this.contains(e)){
 			return false;
 			
 		}
@@ -41,7 +108,7 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 		if (element == null) {
 			return;
 		}
-		if (this.underlyingList.contains(element)) {
+		if (this.contains(element)) {
 			return;
 		}
 		this.underlyingList.add(index, element);
@@ -49,12 +116,28 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 
 	@Override
 	public boolean addAll(Collection<? extends E> c) {
-		return this.underlyingList.addAll(c.stream().filter(e -> e != null && !this.underlyingList.contains(e)).collect(Collectors.toList()));
+		return this.underlyingList.addAll(this.getNewElements(c));
 	}
 
 	@Override
 	public boolean addAll(int index, Collection<? extends E> c) {
-		return this.underlyingList.addAll(index, c.stream().filter(e -> e != null && !this.underlyingList.contains(e)).collect(Collectors.toList()));
+		return this.underlyingList.addAll(index, this.getNewElements(c));
+	}
+	
+	/**
+	 * 
+	 * @param c some elements
+	 * @return the elements of <tt>c</tt>, in order, which are not null, not inside the list and not repeated inside <tt>c</tt>
+	 */
+	private List<E> getNewElements(Collection<? extends E> c) {
+		List<E> retVal = new ArrayList<>(c.size());
+		Set<E> seen = new HashSet<>();
+		for (E e : c) {
+			if (e != null && !this.contains(e) && seen.add(e)) {
+				retVal.add(e);
+			}
+		}
+		return retVal;
 	}
 
 	@Override
@@ -64,12 +147,17 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 
 	@Override
 	public boolean contains(Object o) {
-		return this.underlyingList.contains(o);
+		return this.occurrences.containsKey(o);
 	}
 
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		return this.underlyingList.containsAll(c);
+		for (Object o : c) {
+			if (!this.contains(o)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
@@ -79,7 +167,17 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 
 	@Override
 	public int indexOf(Object o) {
-		return this.underlyingList.indexOf(o);
+		if (!this.contains(o)) {
+			return -1;
+		}
+		if (!this.positionsValid) {
+			this.positions.clear();
+			for (int i=0; i<this.underlyingList.size(); i++) {
+				this.positions.putIfAbsent(this.underlyingList.get(i), i);
+			}
+			this.positionsValid = true;
+		}
+		return this.positions.get(o);
 	}
 
 	@Override
@@ -94,7 +192,11 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 
 	@Override
 	public int lastIndexOf(Object o) {
-		return this.underlyingList.lastIndexOf(o);
+		Integer n = this.occurrences.get(o);
+		if (n == null) {
+			return -1;
+		}
+		return n == 1 ? this.indexOf(o) : this.underlyingList.lastIndexOf(o);
 	}
 
 	@Override
@@ -109,7 +211,8 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 
 	@Override
 	public boolean remove(Object o) {
-		return this.underlyingList.remove(o);
+		//the list is scanned only if the element is inside it
+		return this.contains(o) && this.underlyingList.remove(o);
 	}
 
 	@Override
@@ -119,12 +222,13 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		return this.underlyingList.removeAll(c);
+		//the underlying list checks every element of its own against c
+		return this.underlyingList.removeAll(c instanceof Set ? c : new HashSet<>(c));
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> c) {
-		return this.underlyingList.retainAll(c);
+		return this.underlyingList.retainAll(c instanceof Set ? c : new HashSet<>(c));
 	}
 
 	@Override
@@ -174,27 +278,35 @@ public class ObservableDistinctList<E> implements ObservableList<E>{
 
 	@Override
 	public boolean addAll(E... elements) {
-		return this.underlyingList.addAll(elements);
+		return this.addAll(Arrays.asList(elements));
 	}
 
 	@Override
 	public boolean setAll(E... elements) {
-		return this.underlyingList.setAll(elements);
+		return this.setAll(Arrays.asList(elements));
 	}
 
 	@Override
 	public boolean setAll(Collection<? extends E> col) {
-		return this.underlyingList.setAll(col);
+		//the new content needs to be distinct as well
+		List<E> elements = new ArrayList<>(col.size());
+		Set<E> seen = new HashSet<>();
+		for (E e : col) {
+			if (e != null && seen.add(e)) {
+				elements.add(e);
+			}
+		}
+		return this.underlyingList.setAll(elements);
 	}
 
 	@Override
 	public boolean removeAll(E... elements) {
-		return this.underlyingList.removeAll(elements);
+		return this.removeAll(Arrays.asList(elements));
 	}
 
 	@Override
 	public boolean retainAll(E... elements) {
-		return this.underlyingList.retainAll(elements);
+		return this.retainAll(Arrays.asList(elements));
 	}
 
 	@Override
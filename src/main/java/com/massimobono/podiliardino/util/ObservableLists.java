@@ -0,0 +1,70 @@
+package com.massimobono.podiliardino.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javafx.collections.ObservableList;
+
+/**
+ * Bulk operations over the lists of the model
+ *
+ * An element of the model (for example a match) is usually contained in several lists (the ones of the teams and the one of the day).
+ * Adding or removing several elements one after the other notifies the listeners of each list once per element: the functions of this class
+ * group the elements by the list containing them and change every list with a single bulk operation instead, hence its listeners
+ * are notified only once
+ *
+ * @author massi
+ *
+ */
+public final class ObservableLists {
+
+	private ObservableLists() {
+	}
+
+	/**
+	 * Groups some elements by the lists containing them
+	 *
+	 * @param elements the elements involved
+	 * @param lists computes the lists containing (or that will contain) an element
+	 * @return for every list, the elements among <tt>elements</tt> belonging to it
+	 */
+	public static <T> Map<ObservableList<T>, List<T>> groupByList(Collection<T> elements, Function<? super T, ? extends Collection<ObservableList<T>>> lists) {
+		//ObservableList implements equals by content: we need the identity of the lists
+		Map<ObservableList<T>, List<T>> retVal = new IdentityHashMap<>();
+		for (T element : elements) {
+			for (ObservableList<T> list : lists.apply(element)) {
+				retVal.computeIfAbsent(list, l -> new ArrayList<>()).add(element);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Removes some elements from every list containing them. Every list changes only once
+	 *
+	 * @param elements the elements to remove. It must not be one of the lists returned by <tt>lists</tt>
+	 * @param lists computes the lists containing an element
+	 */
+	public static <T> void removeAll(Collection<T> elements, Function<? super T, ? extends Collection<ObservableList<T>>> lists) {
+		for (Map.Entry<ObservableList<T>, List<T>> entry : groupByList(elements, lists).entrySet()) {
+			entry.getKey().removeAll(entry.getValue());
+		}
+	}
+
+	/**
+	 * Adds some elements to every list that has to contain them. Every list changes only once
+	 *
+	 * @param elements the elements to add
+	 * @param lists computes the lists that have to contain an element
+	 */
+	public static <T> void addAll(Collection<T> elements, Function<? super T, ? extends Collection<ObservableList<T>>> lists) {
+		for (Map.Entry<ObservableList<T>, List<T>> entry : groupByList(elements, lists).entrySet()) {
+			entry.getKey().addAll(entry.getValue());
+		}
+	}
+
+}
@@ -1,11 +1,18 @@
 package com.massimobono.podiliardino.util;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import com.massimobono.podiliardino.extensibles.dao.DAO;
+import com.massimobono.podiliardino.model.Indexable;
 
 import javafx.beans.InvalidationListener;
 import javafx.collections.FXCollections;
@@ -16,128 +23,351 @@ import javafx.scene.control.TableView;
 
 /**
  * Represents a {@link ObservableMap} that can be used in tandem with {@link TableView}
- * 
+ *
  * Since {@link TableView} supports only {@link ObservableList}, and since {@link DAO} instances usually
  * stores all the needed references, we need a map indexed by id and that can be observed by a {@link TableView}.
  * Hence this class.
- *  
+ *
+ * The entries are stored inside {@link #observableKeyList()} and {@link #observableValueList()}, in the same position. The position of
+ * every id is kept inside a {@link LongHashMap}, so:
+ * <ul>
+ * 	<li>the ids of {@link Indexable} can be looked up with {@link #get(long)} and {@link #containsKey(long)} without boxing them;</li>
+ * 	<li>a removal moves the last entry in the position of the removed one, hence it doesn't scan the lists. Please note that
+ * 	the lists are not kept in insertion order;</li>
+ * 	<li>putting an id already present replaces its value in place, so the lists never contain the same id twice;</li>
+ * 	<li>{@link #putAll(Map)} and {@link #clear()} change each list with a single {@link javafx.collections.ListChangeListener.Change}.</li>
+ * </ul>
+ *
+ * {@link MapChangeListener} are notified once per entry added, replaced or removed, like the ones of {@link FXCollections#observableMap(Map)}.
+ *
  * @author massi
  *
- * @param <K> the key of the map
  * @param <V> the value of the map
  */
-public class TableFriendlyObservableMap<K,V> implements javafx.collections.ObservableMap<K, V> {
-	
-	private javafx.collections.ObservableMap<K,V> map;
-	private ObservableList<K> keyList;
-	private ObservableList<V> valueList;
-	
-	public TableFriendlyObservableMap(Map<K,V> map) {
-		this.map = FXCollections.observableMap(map);
+public class TableFriendlyObservableMap<V> extends AbstractMap<Long, V> implements ObservableMap<Long, V> {
+
+	/**
+	 * The position of an entry inside {@link TableFriendlyObservableMap#keyList} and {@link TableFriendlyObservableMap#valueList}.
+	 *
+	 * It is mutable, so moving an entry doesn't allocate anything
+	 *
+	 * @author massi
+	 *
+	 */
+	private static class Slot {
+		private int position;
+
+		public Slot(int position) {
+			this.position = position;
+		}
+	}
+
+	/**
+	 * A change involving a single entry of the map
+	 *
+	 * @author massi
+	 *
+	 */
+	private class EntryChange extends MapChangeListener.Change<Long, V> {
+
+		private final Long key;
+		private final V valueRemoved;
+		private final boolean removed;
+		private final V valueAdded;
+		private final boolean added;
+
+		public EntryChange(Long key, V valueRemoved, boolean removed, V valueAdded, boolean added) {
+			super(TableFriendlyObservableMap.this);
+			this.key = key;
+			this.valueRemoved = valueRemoved;
+			this.removed = removed;
+			this.valueAdded = valueAdded;
+			this.added = added;
+		}
+
+		@Override
+		public boolean wasAdded() {
+			return this.added;
+		}
+
+		@Override
+		public boolean wasRemoved() {
+			return this.removed;
+		}
+
+		@Override
+		public Long getKey() {
+			return this.key;
+		}
+
+		@Override
+		public V getValueAdded() {
+			return this.valueAdded;
+		}
+
+		@Override
+		public V getValueRemoved() {
+			return this.valueRemoved;
+		}
+	}
+
+	private final LongHashMap<Slot> positions;
+	private final ObservableList<Long> keyList;
+	private final ObservableList<V> valueList;
+	private final List<MapChangeListener<? super Long, ? super V>> mapChangeListeners;
+	private final List<InvalidationListener> invalidationListeners;
+
+	public TableFriendlyObservableMap(Map<Long,V> map) {
+		this.positions = new LongHashMap<>(map.size());
 		this.keyList = FXCollections.observableArrayList();
 		this.valueList = FXCollections.observableArrayList();
-		this.keyList.addAll(map.keySet());
-		this.valueList.addAll(map.values());
+		this.mapChangeListeners = new ArrayList<>();
+		this.invalidationListeners = new ArrayList<>();
+		this.putAll(map);
 	}
-	
+
 	public TableFriendlyObservableMap() {
-		this(new HashMap<>());
+		this(Collections.emptyMap());
 	}
-	
-	public ObservableList<K> observableKeyList() {
+
+	public ObservableList<Long> observableKeyList() {
 		return this.keyList;
 	}
-	
+
 	public ObservableList<V> observableValueList() {
 		return this.valueList;
 	}
-	
+
+	/**
+	 *
+	 * @param key the id to look for
+	 * @return the value associated to the id or <tt>null</tt> if the id is not in the map
+	 */
+	public V get(long key) {
+		Slot slot = this.positions.get(key);
+		return slot == null ? null : this.valueList.get(slot.position);
+	}
+
+	public boolean containsKey(long key) {
+		return this.positions.containsKey(key);
+	}
+
+	/**
+	 * Removes an id from the map
+	 *
+	 * The last entry of the lists is moved in the position of the removed one
+	 *
+	 * @param key the id to remove
+	 * @return the value associated to the id or <tt>null</tt> if the id was not in the map
+	 */
+	public V remove(long key) {
+		Slot slot = this.positions.remove(key);
+		if (slot == null) {
+			return null;
+		}
+		int last = this.valueList.size() - 1;
+		Long removedKey = this.keyList.get(slot.position);
+		V retVal = this.valueList.get(slot.position);
+		if (slot.position != last) {
+			Long lastKey = this.keyList.get(last);
+			this.positions.get(lastKey).position = slot.position;
+			this.keyList.set(slot.position, lastKey);
+			this.valueList.set(slot.position, this.valueList.get(last));
+		}
+		this.keyList.remove(last);
+		this.valueList.remove(last);
+		this.fireChange(removedKey, retVal, true, null, false);
+		return retVal;
+	}
+
 	@Override
 	public void clear() {
-		this.map.clear();
+		if (this.isEmpty()) {
+			return;
+		}
+		List<Long> removedKeys = new ArrayList<>(this.keyList);
+		List<V> removedValues = new ArrayList<>(this.valueList);
+		this.positions.clear();
 		this.keyList.clear();
 		this.valueList.clear();
+		for (int i=0; i<removedKeys.size(); i++) {
+			this.fireChange(removedKeys.get(i), removedValues.get(i), true, null, false);
+		}
 	}
 
 	@Override
 	public boolean containsKey(Object key) {
-		return this.map.containsKey(key);
+		return key instanceof Long && this.containsKey(((Long)key).longValue());
 	}
 
 	@Override
 	public boolean containsValue(Object value) {
-		return this.map.containsValue(value);
+		return this.valueList.contains(value);
 	}
 
 	@Override
-	public Set<java.util.Map.Entry<K, V>> entrySet() {
-		return this.map.entrySet();
+	public Set<Map.Entry<Long, V>> entrySet() {
+		return new AbstractSet<Map.Entry<Long, V>>() {
+
+			@Override
+			public Iterator<Map.Entry<Long, V>> iterator() {
+				return new Iterator<Map.Entry<Long, V>>() {
+					private int next = 0;
+
+					@Override
+					public boolean hasNext() {
+						return this.next < valueList.size();
+					}
+
+					@Override
+					public Map.Entry<Long, V> next() {
+						if (!this.hasNext()) {
+							throw new NoSuchElementException();
+						}
+						Map.Entry<Long, V> retVal = new AbstractMap.SimpleImmutableEntry<>(keyList.get(this.next), valueList.get(this.next));
+						this.next++;
+						return retVal;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return valueList.size();
+			}
+		};
 	}
 
 	@Override
 	public V get(Object key) {
-		return this.map.get(key);
+		return key instanceof Long ? this.get(((Long)key).longValue()) : null;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return this.map.isEmpty();
+		return this.valueList.isEmpty();
 	}
 
 	@Override
-	public Set<K> keySet() {
-		return this.map.keySet();
+	public Set<Long> keySet() {
+		return new AbstractSet<Long>() {
+
+			@Override
+			public Iterator<Long> iterator() {
+				return Collections.unmodifiableList(keyList).iterator();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+
+			@Override
+			public int size() {
+				return keyList.size();
+			}
+		};
 	}
 
 	@Override
-	public V put(K key, V value) {
+	public V put(Long key, V value) {
+		Slot slot = this.positions.get(key);
+		if (slot != null) {
+			//the id is already in the map: we replace the value in place
+			V retVal = this.valueList.set(slot.position, value);
+			this.fireChange(key, retVal, true, value, true);
+			return retVal;
+		}
+		this.positions.put(key, new Slot(this.valueList.size()));
 		this.keyList.add(key);
 		this.valueList.add(value);
-		return this.map.put(key, value);
+		this.fireChange(key, null, false, value, true);
+		return null;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The ids not in the map yet are appended to the lists all at once
+	 */
 	@Override
-	public void putAll(Map<? extends K, ? extends V> m) {
-		this.keyList.addAll(m.keySet());
-		this.valueList.addAll(m.values());
-		this.map.putAll(m);
+	public void putAll(Map<? extends Long, ? extends V> m) {
+		List<Long> newKeys = new ArrayList<>(m.size());
+		List<V> newValues = new ArrayList<>(m.size());
+		for (Map.Entry<? extends Long, ? extends V> entry : m.entrySet()) {
+			if (this.positions.containsKey(entry.getKey())) {
+				this.put(entry.getKey(), entry.getValue());
+				continue;
+			}
+			this.positions.put(entry.getKey(), new Slot(this.valueList.size() + newKeys.size()));
+			newKeys.add(entry.getKey());
+			newValues.add(entry.getValue());
+		}
+		if (newKeys.isEmpty()) {
+			return;
+		}
+		this.keyList.addAll(newKeys);
+		this.valueList.addAll(newValues);
+		for (int i=0; i<newKeys.size(); i++) {
+			this.fireChange(newKeys.get(i), null, false, newValues.get(i), true);
+		}
 	}
 
 	@Override
 	public V remove(Object key) {
-		this.keyList.remove(key);
-		this.valueList.remove(this.map.get(key));
-		return this.map.remove(key);
+		return key instanceof Long ? this.remove(((Long)key).longValue()) : null;
 	}
 
 	@Override
 	public int size() {
-		return this.map.size();
+		return this.valueList.size();
 	}
 
 	@Override
 	public Collection<V> values() {
-		return this.map.values();
+		return Collections.unmodifiableList(this.valueList);
 	}
 
 	@Override
 	public void addListener(InvalidationListener listener) {
-		this.map.addListener(listener);
+		this.invalidationListeners.add(listener);
 	}
 
 	@Override
 	public void removeListener(InvalidationListener listener) {
-		this.map.removeListener(listener);
+		this.invalidationListeners.remove(listener);
 	}
 
 	@Override
-	public void addListener(MapChangeListener<? super K, ? super V> listener) {
-		this.map.addListener(listener);
+	public void addListener(MapChangeListener<? super Long, ? super V> listener) {
+		this.mapChangeListeners.add(listener);
 	}
 
 	@Override
-	public void removeListener(MapChangeListener<? super K, ? super V> listener) {
-		this.map.removeListener(listener);
+	public void removeListener(MapChangeListener<? super Long, ? super V> listener) {
+		this.mapChangeListeners.remove(listener);
+	}
+
+	/**
+	 * Notifies the listeners of the change of an entry
+	 *
+	 * @param key the id involved
+	 * @param valueRemoved the value previously associated to the id
+	 * @param removed true if the id had a value before the change
+	 * @param valueAdded the value now associated to the id
+	 * @param added true if the id has a value after the change
+	 */
+	private void fireChange(Long key, V valueRemoved, boolean removed, V valueAdded, boolean added) {
+		if (!this.mapChangeListeners.isEmpty()) {
+			EntryChange change = new EntryChange(key, valueRemoved, removed, valueAdded, added);
+			//a listener may remove itself while being notified
+			for (MapChangeListener<? super Long, ? super V> listener : new ArrayList<>(this.mapChangeListeners)) {
+				listener.onChanged(change);
+			}
+		}
+		for (InvalidationListener listener : new ArrayList<>(this.invalidationListeners)) {
+			listener.invalidated(this);
+		}
 	}
 
 }
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Optional;
 
+import com.massimobono.podiliardino.extensibles.dao.Criteria;
 import com.massimobono.podiliardino.extensibles.dao.DAO;
 import com.massimobono.podiliardino.extensibles.dao.DAOException;
 import com.massimobono.podiliardino.model.Player;
@@ -37,29 +38,32 @@ public class Utils {
 	 * @throws DAOException
 	 */
 	public static void addDummyTeam(DAO dao) throws DAOException {
-		if (!dao.getPlayerThat(p -> p.nameProperty().get().equals(DUMMYPLAYER1.nameProperty().get())).isPresent()) {
+		Optional<Player> dummyPlayer1 = dao.getPlayerThat(Criteria.playerNameIs(DUMMYPLAYER1.nameProperty().get()));
+		if (!dummyPlayer1.isPresent()) {
 			dao.add(DUMMYPLAYER1);
 		} else {
-			DUMMYPLAYER1.setId(dao.getPlayerThat(p -> p.nameProperty().get().equals(DUMMYPLAYER1.nameProperty().get())).get().getId());			
+			DUMMYPLAYER1.setId(dummyPlayer1.get().getId());
 		}
-		if (!dao.getPlayerThat(p -> p.nameProperty().get().equals(DUMMYPLAYER2.nameProperty().get())).isPresent()) {
+		Optional<Player> dummyPlayer2 = dao.getPlayerThat(Criteria.playerNameIs(DUMMYPLAYER2.nameProperty().get()));
+		if (!dummyPlayer2.isPresent()) {
 			dao.add(DUMMYPLAYER2);
 		} else {
-			DUMMYPLAYER2.setId(dao.getPlayerThat(p -> p.nameProperty().get().equals(DUMMYPLAYER2.nameProperty().get())).get().getId());			
+			DUMMYPLAYER2.setId(dummyPlayer2.get().getId());
 		}
 		
-		if (!dao.getTeamThat(t -> t.nameProperty().get().equals(DUMMYTEAM.nameProperty().get())).isPresent()) {
+		Optional<Team> dummyTeam = dao.getTeamThat(Criteria.teamNameIs(DUMMYTEAM.nameProperty().get()));
+		if (!dummyTeam.isPresent()) {
 			dao.addTeam(DUMMYTEAM);
 			DUMMYTEAM.add(DUMMYPLAYER1);
 			DUMMYTEAM.add(DUMMYPLAYER2);
 		} else {
-			DUMMYTEAM.setId(dao.getTeamThat(t -> t.nameProperty().get().equals(DUMMYTEAM.nameProperty().get())).get().getId());
+			DUMMYTEAM.setId(dummyTeam.get().getId());
 		}
 		
 	}
 	
 	public static Team getDummyTeam(DAO dao) throws DAOException {
-		Optional<Team> retVal = dao.getTeamThat(t -> t.nameProperty().get().equals(DUMMYTEAM.nameProperty().get()));
+		Optional<Team> retVal = dao.getTeamThat(Criteria.teamNameIs(DUMMYTEAM.nameProperty().get()));
 		if (!retVal.isPresent()) {
 			throw new DAOException("Dummy team not present. Are you sure you've called at least once addDummyTeam?");
 		}
@@ -79,6 +83,25 @@ public class Utils {
 		return date.format(DateTimeFormatter.ofPattern(Utils.STANDARD_DATE_PATTERN));
 	}
 	
+	/**
+	 * 
+	 * @param isoDate a date in the ISO-8601 format (<tt>yyyy-MM-dd</tt>)
+	 * @return the converted {@link LocalDate}
+	 */
+	public static LocalDate getDateFromISO(String isoDate) {
+		return LocalDate.parse(isoDate, DateTimeFormatter.ISO_LOCAL_DATE);
+	}
+	
+	/**
+	 * The ISO-8601 format is the one used to store dates: ordering the strings is the same as ordering the dates 
+	 * 
+	 * @param date the date to convert
+	 * @return the date in the ISO-8601 format (<tt>yyyy-MM-dd</tt>)
+	 */
+	public static String getISODateFrom(LocalDate date) {
+		return date.format(DateTimeFormatter.ISO_LOCAL_DATE);
+	}
+	
 	public static Alert createDefaultErrorAlert(String header, String body) {
 		Alert alert = new Alert(AlertType.ERROR);
 		alert.setTitle(I18N.get("error_dialog_title"));
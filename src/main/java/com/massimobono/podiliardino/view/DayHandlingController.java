@@ -3,6 +3,8 @@ package com.massimobono.podiliardino.view;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -16,7 +18,6 @@ import com.massimobono.podiliardino.extensibles.Formatter;
 import com.massimobono.podiliardino.extensibles.dao.DAOException;
 import com.massimobono.podiliardino.extensibles.dummymatch.AddDefaultVictoryDummyMatchHandler;
 import com.massimobono.podiliardino.extensibles.dummymatch.DummyMatchHandler;
-import com.massimobono.podiliardino.extensibles.matches.DistinctMatchesByeAwarePairComputer;
 import com.massimobono.podiliardino.extensibles.matches.PairComputer;
 import com.massimobono.podiliardino.extensibles.matches.SimpleCSVMatchesFormatter;
 import com.massimobono.podiliardino.extensibles.matches.SubsequentPairComputer;
@@ -29,6 +30,7 @@ import com.massimobono.podiliardino.model.MatchStatus;
 import com.massimobono.podiliardino.model.Player;
 import com.massimobono.podiliardino.model.Team;
 import com.massimobono.podiliardino.model.Tournament;
+import com.massimobono.podiliardino.model.TournamentMatchTable;
 import com.massimobono.podiliardino.util.ExceptionAlert;
 import com.massimobono.podiliardino.util.I18N;
 import com.massimobono.podiliardino.util.ObservableDistinctList;
@@ -103,8 +105,13 @@ public class DayHandlingController {
 	private Button exportMatches;
 	
 	private Main mainApp;
+	/**
+	 * the ranking computer used by every action of the controller. We keep only one since it can reuse the last ranking computed
+	 */
+	private RankingComputer<Team> rankingComputer;
 	
 	public DayHandlingController() {
+		this.rankingComputer = new SwissRankingManager();
 	}
 	
 	public void setup(Main mainApp) throws DAOException {
@@ -146,25 +153,38 @@ public class DayHandlingController {
 				celldata.getValue().getTeam2Goals().get()
 		)));
 		this.goalsColumn.setSortable(false);
-		this.totalGoalsDifferenceColumn.setCellValueFactory(celldata -> new SimpleStringProperty(String.format(
+		this.totalGoalsDifferenceColumn.setCellValueFactory(celldata -> {
+			TournamentMatchTable.Statistics statistics = this.computeStatistics(celldata.getValue());
+			return new SimpleStringProperty(String.format(
 				"%d / %d",
-				celldata.getValue().getTeam1().get().getNumberOfGoalsScored(tournamentTableView.getSelectionModel().getSelectedItem()) -
-				celldata.getValue().getTeam1().get().getNumberOfGoalsReceived(tournamentTableView.getSelectionModel().getSelectedItem()),
-				celldata.getValue().getTeam2().get().getNumberOfGoalsScored(tournamentTableView.getSelectionModel().getSelectedItem()) -
-				celldata.getValue().getTeam2().get().getNumberOfGoalsReceived(tournamentTableView.getSelectionModel().getSelectedItem())
-		)));
+				statistics.getGoalsDifference(0),
+				statistics.getGoalsDifference(1)
+			));
+		});
 		this.totalGoalsDifferenceColumn.setSortable(false);
-		this.totalOpponentsGoalColumn.setCellValueFactory(celldata -> new SimpleStringProperty(String.format(
+		this.totalOpponentsGoalColumn.setCellValueFactory(celldata -> {
+			TournamentMatchTable.Statistics statistics = this.computeStatistics(celldata.getValue());
+			return new SimpleStringProperty(String.format(
 				"%d / %d", 
-				celldata.getValue().getTeam1().get().getNumberOfGoalsYourOpponentsScored(tournamentTableView.getSelectionModel().getSelectedItem()),
-				celldata.getValue().getTeam2().get().getNumberOfGoalsYourOpponentsScored(tournamentTableView.getSelectionModel().getSelectedItem())
-		)));
+				statistics.getNumberOfGoalsYourOpponentsScored(0),
+				statistics.getNumberOfGoalsYourOpponentsScored(1)
+			));
+		});
 		this.totalOpponentsGoalColumn.setSortable(false);
 		
 		this.statusColumn.setCellValueFactory(celldata -> new SimpleStringProperty(celldata.getValue().getStatus().get().toString()));
 		this.statusColumn.setSortable(false);
 	}
 	
+	/**
+	 * 
+	 * @param m the match involved
+	 * @return the statistics the 2 teams of the match have in the selected tournament: team1 has index 0, team2 has index 1
+	 */
+	private TournamentMatchTable.Statistics computeStatistics(Match m) {
+		return this.tournamentTableView.getSelectionModel().getSelectedItem().getMatchTable().computeStatistics(Arrays.asList(m.getTeam1().get(), m.getTeam2().get()));
+	}
+	
 	@FXML
 	private void handleAddDay() {
 		try {
@@ -286,6 +306,8 @@ public class DayHandlingController {
 				//we delete the last item of the list
 				this.dayTableView.setItems(FXCollections.emptyObservableList());
 			} else {
+				//the tournament may have been loaded without its days
+				this.mainApp.getDAO().load(newValue);
 				this.dayTableView.setItems(newValue.daysProperty());
 			}
 		} catch (Exception e) {
@@ -355,18 +377,17 @@ public class DayHandlingController {
 				return;
 			}
 			
-			RankingComputer<Team> rm = new SwissRankingManager();
 			//we call the ranking immediately: 
-			List<Team> ranks = rm.getDayRanking(day);
-			PairComputer<Team> pairComputer = new DistinctMatchesByeAwarePairComputer<Team>();
+			List<Team> ranks = this.rankingComputer.getDayRanking(day);
+			PairComputer<Team> pairComputer = this.mainApp.getPairingEngine().<Team>create();
 			DummyMatchHandler dummyMatchHandler = new AddDefaultVictoryDummyMatchHandler();
-			day.matchesProperty().clear();
-			
 			
 			LOG.info("The ranking used to do computation is {}", ranks);
-			for (Pair<Team,Team> pair : pairComputer.computePairs(day, ranks)) {
+			List<Pair<Team,Team>> pairs = pairComputer.computePairs(day, ranks);
+			List<Match> matches = new ArrayList<>(pairs.size());
+			for (Pair<Team,Team> pair : pairs) {
 				if (pair.getValue() != null) {
-					day.matchesProperty().add(new Match(
+					matches.add(new Match(
 							pair.getKey(), 
 							pair.getValue(),
 							day, 
@@ -377,9 +398,16 @@ public class DayHandlingController {
 							MatchStatus.TODO));
 				} else {
 					//the second pair is empty. We need to perform an action to establish what will happen to the unpaired team
-					dummyMatchHandler.handleUnPairedTeam(day, pair.getKey());
+					dummyMatchHandler.handleUnPairedTeam(day, pair.getKey()).ifPresent(matches::add);
 				}
 			}
+			//every match removed and added is written in the database in a single transaction. If it fails, the day gets back its matches
+			List<Match> previousMatches = new ArrayList<>(day.matchesProperty());
+			this.mainApp.getDAO().inTransaction(() -> {
+				//the matches of the day are replaced with a single change
+				day.replaceMatches(matches);
+				return null;
+			}, () -> day.replaceMatches(previousMatches));
 		} catch (Exception e) {
 			ExceptionAlert.showAndWait(e);
 			e.printStackTrace();
@@ -405,8 +433,9 @@ public class DayHandlingController {
 					(c) -> {return Optional.ofNullable(c.isClickedOK() ? c.getMatch() : null);}
 					);
 			if (m.isPresent()) {
-				m.get().getDay().get().remove(m.get());
-				m.get().getDay().get().add(m.get());
+				//only the result has changed: we update the match in place
+				this.mainApp.getDAO().update(m.get());
+				this.matchesTableView.refresh();
 				this.matchesTableView.getSelectionModel().clearSelection();
 			}
 		} catch (Exception e) {
@@ -428,8 +457,7 @@ public class DayHandlingController {
 			}
 			
 			Day day = this.dayTableView.getSelectionModel().getSelectedItem();
-			RankingComputer<Team> rm = new SwissRankingManager();
-			List<Team> ranks = rm.getDayRanking(day);
+			List<Team> ranks = this.rankingComputer.getDayRanking(day);
 			
 			
 			FileChooser fileChooser = new FileChooser();
@@ -439,6 +467,8 @@ public class DayHandlingController {
             fileChooser.setInitialFileName("ranking.csv");
             File outFile = fileChooser.showSaveDialog(this.mainApp.getPrimaryStage());
             if (outFile != null) {
+            	//what we export needs to be persisted as well
+            	this.mainApp.getDAO().flush();
             	Formatter<List<Team>, File> rf = new CSVRankingFormatter(outFile.getAbsolutePath(), day);
     			rf.format(ranks);
     			
@@ -492,6 +522,8 @@ public class DayHandlingController {
             fileChooser.getExtensionFilters().add(new ExtensionFilter("CSV", "*.csv"));
             File outFile = fileChooser.showSaveDialog(this.mainApp.getPrimaryStage());
             if (outFile != null) {
+            	//what we export needs to be persisted as well
+            	this.mainApp.getDAO().flush();
     			Formatter<Day, File> matchesFormatter = new SimpleCSVMatchesFormatter(outFile.getAbsolutePath());
     			outFile = matchesFormatter.format(day);
     			
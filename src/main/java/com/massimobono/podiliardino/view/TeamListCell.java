@@ -7,6 +7,7 @@ import com.massimobono.podiliardino.extensibles.dao.DAOException;
 import com.massimobono.podiliardino.model.Partecipation;
 import com.massimobono.podiliardino.model.Team;
 import com.massimobono.podiliardino.model.Tournament;
+import com.massimobono.podiliardino.util.ExecutionPolicy;
 
 import javafx.collections.ObservableList;
 import javafx.scene.control.ListCell;
@@ -46,9 +47,7 @@ public class TeamListCell extends ListCell<Team>
             		team.partecipationsProperty().add(partecipation);
             		this.availableTeams.removeIf(t -> t.playersProperty().contains(team.playersProperty().get(0)) || t.playersProperty().contains(team.playersProperty().get(1)));
             	} else {
-            		Optional<Partecipation> op = tournament.partecipationsProperty()
-            		.stream()
-            		.parallel()
+            		Optional<Partecipation> op = ExecutionPolicy.stream(tournament.partecipationsProperty())
             		.filter(p -> {return p.getTeam().get().getId() == team.getId();}).findFirst();
             		op.ifPresent( p -> {
             			this.tournamentTable.getSelectionModel().getSelectedItem().partecipationsProperty().remove(p);	
@@ -58,7 +57,7 @@ public class TeamListCell extends ListCell<Team>
             	}
             });
             data.getNameLabel().setText(team.nameProperty().get());
-			data.getCheckBox().setSelected(this.tournamentTable.getSelectionModel().getSelectedItem().partecipationsProperty().parallelStream().filter(p -> p.getTeam().get() == team).findFirst().isPresent());
+			data.getCheckBox().setSelected(ExecutionPolicy.stream(this.tournamentTable.getSelectionModel().getSelectedItem().partecipationsProperty()).filter(p -> p.getTeam().get() == team).findFirst().isPresent());
             setGraphic(data.getPane());
         }
     }
@@ -18,6 +18,7 @@ import com.massimobono.podiliardino.model.Partecipation;
 import com.massimobono.podiliardino.model.Team;
 import com.massimobono.podiliardino.model.Tournament;
 import com.massimobono.podiliardino.util.ExceptionAlert;
+import com.massimobono.podiliardino.util.ExecutionPolicy;
 import com.massimobono.podiliardino.util.I18N;
 import com.massimobono.podiliardino.util.Utils;
 
@@ -153,8 +154,7 @@ public class TournamentHandlingController {
 											tournament.partecipationsProperty().add(partecipation);
 											team.partecipationsProperty().add(partecipation);
 										} else {
-											Optional<Partecipation> op = tournament.partecipationsProperty()
-													.parallelStream()
+											Optional<Partecipation> op = ExecutionPolicy.stream(tournament.partecipationsProperty())
 													.filter(p -> {return p.getTeam().get().getId() == team.getId();}).findFirst();
 											op.ifPresent( p -> {
 												tournament.partecipationsProperty().remove(p);	
@@ -164,8 +164,7 @@ public class TournamentHandlingController {
 										}
 									});
 									data.getNameLabel().setText(team.nameProperty().get());
-									data.getCheckBox().setSelected(tournament.partecipationsProperty()
-											.parallelStream()
+									data.getCheckBox().setSelected(ExecutionPolicy.stream(tournament.partecipationsProperty())
 											.filter(p -> p.getTeam().get() == team)
 											.findFirst().isPresent());
 									setGraphic(data.getPane());
@@ -326,8 +325,7 @@ public class TournamentHandlingController {
 		//removed partecipation: add all the teams not in display that were conflicting with the team removed
 		Collection<Team> toAdd = new HashSet<>();
 		for (Partecipation removedP : removed) {
-			toAdd.addAll(this.availableTeams
-					.parallelStream()
+			toAdd.addAll(ExecutionPolicy.stream(this.availableTeams)
 					.filter(t -> !t.isPartecipatingIn(tournament))
 					.filter(t -> t.containsAnyPlayerOfTeam(removedP.getTeam().get()))
 					.collect(Collectors.toSet()));
@@ -0,0 +1,116 @@
+package com.massimobono.podiliardino.extensibles.dao;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.massimobono.podiliardino.extensibles.dao.SQLiteDAOImpl.PendingWrite;
+
+/**
+ * Checks the writes {@link SQLiteDAOImpl#coalesce(List)} keeps out of a sequence of writes on the matches
+ *
+ * @author massi
+ *
+ */
+public class SQLiteDAOImplCoalesceTest {
+
+	private static final List<Object> KEY = Arrays.asList("match", 1L, 2L, 3L);
+	private static final List<Object> OTHER_KEY = Arrays.asList("match", 1L, 4L, 3L);
+	private static final String PARTIAL_UPDATE = SQLiteDAOImpl.PARTIAL_MATCH_UPDATE + "[team1_goals]";
+
+	private static PendingWrite insert(List<Object> key, int team1Goals, int team2Goals) {
+		return new PendingWrite("insertMatch", key, key.get(1), key.get(2), key.get(3), 3, 0, team1Goals, team2Goals, 1);
+	}
+
+	private static PendingWrite delete(List<Object> key) {
+		return new PendingWrite("deleteMatch", key, key.get(1), key.get(2), key.get(3));
+	}
+
+	private static PendingWrite partialUpdate(List<Object> key, int team1Goals) {
+		return new PendingWrite(PARTIAL_UPDATE, "UPDATE match SET team1_goals=? WHERE team1_id=? AND team2_id=? AND day_id=?", key, team1Goals, key.get(1), key.get(2), key.get(3));
+	}
+
+	@Test
+	public void testDeleteThenInsertBecomesUpdate() {
+		List<PendingWrite> writes = SQLiteDAOImpl.coalesce(Arrays.asList(delete(KEY), insert(KEY, 5, 4)));
+
+		assertEquals(1, writes.size());
+		assertEquals("updateMatch", writes.get(0).statement);
+		assertEquals(KEY, writes.get(0).key);
+		//the values first, then the columns identifying the match
+		assertArrayEquals(new Object[] {3, 0, 5, 4, 1, 1L, 2L, 3L}, writes.get(0).parameters);
+	}
+
+	@Test
+	public void testInsertDeleteInsertReplacesTheRow() {
+		PendingWrite last = insert(KEY, 2, 1);
+		List<PendingWrite> writes = SQLiteDAOImpl.coalesce(Arrays.asList(insert(KEY, 5, 4), delete(KEY), last));
+
+		assertEquals(2, writes.size());
+		assertEquals("deleteMatch", writes.get(0).statement);
+		assertArrayEquals(new Object[] {1L, 2L, 3L}, writes.get(0).parameters);
+		assertEquals(last, writes.get(1));
+	}
+
+	@Test
+	public void testInsertThenDeleteKeepsOnlyTheDelete() {
+		PendingWrite delete = delete(KEY);
+		List<PendingWrite> writes = SQLiteDAOImpl.coalesce(Arrays.asList(insert(KEY, 5, 4), delete));
+
+		assertEquals(Arrays.asList(delete), writes);
+	}
+
+	@Test
+	public void testPartialUpdateBeforeInsertIsDropped() {
+		PendingWrite insert = insert(KEY, 5, 4);
+		List<PendingWrite> writes = SQLiteDAOImpl.coalesce(Arrays.asList(partialUpdate(KEY, 7), insert));
+
+		assertEquals(Arrays.asList(insert), writes);
+	}
+
+	@Test
+	public void testPartialUpdateAfterInsertIsKept() {
+		PendingWrite insert = insert(KEY, 5, 4);
+		PendingWrite update = partialUpdate(KEY, 7);
+		List<PendingWrite> writes = SQLiteDAOImpl.coalesce(Arrays.asList(insert, update));
+
+		assertEquals(Arrays.asList(insert, update), writes);
+	}
+
+	@Test
+	public void testPartialUpdateAfterDeleteThenInsertFollowsTheUpdate() {
+		PendingWrite update = partialUpdate(KEY, 7);
+		List<PendingWrite> writes = SQLiteDAOImpl.coalesce(Arrays.asList(partialUpdate(KEY, 6), delete(KEY), insert(KEY, 5, 4), update));
+
+		assertEquals(2, writes.size());
+		assertEquals("updateMatch", writes.get(0).statement);
+		assertEquals(update, writes.get(1));
+	}
+
+	@Test
+	public void testPartialUpdatesWithoutOtherWritesAreKept() {
+		PendingWrite first = partialUpdate(KEY, 6);
+		PendingWrite second = partialUpdate(KEY, 7);
+		List<PendingWrite> writes = SQLiteDAOImpl.coalesce(Arrays.asList(first, second));
+
+		assertEquals(Arrays.asList(first, second), writes);
+	}
+
+	@Test
+	public void testRowsAreCoalescedIndependently() {
+		PendingWrite otherInsert = insert(OTHER_KEY, 1, 0);
+		PendingWrite otherUpdate = partialUpdate(OTHER_KEY, 2);
+		List<PendingWrite> writes = SQLiteDAOImpl.coalesce(Arrays.asList(delete(KEY), otherInsert, insert(KEY, 5, 4), otherUpdate));
+
+		assertEquals(3, writes.size());
+		assertEquals(otherInsert, writes.get(0));
+		assertEquals("updateMatch", writes.get(1).statement);
+		assertEquals(KEY, writes.get(1).key);
+		assertEquals(otherUpdate, writes.get(2));
+	}
+
+}
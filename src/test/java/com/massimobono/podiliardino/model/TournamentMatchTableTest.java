@@ -0,0 +1,143 @@
+package com.massimobono.podiliardino.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that {@link TournamentMatchTable} stays consistent with the matches of its tournament while rows, teams and days are removed
+ *
+ * @author massi
+ *
+ */
+public class TournamentMatchTableTest {
+
+	private static final int TEAMS = 6;
+
+	private Tournament tournament;
+	private List<Team> teams;
+	private Day day1;
+	private Day day2;
+
+	@Before
+	public void setUp() {
+		this.tournament = new Tournament(1, "tournament", LocalDate.now(), null, new ArrayList<>(), new ArrayList<>());
+		this.teams = new ArrayList<>();
+		for (int i=0; i<TEAMS; i++) {
+			Team t = new Team(i + 1, "team" + i, LocalDate.now(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+			t.add(new Partecipation(this.tournament, t));
+			this.teams.add(t);
+		}
+		this.day1 = new Day(1, 1, LocalDate.now(), null, new ArrayList<>());
+		this.day2 = new Day(2, 2, LocalDate.now(), null, new ArrayList<>());
+		this.tournament.add(this.day1);
+		this.tournament.add(this.day2);
+	}
+
+	private Match addMatch(Day day, int team1, int team2, int team1Goals, int team2Goals, MatchStatus status) {
+		Match m = new Match(this.teams.get(team1), this.teams.get(team2), day, 3, 0, team1Goals, team2Goals, status);
+		day.add(m);
+		return m;
+	}
+
+	/**
+	 * Compares the statistics of the table with the ones {@link Team} computes by walking its matches
+	 */
+	private void assertSameStatistics() {
+		TournamentMatchTable.Statistics statistics = this.tournament.getMatchTable().computeStatistics(this.teams);
+		for (int i=0; i<this.teams.size(); i++) {
+			Team t = this.teams.get(i);
+			assertEquals(t.toString(), t.getPointsScoredIn(this.tournament), statistics.getPointsScored(i));
+			assertEquals(t.toString(), t.getNumberOfGoalsScored(this.tournament), statistics.getNumberOfGoalsScored(i));
+			assertEquals(t.toString(), t.getNumberOfGoalsReceived(this.tournament), statistics.getNumberOfGoalsReceived(i));
+			assertEquals(t.toString(), t.getNumberOfGoalsYourOpponentsScored(this.tournament), statistics.getNumberOfGoalsYourOpponentsScored(i));
+			assertEquals(t.toString(), t.getPointsYourOpponentsScored(this.tournament), statistics.getPointsYourOpponentsScored(i));
+		}
+	}
+
+	@Test
+	public void testRemovingARowMovesTheLastOne() {
+		TournamentMatchTable table = this.tournament.getMatchTable();
+		this.addMatch(this.day1, 0, 1, 2, 1, MatchStatus.DONE);
+		Match removed = this.addMatch(this.day1, 2, 3, 0, 4, MatchStatus.DONE);
+		this.addMatch(this.day2, 4, 5, 1, 1, MatchStatus.TODO);
+
+		this.day1.remove(removed);
+
+		assertEquals(2, table.size());
+		assertEquals(1, table.getNumberOfMatches(this.day1, MatchStatus.DONE));
+		assertEquals(1, table.getNumberOfMatches(this.day2, MatchStatus.TODO));
+		this.assertSameStatistics();
+	}
+
+	@Test
+	public void testMovedRowKeepsItsResultUpdated() {
+		TournamentMatchTable table = this.tournament.getMatchTable();
+		Match removed = this.addMatch(this.day1, 0, 1, 2, 1, MatchStatus.DONE);
+		Match moved = this.addMatch(this.day2, 2, 3, 0, 4, MatchStatus.TODO);
+
+		this.day1.remove(removed);
+		moved.getTeam1Goals().set(5);
+		moved.getStatus().set(MatchStatus.DONE);
+
+		assertEquals(1, table.size());
+		assertEquals(1, table.getNumberOfMatches(this.day2, MatchStatus.DONE));
+		this.assertSameStatistics();
+	}
+
+	@Test
+	public void testTeamsAndDaysWithoutMatchesAreReleased() {
+		TournamentMatchTable table = this.tournament.getMatchTable();
+		Match first = this.addMatch(this.day1, 0, 1, 2, 1, MatchStatus.DONE);
+		this.addMatch(this.day1, 1, 2, 3, 0, MatchStatus.DONE);
+		this.addMatch(this.day2, 3, 4, 0, 2, MatchStatus.DONE);
+		assertEquals(5, table.getNumberOfTeams());
+		assertEquals(2, table.getNumberOfDays());
+
+		//team 0 has the first index: the last team takes its place
+		this.day1.remove(first);
+		assertEquals(4, table.getNumberOfTeams());
+		this.assertSameStatistics();
+
+		//day 1 has the first index: day 2 takes its place
+		this.day1.removeAllMatches();
+		assertEquals(2, table.getNumberOfTeams());
+		assertEquals(1, table.getNumberOfDays());
+		assertEquals(0, table.getNumberOfMatches(this.day1, MatchStatus.DONE));
+		assertEquals(1, table.getNumberOfMatches(this.day2, MatchStatus.DONE));
+		this.assertSameStatistics();
+
+		this.tournament.daysProperty().remove(this.day2);
+		assertEquals(0, table.size());
+		assertEquals(0, table.getNumberOfTeams());
+		assertEquals(0, table.getNumberOfDays());
+		this.assertSameStatistics();
+	}
+
+	@Test
+	public void testRandomChanges() {
+		TournamentMatchTable table = this.tournament.getMatchTable();
+		Random random = new Random(1);
+		List<Day> days = Arrays.asList(this.day1, this.day2);
+		for (int step=0; step<2000; step++) {
+			Day day = days.get(random.nextInt(days.size()));
+			int team1 = random.nextInt(TEAMS);
+			int team2 = random.nextInt(TEAMS);
+			if (random.nextBoolean() && team1 != team2) {
+				this.addMatch(day, team1, team2, random.nextInt(5), random.nextInt(5), random.nextBoolean() ? MatchStatus.DONE : MatchStatus.TODO);
+			} else if (!day.matchesProperty().isEmpty()) {
+				day.remove(day.matchesProperty().get(random.nextInt(day.matchesProperty().size())));
+			}
+			assertEquals(this.day1.matchesProperty().size() + this.day2.matchesProperty().size(), table.size());
+		}
+		this.assertSameStatistics();
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.massimobono.podiliardino.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Compares {@link MaximumWeightMatching} with an exhaustive search of every matching of small random graphs
+ *
+ * @author massi
+ *
+ */
+public class MaximumWeightMatchingTest {
+
+	private static final int GRAPHS_PER_SIZE = 300;
+	private static final int MAX_VERTICES = 10;
+	private static final long MAX_WEIGHT = 50;
+
+	@Test
+	public void testMaximumWeight() {
+		this.checkRandomGraphs(false, false, 1);
+	}
+
+	@Test
+	public void testMaximumCardinality() {
+		this.checkRandomGraphs(true, false, 2);
+	}
+
+	/**
+	 * Every vertex is connected to an additional vertex, like the bye of an odd number of teams
+	 */
+	@Test
+	public void testMaximumCardinalityWithBye() {
+		this.checkRandomGraphs(true, true, 3);
+	}
+
+	@Test
+	public void testOddCompleteGraphLeavesOneVertexUnmatched() {
+		MaximumWeightMatching m = new MaximumWeightMatching(5);
+		for (int i=0; i<5; i++) {
+			for (int j=i+1; j<5; j++) {
+				m.addEdge(i, j, 1);
+			}
+		}
+		int[] mate = m.compute(true);
+		int unmatched = 0;
+		for (int v : mate) {
+			if (v == -1) {
+				unmatched++;
+			}
+		}
+		assertEquals(1, unmatched);
+	}
+
+	/**
+	 *
+	 * @param maxCardinality the parameter of {@link MaximumWeightMatching#compute(boolean)}
+	 * @param bye true if we need to add a vertex connected to every other vertex when the vertices are odd
+	 * @param seed the seed of the random graphs
+	 */
+	private void checkRandomGraphs(boolean maxCardinality, boolean bye, long seed) {
+		Random random = new Random(seed);
+		for (int n=1; n<=MAX_VERTICES; n++) {
+			for (int g=0; g<GRAPHS_PER_SIZE; g++) {
+				int vertices = (bye && (n % 2) == 1) ? n + 1 : n;
+				long[][] weights = new long[vertices][vertices];
+				double density = 0.2 + (0.8 * random.nextDouble());
+				MaximumWeightMatching m = new MaximumWeightMatching(vertices);
+				for (int i=0; i<vertices; i++) {
+					for (int j=i+1; j<vertices; j++) {
+						boolean byeEdge = vertices != n && j == n;
+						if (byeEdge || random.nextDouble() < density) {
+							weights[i][j] = weights[j][i] = 1 + (long)(random.nextDouble() * MAX_WEIGHT);
+							m.addEdge(i, j, weights[i][j]);
+						}
+					}
+				}
+				int[] mate = m.compute(maxCardinality);
+				long[] expected = this.bestMatching(weights, new boolean[vertices], 0, maxCardinality);
+				long[] actual = this.evaluate(weights, mate);
+				String graph = String.format("vertices=%d graph=%d seed=%d", vertices, g, seed);
+				if (maxCardinality) {
+					assertEquals("cardinality of " + graph, expected[0], actual[0]);
+				}
+				assertEquals("weight of " + graph, expected[1], actual[1]);
+			}
+		}
+	}
+
+	/**
+	 * Checks that <tt>mate</tt> is a matching of the graph
+	 *
+	 * @param weights the weights of the edges. 0 means there is no edge
+	 * @param mate the matching to check
+	 * @return the number of edges and the weight of the matching
+	 */
+	private long[] evaluate(long[][] weights, int[] mate) {
+		assertEquals(weights.length, mate.length);
+		long[] retVal = new long[2];
+		for (int i=0; i<mate.length; i++) {
+			if (mate[i] == -1) {
+				continue;
+			}
+			assertEquals("matching not symmetric", i, mate[mate[i]]);
+			assertTrue("matched vertices without edge", weights[i][mate[i]] > 0);
+			if (mate[i] > i) {
+				retVal[0]++;
+				retVal[1] += weights[i][mate[i]];
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Tries every matching of the vertices from <tt>from</tt> on
+	 *
+	 * @param weights the weights of the edges. 0 means there is no edge
+	 * @param matched the vertices already matched
+	 * @param from the first vertex not decided yet
+	 * @param maxCardinality true if a matching with more edges is always better
+	 * @return the number of edges and the weight of the best matching
+	 */
+	private long[] bestMatching(long[][] weights, boolean[] matched, int from, boolean maxCardinality) {
+		while (from < matched.length && matched[from]) {
+			from++;
+		}
+		if (from == matched.length) {
+			return new long[2];
+		}
+		//the vertex stays unmatched
+		long[] retVal = this.bestMatching(weights, matched, from + 1, maxCardinality);
+		matched[from] = true;
+		for (int j=from+1; j<matched.length; j++) {
+			if (matched[j] || weights[from][j] == 0) {
+				continue;
+			}
+			matched[j] = true;
+			long[] candidate = this.bestMatching(weights, matched, from + 1, maxCardinality);
+			candidate = new long[] {candidate[0] + 1, candidate[1] + weights[from][j]};
+			matched[j] = false;
+			boolean better = maxCardinality && candidate[0] != retVal[0] ? candidate[0] > retVal[0] : candidate[1] > retVal[1];
+			if (better) {
+				retVal = candidate;
+			}
+		}
+		matched[from] = false;
+		return retVal;
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.massimobono.podiliardino.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import javafx.collections.MapChangeListener;
+
+/**
+ * Checks that the removals of {@link TableFriendlyObservableMap} keep the lists and the positions of the ids aligned
+ *
+ * @author massi
+ *
+ */
+public class TableFriendlyObservableMapTest {
+
+	private static TableFriendlyObservableMap<String> create(long... keys) {
+		TableFriendlyObservableMap<String> retVal = new TableFriendlyObservableMap<>();
+		for (long key : keys) {
+			retVal.put(key, "v" + key);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Checks that every id of the map is found at the position of its value
+	 */
+	private static void assertAligned(TableFriendlyObservableMap<String> map) {
+		assertEquals(map.observableKeyList().size(), map.observableValueList().size());
+		for (int i=0; i<map.observableKeyList().size(); i++) {
+			long key = map.observableKeyList().get(i);
+			assertEquals("v" + key, map.observableValueList().get(i));
+			assertEquals("v" + key, map.get(key));
+		}
+	}
+
+	@Test
+	public void testRemoveMovesTheLastEntry() {
+		TableFriendlyObservableMap<String> map = create(1, 2, 3, 4);
+
+		assertEquals("v2", map.remove(2L));
+
+		assertEquals(3, map.size());
+		assertFalse(map.containsKey(2L));
+		assertNull(map.get(2L));
+		//the last id takes the place of the removed one
+		assertEquals(4L, (long) map.observableKeyList().get(1));
+		assertAligned(map);
+	}
+
+	@Test
+	public void testRemoveLastEntry() {
+		TableFriendlyObservableMap<String> map = create(1, 2, 3);
+
+		assertEquals("v3", map.remove(3L));
+
+		assertEquals(2, map.size());
+		assertEquals(2L, (long) map.observableKeyList().get(1));
+		assertAligned(map);
+	}
+
+	@Test
+	public void testRemoveMissingId() {
+		TableFriendlyObservableMap<String> map = create(1, 2);
+		List<MapChangeListener.Change<? extends Long, ? extends String>> changes = new ArrayList<>();
+		map.addListener((MapChangeListener<Long, String>) changes::add);
+
+		assertNull(map.remove(5L));
+		assertNull(map.remove("5"));
+
+		assertEquals(2, map.size());
+		assertTrue(changes.isEmpty());
+		assertAligned(map);
+	}
+
+	@Test
+	public void testRemoveNotifiesTheRemovedEntry() {
+		TableFriendlyObservableMap<String> map = create(1, 2, 3);
+		List<MapChangeListener.Change<? extends Long, ? extends String>> changes = new ArrayList<>();
+		map.addListener((MapChangeListener<Long, String>) changes::add);
+
+		map.remove(1L);
+
+		assertEquals(1, changes.size());
+		assertTrue(changes.get(0).wasRemoved());
+		assertFalse(changes.get(0).wasAdded());
+		assertEquals(1L, (long) changes.get(0).getKey());
+		assertEquals("v1", changes.get(0).getValueRemoved());
+	}
+
+	@Test
+	public void testPutAfterRemove() {
+		TableFriendlyObservableMap<String> map = create(1, 2, 3);
+
+		map.remove(1L);
+		map.put(1L, "v1");
+		map.remove(3L);
+
+		assertEquals(2, map.size());
+		assertTrue(map.containsKey(1L));
+		assertFalse(map.containsKey(3L));
+		assertAligned(map);
+	}
+
+	@Test
+	public void testRandomRemovals() {
+		Random random = new Random(1);
+		TableFriendlyObservableMap<String> map = new TableFriendlyObservableMap<>();
+		Map<Long, String> expected = new HashMap<>();
+		for (int step=0; step<5000; step++) {
+			long key = random.nextInt(100);
+			if (random.nextBoolean()) {
+				map.put(key, "v" + key);
+				expected.put(key, "v" + key);
+			} else {
+				assertEquals(expected.remove(key), map.remove(key));
+			}
+		}
+		assertEquals(expected, map);
+		assertAligned(map);
+	}
+
+}